@@ -0,0 +1,109 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.IndexedMinHeap;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Location;
+import graph.Route;
+
+/**
+ * Thuật toán A* (tìm kiếm có định hướng về đích).
+ * Giống Dijkstra nhưng độ ưu tiên của đỉnh v là g(v) + h(v), với h là cận dưới
+ * của quãng đường còn lại đến đích (xem {@link Heuristic}). Heuristic càng sát
+ * thực tế thì số đỉnh phải mở rộng càng ít.
+ * Nếu heuristic chỉ admissible mà không nhất quán (consistent), một đỉnh có thể được
+ * mở lại khi tìm thấy g nhỏ hơn, nên kết quả vẫn tối ưu.
+ */
+public class AStarSearch {
+
+    /**
+     * Tìm đường đi ngắn nhất bằng A* với heuristic địa lý (tọa độ Location).
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criteria Tiêu chí ("distance", "time", "cost").
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, String criteria) {
+        Criterion criterion = ShortestPathAlgorithm.parseCriteria(criteria);
+        if (criterion == null) {
+            return new DijkstraResult();
+        }
+        return findShortestPath(graph, startId, endId, criterion);
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất bằng A* với heuristic địa lý, theo tiêu chí đã kiểm tra trước.
+     * Heuristic được tạo mới ở mỗi lần gọi (duyệt toàn bộ cạnh để lấy hệ số); với nhiều truy vấn
+     * trên cùng đồ thị, hãy tạo GeographicHeuristic một lần và dùng bản nhận Heuristic.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion) {
+        return findShortestPath(graph, startId, endId, criterion, new GeographicHeuristic(graph, criterion),
+                SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất bằng A* với heuristic tùy chọn.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param heuristic Cận dưới của quãng đường còn lại theo cùng tiêu chí.
+     * @param context Trạng thái tìm kiếm dùng lại.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                                  Heuristic heuristic, SearchContext context) {
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new DijkstraResult();
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new DijkstraResult();
+        }
+
+        int n = graph.getMaxVertices();
+        context.reset(n);
+        context.setDistance(startId, 0.0, -1);
+        IndexedMinHeap open = context.getHeap(); // Tập mở, độ ưu tiên f = g + h
+        open.insert(startId, heuristic.estimate(startId, endId));
+
+        while (!open.isEmpty()) {
+            int u = open.extractMin();
+            context.markSettled(u);
+            if (u == endId) {
+                break;
+            }
+
+            double gU = context.getDistance(u);
+            for (Route route : graph.getNeighbors(u)) {
+                int v = route.destinationId;
+                double newG = gU + criterion.weightOf(route);
+                if (newG < context.getDistance(v)) {
+                    context.setDistance(v, newG, u);
+                    // Đỉnh đã đóng vẫn được mở lại nếu tìm thấy g tốt hơn
+                    open.insertOrDecrease(v, newG + heuristic.estimate(v, endId));
+                }
+            }
+        }
+
+        double total = context.getDistance(endId);
+        if (total == Double.POSITIVE_INFINITY) {
+            return new DijkstraResult();
+        }
+
+        CustomLinkedList<Location> path = ShortestPathAlgorithm.tracePath(graph::getLocationById, n,
+                context::getPreviousVertex, startId, endId);
+        return new DijkstraResult(path, total);
+    }
+}
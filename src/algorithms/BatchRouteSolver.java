@@ -0,0 +1,212 @@
+package algorithms;
+
+import graph.CsrGraph;
+import graph.GraphView;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Giải một lô lớn truy vấn tìm đường song song trên nhiều lõi.
+ * Đồ thị được chia sẻ chỉ đọc giữa các luồng (không được sửa đổi trong khi giải;
+ * với ConcurrentGraph, truyền vào một GraphSnapshot để cả lô dùng cùng một phiên bản);
+ * mỗi luồng worker dùng SearchContext riêng ({@link SearchContext#forCurrentThread()}),
+ * nên các truy vấn không chia sẻ trạng thái ghi và thông lượng tăng gần tuyến tính theo số lõi.
+ * Lô được chia đệ quy thành các đoạn liên tiếp trên một ForkJoinPool riêng (work-stealing);
+ * kết quả được ghi vào đúng vị trí của truy vấn nên thứ tự được giữ nguyên.
+ * Bộ đếm thông lượng và độ trễ được cộng dồn qua các lô cho đến khi gọi resetStatistics().
+ */
+public class BatchRouteSolver implements AutoCloseable {
+
+    // Số truy vấn tối đa của một đoạn không chia nhỏ thêm
+    private static final int SEQUENTIAL_THRESHOLD = 32;
+
+    private final GraphView graph;   // null nếu giải trên đồ thị CSR
+    private final CsrGraph csrGraph; // null nếu giải trên GraphView
+    private final ForkJoinPool pool;
+
+    private final LongAdder completedQueries = new LongAdder();
+    private final LongAdder foundPaths = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LongAdder batchWallNanos = new LongAdder();
+
+    /**
+     * Constructor dùng số luồng bằng số lõi CPU.
+     * @param graph Đồ thị (chỉ đọc trong suốt thời gian giải).
+     */
+    public BatchRouteSolver(GraphView graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     * @param graph Đồ thị (chỉ đọc trong suốt thời gian giải).
+     * @param parallelism Số luồng worker.
+     * @throws IllegalArgumentException nếu parallelism không dương.
+     */
+    public BatchRouteSolver(GraphView graph, int parallelism) {
+        this(graph, null, parallelism);
+    }
+
+    /**
+     * Constructor dùng số luồng bằng số lõi CPU.
+     * @param graph Đồ thị CSR.
+     */
+    public BatchRouteSolver(CsrGraph graph) {
+        this(graph, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     * @param graph Đồ thị CSR.
+     * @param parallelism Số luồng worker.
+     * @throws IllegalArgumentException nếu parallelism không dương.
+     */
+    public BatchRouteSolver(CsrGraph graph, int parallelism) {
+        this(null, graph, parallelism);
+    }
+
+    private BatchRouteSolver(GraphView graph, CsrGraph csrGraph, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.graph = graph;
+        this.csrGraph = csrGraph;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Giải tất cả truy vấn và trả về kết quả theo đúng thứ tự.
+     * @param queries Mảng truy vấn.
+     * @return Mảng kết quả, results[i] ứng với queries[i].
+     */
+    public DijkstraResult[] solveAll(RouteQuery[] queries) {
+        DijkstraResult[] results = new DijkstraResult[queries.length];
+        long start = System.nanoTime();
+        pool.invoke(new SolveTask(queries, results, 0, queries.length));
+        batchWallNanos.add(System.nanoTime() - start);
+        return results;
+    }
+
+    /**
+     * Giải một truy vấn trên luồng hiện tại, cập nhật bộ đếm.
+     */
+    private DijkstraResult solve(RouteQuery query) {
+        long start = System.nanoTime();
+        DijkstraResult result;
+        if (csrGraph != null) {
+            result = ShortestPathAlgorithm.findShortestPath(csrGraph, query.startId, query.endId, query.criterion);
+        } else {
+            result = ShortestPathAlgorithm.findShortestPath(graph, query.startId, query.endId, query.criterion);
+        }
+        long latency = System.nanoTime() - start;
+
+        completedQueries.increment();
+        if (result.pathFound) {
+            foundPaths.increment();
+        }
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        return result;
+    }
+
+    /**
+     * Tác vụ fork-join giải đoạn truy vấn [from, to).
+     */
+    private final class SolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RouteQuery[] queries;
+        private final DijkstraResult[] results;
+        private final int from;
+        private final int to;
+
+        SolveTask(RouteQuery[] queries, DijkstraResult[] results, int from, int to) {
+            this.queries = queries;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = solve(queries[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SolveTask(queries, results, from, middle),
+                    new SolveTask(queries, results, middle, to));
+        }
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Lấy tổng số truy vấn đã giải.
+     * @return Số truy vấn.
+     */
+    public long getCompletedQueries() {
+        return completedQueries.sum();
+    }
+
+    /**
+     * Lấy số truy vấn tìm thấy đường đi.
+     * @return Số truy vấn có đường đi.
+     */
+    public long getFoundPaths() {
+        return foundPaths.sum();
+    }
+
+    /**
+     * Độ trễ trung bình của một truy vấn (micro giây).
+     * @return Độ trễ trung bình, 0 nếu chưa giải truy vấn nào.
+     */
+    public double getAverageLatencyMicros() {
+        long count = completedQueries.sum();
+        return count == 0 ? 0.0 : totalLatencyNanos.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Độ trễ lớn nhất của một truy vấn (micro giây).
+     * @return Độ trễ lớn nhất.
+     */
+    public double getMaxLatencyMicros() {
+        return maxLatencyNanos.get() / 1000.0;
+    }
+
+    /**
+     * Thông lượng: số truy vấn mỗi giây tính trên tổng thời gian thực của các lô.
+     * @return Số truy vấn mỗi giây, 0 nếu chưa giải lô nào.
+     */
+    public double getThroughputPerSecond() {
+        long wall = batchWallNanos.sum();
+        return wall == 0 ? 0.0 : completedQueries.sum() * 1e9 / wall;
+    }
+
+    /**
+     * Đặt lại các bộ đếm thống kê (không nên gọi đồng thời với solveAll).
+     */
+    public void resetStatistics() {
+        completedQueries.reset();
+        foundPaths.reset();
+        totalLatencyNanos.reset();
+        maxLatencyNanos.set(0);
+        batchWallNanos.reset();
+    }
+
+    /**
+     * Dừng các luồng worker. Không dùng lại solver sau khi đóng.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,154 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.IndexedMinHeap;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Location;
+import graph.Route;
+
+/**
+ * Thuật toán Dijkstra hai chiều cho truy vấn điểm - điểm.
+ * Tìm kiếm xuôi từ startId trên danh sách kề và tìm kiếm ngược từ endId trên
+ * chỉ mục ngược ({@link GraphView#getIncomingRoutes(int)}), luân phiên mở rộng phía
+ * có độ ưu tiên nhỏ hơn. Thuật toán dừng khi tổng hai độ ưu tiên nhỏ nhất của
+ * hai heap không nhỏ hơn độ dài đường đi tốt nhất đã gặp (điều kiện dừng chuẩn),
+ * nên thường chỉ tối ưu một phần nhỏ số đỉnh so với Dijkstra một chiều.
+ */
+public class BidirectionalDijkstra {
+
+    // SearchContext thứ hai cho chiều ngược (chiều xuôi dùng SearchContext.forCurrentThread())
+    private static final ThreadLocal<SearchContext> BACKWARD_CONTEXT =
+            ThreadLocal.withInitial(() -> new SearchContext(16));
+
+    /**
+     * Tìm đường đi ngắn nhất từ startId đến endId bằng Dijkstra hai chiều.
+     * Sử dụng các SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criteria Tiêu chí ("distance", "time", "cost").
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, String criteria) {
+        Criterion criterion = ShortestPathAlgorithm.parseCriteria(criteria);
+        if (criterion == null) {
+            return new DijkstraResult();
+        }
+        return findShortestPath(graph, startId, endId, criterion);
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất bằng Dijkstra hai chiều theo tiêu chí đã kiểm tra trước.
+     * Sử dụng các SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion) {
+        return findShortestPath(graph, startId, endId, criterion,
+                SearchContext.forCurrentThread(), BACKWARD_CONTEXT.get());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất từ startId đến endId bằng Dijkstra hai chiều.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param forward Context cho chiều xuôi.
+     * @param backward Context cho chiều ngược (phải khác forward).
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                                  SearchContext forward, SearchContext backward) {
+        if (forward == backward) {
+            throw new IllegalArgumentException("Forward and backward contexts must be different objects.");
+        }
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new DijkstraResult();
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new DijkstraResult();
+        }
+
+        int n = graph.getMaxVertices();
+        forward.reset(n);
+        backward.reset(n);
+        forward.setDistance(startId, 0.0, -1);
+        backward.setDistance(endId, 0.0, -1);
+        IndexedMinHeap forwardHeap = forward.getHeap();
+        IndexedMinHeap backwardHeap = backward.getHeap();
+        forwardHeap.insert(startId, 0.0);
+        backwardHeap.insert(endId, 0.0);
+
+        double best = (startId == endId) ? 0.0 : Double.POSITIVE_INFINITY; // Độ dài đường đi tốt nhất đã gặp
+        int meetingVertex = (startId == endId) ? startId : -1;            // Đỉnh gặp nhau tương ứng
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            double forwardMin = forwardHeap.peekMinKey();
+            double backwardMin = backwardHeap.peekMinKey();
+            // Điều kiện dừng: không còn đường đi nào qua các đỉnh chưa tối ưu có thể tốt hơn best
+            if (forwardMin + backwardMin >= best) {
+                break;
+            }
+
+            boolean expandForward = forwardMin <= backwardMin;
+            SearchContext self = expandForward ? forward : backward;
+            SearchContext other = expandForward ? backward : forward;
+            IndexedMinHeap heap = self.getHeap();
+
+            int u = heap.extractMin();
+            self.markSettled(u);
+            double distU = self.getDistance(u);
+
+            Iterable<Route> routes = expandForward ? graph.getNeighbors(u) : graph.getIncomingRoutes(u);
+            for (Route route : routes) {
+                int v = route.destinationId;
+                if (self.isSettled(v)) {
+                    continue;
+                }
+                double newDist = distU + criterion.weightOf(route);
+                if (newDist < self.getDistance(v)) {
+                    self.setDistance(v, newDist, u);
+                    heap.insertOrDecrease(v, newDist);
+                }
+                // Cập nhật đường đi tốt nhất nếu phía còn lại đã chạm tới v
+                double candidate = self.getDistance(v) + other.getDistance(v);
+                if (candidate < best) {
+                    best = candidate;
+                    meetingVertex = v;
+                }
+            }
+        }
+
+        if (meetingVertex == -1) {
+            return new DijkstraResult(); // Không tìm thấy đường đi
+        }
+
+        // Nửa đầu: startId -> meetingVertex theo cây xuôi
+        CustomLinkedList<Location> path = ShortestPathAlgorithm.tracePath(graph::getLocationById, n,
+                forward::getPreviousVertex, startId, meetingVertex);
+        if (path.isEmpty()) {
+            return new DijkstraResult();
+        }
+        // Nửa sau: meetingVertex -> endId theo cây ngược (previous của cây ngược là đỉnh kế tiếp về phía đích)
+        int current = meetingVertex;
+        while (current != endId) {
+            current = backward.getPreviousVertex(current);
+            if (current == -1 || path.size() > n) {
+                System.err.println("Error: Could not trace path forward to end node.");
+                return new DijkstraResult();
+            }
+            path.add(graph.getLocationById(current));
+        }
+        return new DijkstraResult(path, best);
+    }
+}
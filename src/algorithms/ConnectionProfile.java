@@ -0,0 +1,93 @@
+package algorithms;
+
+/**
+ * Kết quả của truy vấn hồ sơ Connection Scan: tập Pareto các cặp (giờ khởi hành muộn nhất, giờ đến sớm nhất)
+ * từ điểm xuất phát đến đích trong một khung giờ. Các cặp được sắp theo giờ khởi hành tăng dần, và giờ đến
+ * cũng tăng dần (khởi hành muộn hơn mà đến sớm hơn thì cặp trước đã bị loại).
+ * Hành trình cụ thể của một cặp được lấy bằng {@link ConnectionScan#findEarliestArrival} tại giờ khởi hành của cặp.
+ */
+public class ConnectionProfile {
+    private final double[] departureTimes;
+    private final double[] arrivalTimes;
+
+    /**
+     * Constructor cho trường hợp tìm thấy hành trình.
+     * @param departureTimes Giờ khởi hành của các cặp, tăng dần.
+     * @param arrivalTimes Giờ đến tương ứng, tăng dần.
+     */
+    public ConnectionProfile(double[] departureTimes, double[] arrivalTimes) {
+        if (departureTimes.length != arrivalTimes.length) {
+            throw new IllegalArgumentException("Profile needs the same number of departure and arrival times.");
+        }
+        this.departureTimes = departureTimes.clone();
+        this.arrivalTimes = arrivalTimes.clone();
+    }
+
+    /**
+     * Constructor cho trường hợp không tìm thấy hành trình nào.
+     */
+    public ConnectionProfile() {
+        this.departureTimes = new double[0];
+        this.arrivalTimes = new double[0];
+    }
+
+    /**
+     * Lấy số cặp trong hồ sơ.
+     * @return Số hành trình không bị trội.
+     */
+    public int size() {
+        return departureTimes.length;
+    }
+
+    public boolean isEmpty() {
+        return departureTimes.length == 0;
+    }
+
+    /**
+     * Lấy giờ khởi hành của một cặp.
+     * @param index Vị trí cặp.
+     * @return Giờ khởi hành.
+     * @throws IndexOutOfBoundsException nếu vị trí không hợp lệ.
+     */
+    public double getDepartureTime(int index) {
+        checkIndex(index);
+        return departureTimes[index];
+    }
+
+    /**
+     * Lấy giờ đến của một cặp.
+     * @param index Vị trí cặp.
+     * @return Giờ đến đích.
+     * @throws IndexOutOfBoundsException nếu vị trí không hợp lệ.
+     */
+    public double getArrivalTime(int index) {
+        checkIndex(index);
+        return arrivalTimes[index];
+    }
+
+    /**
+     * Giờ đến sớm nhất khi có mặt tại điểm xuất phát lúc departureTime, trong phạm vi khung giờ của truy vấn.
+     * @param departureTime Giờ có mặt tại điểm xuất phát.
+     * @return Giờ đến đích, hoặc Double.POSITIVE_INFINITY nếu không còn hành trình nào trong hồ sơ.
+     */
+    public double getEarliestArrival(double departureTime) {
+        // Cặp đầu tiên có giờ khởi hành >= departureTime (tìm kiếm nhị phân)
+        int low = 0;
+        int high = departureTimes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (departureTimes[middle] < departureTime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < arrivalTimes.length ? arrivalTimes[low] : Double.POSITIVE_INFINITY;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= departureTimes.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + departureTimes.length);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.CompactTimetable;
+import graph.Location;
+import graph.TransportMode;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf/fill để thay đổi kích thước và khởi tạo mảng
+
+/**
+ * Connection Scan Algorithm (CSA) trên lịch chạy {@link CompactTimetable} cho phương tiện theo lịch (tàu, máy bay).
+ * Không dùng hàng đợi ưu tiên: các chuyến nối đã được sắp theo giờ khởi hành, nên chỉ cần duyệt tuần tự
+ * các mảng nguyên thủy liên tục một lần, mỗi chuyến nối O(1).
+ * <ul>
+ *   <li>Đến sớm nhất: duyệt xuôi từ giờ khởi hành, dừng khi chuyến nối khởi hành sau giờ đến đích đã biết.</li>
+ *   <li>Hồ sơ: duyệt ngược, giữ tại mỗi điểm dừng tập Pareto (giờ khởi hành, giờ đến đích), trả về
+ *       mọi hành trình không bị trội trong một khung giờ chỉ trong một lần duyệt.</li>
+ * </ul>
+ * Đổi sang chuyến khác tại một điểm dừng (trừ điểm xuất phát) cần ít nhất minTransferTime giờ;
+ * ngồi tiếp trên cùng chuyến thì không.
+ */
+public class ConnectionScan {
+
+    /**
+     * Tìm hành trình đến sớm nhất dùng mọi phương tiện, đổi chuyến tức thời.
+     * @param timetable Lịch chạy.
+     * @param startId ID điểm xuất phát.
+     * @param endId ID điểm đến.
+     * @param departureTime Giờ có mặt tại điểm xuất phát.
+     * @return TimeDependentResult chứa các điểm dừng và giờ đến từng điểm, hoặc kết quả báo không tìm thấy.
+     */
+    public static TimeDependentResult findEarliestArrival(CompactTimetable timetable, int startId, int endId,
+                                                          double departureTime) {
+        return findEarliestArrival(timetable, startId, endId, departureTime, TransportMode.ALL_MODES, 0.0);
+    }
+
+    /**
+     * Tìm hành trình đến sớm nhất chỉ dùng các phương tiện trong bộ lọc.
+     * Đường đi trong kết quả gồm mọi điểm dừng đi qua (kể cả điểm dừng giữa của một chuyến), nên
+     * hiển thị được như kết quả Dijkstra.
+     * @param timetable Lịch chạy.
+     * @param startId ID điểm xuất phát.
+     * @param endId ID điểm đến.
+     * @param departureTime Giờ có mặt tại điểm xuất phát.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param minTransferTime Thời gian đổi chuyến tối thiểu (giờ).
+     * @return TimeDependentResult chứa các điểm dừng và giờ đến từng điểm, hoặc kết quả báo không tìm thấy.
+     * @throws IllegalArgumentException nếu giờ khởi hành không hữu hạn hoặc thời gian đổi chuyến không hợp lệ.
+     */
+    public static TimeDependentResult findEarliestArrival(CompactTimetable timetable, int startId, int endId,
+                                                          double departureTime, int modeMask,
+                                                          double minTransferTime) {
+        if (Double.isNaN(departureTime) || Double.isInfinite(departureTime)) {
+            throw new IllegalArgumentException("Departure time must be finite.");
+        }
+        validateTransferTime(minTransferTime);
+        if (timetable.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new TimeDependentResult(departureTime);
+        }
+        if (timetable.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new TimeDependentResult(departureTime);
+        }
+
+        double[] arrival = new double[timetable.getMaxStops()];
+        int[] legEntry = new int[timetable.getMaxStops()];  // Chuyến nối lên tàu của chặng cuối đến điểm dừng
+        int[] legExit = new int[timetable.getMaxStops()];   // Chuyến nối xuống tàu của chặng cuối đến điểm dừng
+        int[] tripEntry = new int[timetable.getNumTrips()]; // Chuyến nối đầu tiên lên được chuyến, -1 nếu chưa
+        Arrays.fill(arrival, Double.POSITIVE_INFINITY);
+        Arrays.fill(tripEntry, -1);
+        arrival[startId] = departureTime;
+
+        int numConnections = timetable.getNumConnections();
+        for (int c = timetable.firstConnectionAtOrAfter(departureTime); c < numConnections; c++) {
+            double connectionDeparture = timetable.getDepartureTime(c);
+            if (connectionDeparture >= arrival[endId]) {
+                break; // Mọi chuyến nối còn lại đều đến đích không sớm hơn
+            }
+            if ((timetable.getModes(c) & modeMask) == 0) {
+                continue;
+            }
+            int trip = timetable.getTripId(c);
+            if (tripEntry[trip] == -1) {
+                int u = timetable.getDepartureStop(c);
+                double ready = u == startId ? arrival[u] : arrival[u] + minTransferTime;
+                if (ready > connectionDeparture) {
+                    continue; // Chưa có mặt tại điểm khởi hành và chưa ngồi trên chuyến
+                }
+                tripEntry[trip] = c;
+            }
+            int v = timetable.getArrivalStop(c);
+            if (timetable.getArrivalTime(c) < arrival[v]) {
+                arrival[v] = timetable.getArrivalTime(c);
+                legEntry[v] = tripEntry[trip];
+                legExit[v] = c;
+            }
+        }
+
+        if (arrival[endId] == Double.POSITIVE_INFINITY) {
+            return new TimeDependentResult(departureTime); // Không tìm thấy hành trình
+        }
+        return traceItinerary(timetable, startId, endId, departureTime, legEntry, legExit);
+    }
+
+    /**
+     * Tìm hồ sơ dùng mọi phương tiện, đổi chuyến tức thời.
+     * @param timetable Lịch chạy.
+     * @param startId ID điểm xuất phát.
+     * @param endId ID điểm đến.
+     * @param earliestDeparture Đầu khung giờ khởi hành.
+     * @param latestDeparture Cuối khung giờ khởi hành.
+     * @return ConnectionProfile chứa các cặp (giờ khởi hành, giờ đến) không bị trội, rỗng nếu không có hành trình.
+     */
+    public static ConnectionProfile findProfile(CompactTimetable timetable, int startId, int endId,
+                                                double earliestDeparture, double latestDeparture) {
+        return findProfile(timetable, startId, endId, earliestDeparture, latestDeparture,
+                TransportMode.ALL_MODES, 0.0);
+    }
+
+    /**
+     * Tìm hồ sơ: mọi hành trình không bị trội theo (khởi hành muộn, đến sớm) có giờ khởi hành trong
+     * [earliestDeparture, latestDeparture], chỉ dùng các phương tiện trong bộ lọc.
+     * @param timetable Lịch chạy.
+     * @param startId ID điểm xuất phát.
+     * @param endId ID điểm đến.
+     * @param earliestDeparture Đầu khung giờ khởi hành.
+     * @param latestDeparture Cuối khung giờ khởi hành.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param minTransferTime Thời gian đổi chuyến tối thiểu (giờ).
+     * @return ConnectionProfile chứa các cặp (giờ khởi hành, giờ đến) không bị trội, rỗng nếu không có hành trình.
+     * @throws IllegalArgumentException nếu khung giờ hoặc thời gian đổi chuyến không hợp lệ.
+     */
+    public static ConnectionProfile findProfile(CompactTimetable timetable, int startId, int endId,
+                                                double earliestDeparture, double latestDeparture,
+                                                int modeMask, double minTransferTime) {
+        if (Double.isNaN(earliestDeparture) || Double.isInfinite(earliestDeparture)
+                || Double.isNaN(latestDeparture) || Double.isInfinite(latestDeparture)
+                || latestDeparture < earliestDeparture) {
+            throw new IllegalArgumentException("Departure window must be finite and non-empty.");
+        }
+        validateTransferTime(minTransferTime);
+        if (timetable.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new ConnectionProfile();
+        }
+        if (timetable.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new ConnectionProfile();
+        }
+        if (startId == endId) {
+            return new ConnectionProfile(); // Không cần chuyến nào
+        }
+
+        // Hồ sơ của mỗi điểm dừng là danh sách liên kết các cặp trong mảng nguyên thủy; cặp được thêm
+        // vào đầu theo giờ khởi hành giảm dần, nên từ đầu danh sách giờ khởi hành và giờ đến đều tăng dần.
+        int[] head = new int[timetable.getMaxStops()];
+        Arrays.fill(head, -1);
+        double[] tripArrival = new double[timetable.getNumTrips()]; // Giờ đến đích nếu ngồi tiếp trên chuyến
+        Arrays.fill(tripArrival, Double.POSITIVE_INFINITY);
+        double[] pairDeparture = new double[64];
+        double[] pairArrival = new double[64];
+        int[] pairNext = new int[64];
+        int numPairs = 0;
+
+        int first = timetable.firstConnectionAtOrAfter(earliestDeparture);
+        for (int c = timetable.getNumConnections() - 1; c >= first; c--) {
+            if ((timetable.getModes(c) & modeMask) == 0) {
+                continue;
+            }
+            int trip = timetable.getTripId(c);
+            int v = timetable.getArrivalStop(c);
+            double arrivalTime = timetable.getArrivalTime(c);
+            // Ba lựa chọn sau chuyến nối: xuống tại đích, ngồi tiếp, hoặc xuống và đổi chuyến
+            double best = tripArrival[trip];
+            if (v == endId) {
+                best = Math.min(best, arrivalTime);
+            } else {
+                best = Math.min(best, evaluate(head[v], pairDeparture, pairArrival, pairNext,
+                        arrivalTime + minTransferTime));
+            }
+            if (best == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            tripArrival[trip] = best;
+
+            int u = timetable.getDepartureStop(c);
+            if (u == endId) {
+                continue;
+            }
+            // Cặp mới khởi hành không muộn hơn mọi cặp đã có, nên chỉ không bị trội nếu đến sớm hơn cặp đầu
+            double departure = timetable.getDepartureTime(c);
+            int h = head[u];
+            if (h != -1 && pairArrival[h] <= best) {
+                continue;
+            }
+            if (h != -1 && pairDeparture[h] == departure) {
+                pairArrival[h] = best;
+                continue;
+            }
+            if (numPairs == pairDeparture.length) {
+                int newCapacity = numPairs * 2;
+                pairDeparture = Arrays.copyOf(pairDeparture, newCapacity);
+                pairArrival = Arrays.copyOf(pairArrival, newCapacity);
+                pairNext = Arrays.copyOf(pairNext, newCapacity);
+            }
+            pairDeparture[numPairs] = departure;
+            pairArrival[numPairs] = best;
+            pairNext[numPairs] = h;
+            head[u] = numPairs++;
+        }
+
+        // Các cặp của điểm xuất phát nằm trong khung giờ
+        int count = 0;
+        for (int p = head[startId]; p != -1 && pairDeparture[p] <= latestDeparture; p = pairNext[p]) {
+            count++;
+        }
+        double[] departures = new double[count];
+        double[] arrivals = new double[count];
+        int i = 0;
+        for (int p = head[startId]; i < count; p = pairNext[p]) {
+            departures[i] = pairDeparture[p];
+            arrivals[i] = pairArrival[p];
+            i++;
+        }
+        return new ConnectionProfile(departures, arrivals);
+    }
+
+    /**
+     * Giờ đến đích sớm nhất khi có mặt tại điểm dừng lúc time: cặp đầu tiên có giờ khởi hành >= time.
+     */
+    private static double evaluate(int head, double[] pairDeparture, double[] pairArrival, int[] pairNext,
+                                   double time) {
+        for (int p = head; p != -1; p = pairNext[p]) {
+            if (pairDeparture[p] >= time) {
+                return pairArrival[p];
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Dựng lại hành trình từ đích về điểm xuất phát theo các chặng (lên tàu, xuống tàu),
+     * rồi liệt kê mọi điểm dừng của từng chặng theo thứ tự xuôi.
+     */
+    private static TimeDependentResult traceItinerary(CompactTimetable timetable, int startId, int endId,
+                                                      double departureTime, int[] legEntry, int[] legExit) {
+        int numLegs = 0;
+        for (int v = endId; v != startId; v = timetable.getDepartureStop(legEntry[v])) {
+            numLegs++;
+        }
+        int[] entries = new int[numLegs];
+        int[] exits = new int[numLegs];
+        for (int v = endId, leg = numLegs - 1; v != startId; v = timetable.getDepartureStop(legEntry[v]), leg--) {
+            entries[leg] = legEntry[v];
+            exits[leg] = legExit[v];
+        }
+
+        CustomLinkedList<Location> path = new CustomLinkedList<>();
+        double[] stopArrivalTimes = new double[16];
+        path.add(timetable.getLocationById(startId));
+        stopArrivalTimes[0] = departureTime;
+        int numStops = 1;
+        for (int leg = 0; leg < numLegs; leg++) {
+            // Các chuyến nối của cùng chuyến nằm giữa chuyến nối lên và xuống theo thứ tự thời gian
+            int trip = timetable.getTripId(entries[leg]);
+            for (int c = entries[leg]; c <= exits[leg]; c++) {
+                if (timetable.getTripId(c) != trip) {
+                    continue;
+                }
+                if (numStops == stopArrivalTimes.length) {
+                    stopArrivalTimes = Arrays.copyOf(stopArrivalTimes, numStops * 2);
+                }
+                path.add(timetable.getLocationById(timetable.getArrivalStop(c)));
+                stopArrivalTimes[numStops++] = timetable.getArrivalTime(c);
+            }
+        }
+        return new TimeDependentResult(path, departureTime, Arrays.copyOf(stopArrivalTimes, numStops));
+    }
+
+    private static void validateTransferTime(double minTransferTime) {
+        if (!(minTransferTime >= 0.0) || Double.isInfinite(minTransferTime)) {
+            throw new IllegalArgumentException("Minimum transfer time must be finite and non-negative.");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.Location;
+
+/**
+ * Kết quả của tìm đường có ràng buộc tài nguyên: ngoài giá trị mục tiêu (totalValue)
+ * còn có tổng khoảng cách, thời gian và chi phí thực tế của đường đi.
+ */
+public class ConstrainedPathResult extends DijkstraResult {
+    public final double totalDistance;
+    public final double totalTime;
+    public final double totalCost;
+
+    /**
+     * Constructor cho trường hợp tìm thấy đường đi.
+     * @param path Danh sách địa điểm.
+     * @param totalValue Giá trị mục tiêu của đường đi.
+     * @param totalDistance Tổng khoảng cách.
+     * @param totalTime Tổng thời gian.
+     * @param totalCost Tổng chi phí.
+     */
+    public ConstrainedPathResult(CustomLinkedList<Location> path, double totalValue,
+                                 double totalDistance, double totalTime, double totalCost) {
+        super(path, totalValue);
+        this.totalDistance = totalDistance;
+        this.totalTime = totalTime;
+        this.totalCost = totalCost;
+    }
+
+    /**
+     * Constructor cho trường hợp không có đường đi thỏa mãn ràng buộc.
+     */
+    public ConstrainedPathResult() {
+        super();
+        this.totalDistance = Double.POSITIVE_INFINITY;
+        this.totalTime = Double.POSITIVE_INFINITY;
+        this.totalCost = Double.POSITIVE_INFINITY;
+    }
+}
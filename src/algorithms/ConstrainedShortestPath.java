@@ -0,0 +1,178 @@
+package algorithms;
+
+import datastructure.DoubleIntHeap;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Route;
+import graph.TransportMode;
+
+/**
+ * Đường đi ngắn nhất có ràng buộc tài nguyên (resource-constrained shortest path):
+ * tối thiểu hóa một tiêu chí với giới hạn trên cho tổng khoảng cách, thời gian và/hoặc chi phí,
+ * ví dụ "đường nhanh nhất từ Hà Nội đến Nha Trang với chi phí không quá 80 USD".
+ * Tìm kiếm gắn nhãn (label-setting) trên {@link LabelPool}, với ba cách cắt tỉa:
+ * <ul>
+ *   <li>Cận dưới: khoảng cách ngắn nhất từ mỗi đỉnh đến đích theo từng tài nguyên bị giới hạn
+ *       (một lần Dijkstra ngược cho mỗi tài nguyên); nhãn bị bỏ nếu tài nguyên đã dùng cộng cận dưới
+ *       vượt giới hạn.</li>
+ *   <li>Trội: nhãn bị bỏ nếu một nhãn khác tại cùng đỉnh không tệ hơn ở mục tiêu và mọi tài nguyên bị giới hạn.</li>
+ *   <li>Mục tiêu: nhãn được lấy ra theo mục tiêu cộng khoảng cách mục tiêu đến đích (A*),
+ *       nên nhãn đầu tiên đến đích là tối ưu và tìm kiếm dừng ngay.</li>
+ * </ul>
+ */
+public class ConstrainedShortestPath {
+
+    /**
+     * Tìm đường đi tối ưu theo objective dùng mọi phương tiện, với các giới hạn tài nguyên.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param objective Tiêu chí cần tối thiểu hóa.
+     * @param maxDistance Giới hạn tổng khoảng cách (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @param maxTime Giới hạn tổng thời gian (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @param maxCost Giới hạn tổng chi phí (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @return ConstrainedPathResult chứa đường đi, hoặc kết quả báo không có đường đi thỏa mãn.
+     * @throws IllegalArgumentException nếu có giới hạn âm hoặc NaN.
+     */
+    public static ConstrainedPathResult findShortestPath(GraphView graph, int startId, int endId, Criterion objective,
+                                                         double maxDistance, double maxTime, double maxCost) {
+        return findShortestPath(graph, startId, endId, objective, maxDistance, maxTime, maxCost,
+                TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Tìm đường đi tối ưu theo objective chỉ dùng các phương tiện trong bộ lọc, với các giới hạn tài nguyên.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param objective Tiêu chí cần tối thiểu hóa.
+     * @param maxDistance Giới hạn tổng khoảng cách (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @param maxTime Giới hạn tổng thời gian (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @param maxCost Giới hạn tổng chi phí (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @param modeMask Bitmask phương tiện được phép.
+     * @return ConstrainedPathResult chứa đường đi, hoặc kết quả báo không có đường đi thỏa mãn.
+     * @throws IllegalArgumentException nếu có giới hạn âm hoặc NaN.
+     */
+    public static ConstrainedPathResult findShortestPath(GraphView graph, int startId, int endId, Criterion objective,
+                                                         double maxDistance, double maxTime, double maxCost,
+                                                         int modeMask) {
+        if (!(maxDistance >= 0.0) || !(maxTime >= 0.0) || !(maxCost >= 0.0)) {
+            throw new IllegalArgumentException("Resource limits must be non-negative.");
+        }
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new ConstrainedPathResult();
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new ConstrainedPathResult();
+        }
+
+        // Cận dưới đến đích: theo mục tiêu (heuristic) và theo từng tài nguyên bị giới hạn
+        SearchContext context = SearchContext.forCurrentThread();
+        double[] objectiveBound = ShortestPathAlgorithm.distancesToTarget(graph, endId, objective, modeMask, context);
+        if (objectiveBound[startId] == Double.POSITIVE_INFINITY) {
+            return new ConstrainedPathResult(); // Không có đường đi nào, kể cả khi bỏ ràng buộc
+        }
+        boolean limitDistance = maxDistance != Double.POSITIVE_INFINITY;
+        boolean limitTime = maxTime != Double.POSITIVE_INFINITY;
+        boolean limitCost = maxCost != Double.POSITIVE_INFINITY;
+        double[] distanceBound = limitDistance
+                ? ShortestPathAlgorithm.distancesToTarget(graph, endId, Criterion.DISTANCE, modeMask, context) : null;
+        double[] timeBound = limitTime
+                ? ShortestPathAlgorithm.distancesToTarget(graph, endId, Criterion.TIME, modeMask, context) : null;
+        double[] costBound = limitCost
+                ? ShortestPathAlgorithm.distancesToTarget(graph, endId, Criterion.COST, modeMask, context) : null;
+        if ((limitDistance && distanceBound[startId] > maxDistance)
+                || (limitTime && timeBound[startId] > maxTime)
+                || (limitCost && costBound[startId] > maxCost)) {
+            return new ConstrainedPathResult(); // Ngay cả đường tốt nhất theo một tài nguyên cũng vượt giới hạn
+        }
+
+        LabelPool pool = LabelPool.forCurrentThread();
+        pool.reset(graph.getMaxVertices());
+        DoubleIntHeap pq = pool.getHeap();
+        pq.insert(objectiveBound[startId], pool.add(startId, 0.0, 0.0, 0.0, -1));
+
+        while (!pq.isEmpty()) {
+            int label = pq.extractMin();
+            if (pool.dead[label]) {
+                continue;
+            }
+            int u = pool.vertex[label];
+            double d = pool.distance[label];
+            double t = pool.time[label];
+            double c = pool.cost[label];
+            if (u == endId) {
+                // Heuristic nhất quán: nhãn khả thi đầu tiên đến đích có mục tiêu nhỏ nhất
+                return new ConstrainedPathResult(pool.tracePath(graph, label), objective.weightOf(d, t, c), d, t, c);
+            }
+            for (Route route : graph.getNeighbors(u)) {
+                if (!route.allows(modeMask)) {
+                    continue;
+                }
+                int v = route.destinationId;
+                if (objectiveBound[v] == Double.POSITIVE_INFINITY) {
+                    continue; // Không tới được đích từ v
+                }
+                double nd = d + route.distance;
+                double nt = t + route.time;
+                double nc = c + route.cost;
+                if ((limitDistance && nd + distanceBound[v] > maxDistance)
+                        || (limitTime && nt + timeBound[v] > maxTime)
+                        || (limitCost && nc + costBound[v] > maxCost)) {
+                    continue; // Cận dưới cho thấy không thể đến đích trong giới hạn
+                }
+                double objectiveValue = objective.weightOf(nd, nt, nc);
+                if (isDominated(pool, objective, v, objectiveValue, nd, nt, nc, limitDistance, limitTime, limitCost)) {
+                    continue;
+                }
+                removeDominated(pool, objective, v, objectiveValue, nd, nt, nc, limitDistance, limitTime, limitCost);
+                int newLabel = pool.add(v, nd, nt, nc, label);
+                pq.insert(objectiveValue + objectiveBound[v], newLabel);
+            }
+        }
+        return new ConstrainedPathResult(); // Không có đường đi thỏa mãn mọi giới hạn
+    }
+
+    /**
+     * Kiểm tra có nhãn nào tại đỉnh không tệ hơn ở mục tiêu và ở mọi tài nguyên bị giới hạn.
+     * Tài nguyên không bị giới hạn không ảnh hưởng đến tính khả thi nên không được so sánh.
+     */
+    private static boolean isDominated(LabelPool pool, Criterion objective, int vertexId, double objectiveValue,
+                                       double d, double t, double c,
+                                       boolean limitDistance, boolean limitTime, boolean limitCost) {
+        for (int l = pool.firstInBag(vertexId); l != -1; l = pool.nextInBag[l]) {
+            if (objective.weightOf(pool.distance[l], pool.time[l], pool.cost[l]) <= objectiveValue
+                    && (!limitDistance || pool.distance[l] <= d)
+                    && (!limitTime || pool.time[l] <= t)
+                    && (!limitCost || pool.cost[l] <= c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gỡ khỏi túi của đỉnh các nhãn bị nhãn mới trội.
+     */
+    private static void removeDominated(LabelPool pool, Criterion objective, int vertexId, double objectiveValue,
+                                        double d, double t, double c,
+                                        boolean limitDistance, boolean limitTime, boolean limitCost) {
+        int previous = -1;
+        int l = pool.firstInBag(vertexId);
+        while (l != -1) {
+            int next = pool.nextInBag[l];
+            if (objectiveValue <= objective.weightOf(pool.distance[l], pool.time[l], pool.cost[l])
+                    && (!limitDistance || d <= pool.distance[l])
+                    && (!limitTime || t <= pool.time[l])
+                    && (!limitCost || c <= pool.cost[l])) {
+                pool.dead[l] = true;
+                pool.unlink(vertexId, previous, l);
+            } else {
+                previous = l;
+            }
+            l = next;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.IndexedMinHeap;
+import datastructure.IntArrayDeque;
+import graph.Criterion;
+import graph.Location;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf để thay đổi kích thước mảng
+
+/**
+ * Contraction Hierarchy đã tiền xử lý cho một tiêu chí, cùng với truy vấn hai chiều.
+ * Mỗi đỉnh có một thứ hạng (rank); các cạnh (gốc và shortcut) được chia thành:
+ * - cạnh lên (upward): v -> w với rank[w] > rank[v], dùng cho tìm kiếm xuôi từ nguồn;
+ * - cạnh xuống (downward): u -> v với rank[u] > rank[v], lưu tại v, dùng cho tìm kiếm ngược từ đích.
+ * Truy vấn chỉ đi "lên" ở cả hai phía nên chỉ chạm tới rất ít đỉnh; đường đi
+ * tìm được sau đó được giải nén (unpack) các shortcut về dãy Location gốc.
+ * Cấu trúc này có thể tuần tự hóa (Serializable) để xây dựng một lần và nạp khi khởi động.
+ */
+public class ContractionHierarchy implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Hai SearchContext riêng cho mỗi luồng (không tuần tự hóa)
+    private static final ThreadLocal<SearchContext> FORWARD_CONTEXT =
+            ThreadLocal.withInitial(() -> new SearchContext(16));
+    private static final ThreadLocal<SearchContext> BACKWARD_CONTEXT =
+            ThreadLocal.withInitial(() -> new SearchContext(16));
+
+    private final Criterion criterion;
+    private final Location[] locations;
+    private final int[] rank;
+
+    // Cạnh lên dạng CSR: cạnh của v nằm trong [upOffsets[v], upOffsets[v+1])
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upMiddles;   // -1 nếu là cạnh gốc, ngược lại là đỉnh bị co ở giữa
+
+    // Cạnh xuống dạng CSR, lưu tại đỉnh có rank thấp hơn; downSources là đỉnh nguồn (rank cao hơn)
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final double[] downWeights;
+    private final int[] downMiddles;
+
+    ContractionHierarchy(Criterion criterion, Location[] locations, int[] rank,
+                         int[] upOffsets, int[] upTargets, double[] upWeights, int[] upMiddles,
+                         int[] downOffsets, int[] downSources, double[] downWeights, int[] downMiddles) {
+        this.criterion = criterion;
+        this.locations = locations;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddles = downMiddles;
+    }
+
+    /**
+     * Lấy tiêu chí mà hierarchy được xây dựng cho.
+     * @return Tiêu chí.
+     */
+    public Criterion getCriterion() {
+        return criterion;
+    }
+
+    /**
+     * Lấy tổng số đỉnh tối đa.
+     * @return Số đỉnh tối đa.
+     */
+    public int getMaxVertices() {
+        return locations.length;
+    }
+
+    /**
+     * Lấy số cạnh (gốc và shortcut) trong hierarchy.
+     * @return Tổng số cạnh lên và xuống.
+     */
+    public int getNumEdges() {
+        return upTargets.length + downSources.length;
+    }
+
+    /**
+     * Lấy thứ hạng co của một đỉnh (đỉnh bị co càng sớm thì rank càng nhỏ).
+     * @param vertexId ID của đỉnh.
+     * @return Thứ hạng của đỉnh.
+     */
+    public int getRank(int vertexId) {
+        return rank[vertexId];
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất bằng truy vấn hai chiều chỉ đi lên.
+     * Sử dụng các SearchContext riêng của luồng hiện tại.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @return Đối tượng DijkstraResult chứa đường đi đã giải nén và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public DijkstraResult findShortestPath(int startId, int endId) {
+        return findShortestPath(startId, endId, FORWARD_CONTEXT.get(), BACKWARD_CONTEXT.get());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất bằng truy vấn hai chiều chỉ đi lên.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param forward Context cho chiều xuôi.
+     * @param backward Context cho chiều ngược (phải khác forward).
+     * @return Đối tượng DijkstraResult chứa đường đi đã giải nén và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public DijkstraResult findShortestPath(int startId, int endId, SearchContext forward, SearchContext backward) {
+        if (forward == backward) {
+            throw new IllegalArgumentException("Forward and backward contexts must be different objects.");
+        }
+        if (getLocation(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new DijkstraResult();
+        }
+        if (getLocation(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new DijkstraResult();
+        }
+
+        int n = locations.length;
+        forward.reset(n);
+        backward.reset(n);
+        forward.setDistance(startId, 0.0, -1);
+        backward.setDistance(endId, 0.0, -1);
+        IndexedMinHeap forwardHeap = forward.getHeap();
+        IndexedMinHeap backwardHeap = backward.getHeap();
+        forwardHeap.insert(startId, 0.0);
+        backwardHeap.insert(endId, 0.0);
+
+        double best = (startId == endId) ? 0.0 : Double.POSITIVE_INFINITY;
+        int meetingVertex = (startId == endId) ? startId : -1;
+
+        while (!forwardHeap.isEmpty() || !backwardHeap.isEmpty()) {
+            // Mỗi phía dừng khi độ ưu tiên nhỏ nhất của nó không nhỏ hơn best
+            if (!forwardHeap.isEmpty()) {
+                if (forwardHeap.peekMinKey() >= best) {
+                    forwardHeap.clear();
+                } else {
+                    int u = forwardHeap.extractMin();
+                    forward.markSettled(u);
+                    double distU = forward.getDistance(u);
+                    for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+                        int v = upTargets[e];
+                        double newDist = distU + upWeights[e];
+                        if (newDist < forward.getDistance(v)) {
+                            forward.setDistance(v, newDist, u);
+                            forwardHeap.insertOrDecrease(v, newDist);
+                            double candidate = newDist + backward.getDistance(v);
+                            if (candidate < best) {
+                                best = candidate;
+                                meetingVertex = v;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!backwardHeap.isEmpty()) {
+                if (backwardHeap.peekMinKey() >= best) {
+                    backwardHeap.clear();
+                } else {
+                    int u = backwardHeap.extractMin();
+                    backward.markSettled(u);
+                    double distU = backward.getDistance(u);
+                    for (int e = downOffsets[u]; e < downOffsets[u + 1]; e++) {
+                        int v = downSources[e];
+                        double newDist = distU + downWeights[e];
+                        if (newDist < backward.getDistance(v)) {
+                            backward.setDistance(v, newDist, u);
+                            backwardHeap.insertOrDecrease(v, newDist);
+                            double candidate = newDist + forward.getDistance(v);
+                            if (candidate < best) {
+                                best = candidate;
+                                meetingVertex = v;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        if (meetingVertex == -1) {
+            return new DijkstraResult(); // Không tìm thấy đường đi
+        }
+
+        // Dãy đỉnh trong hierarchy: startId .. meetingVertex (cây xuôi) rồi meetingVertex .. endId (cây ngược)
+        int[] hierarchyPath = new int[8];
+        int length = 0;
+        for (int v = meetingVertex; v != -1; v = forward.getPreviousVertex(v)) {
+            if (length == hierarchyPath.length) {
+                hierarchyPath = Arrays.copyOf(hierarchyPath, length * 2);
+            }
+            hierarchyPath[length++] = v;
+        }
+        // Đảo ngược phần xuôi để có thứ tự từ startId
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = hierarchyPath[i];
+            hierarchyPath[i] = hierarchyPath[j];
+            hierarchyPath[j] = tmp;
+        }
+        for (int v = backward.getPreviousVertex(meetingVertex); v != -1; v = backward.getPreviousVertex(v)) {
+            if (length == hierarchyPath.length) {
+                hierarchyPath = Arrays.copyOf(hierarchyPath, length * 2);
+            }
+            hierarchyPath[length++] = v;
+        }
+
+        CustomLinkedList<Location> path = new CustomLinkedList<>();
+        path.add(locations[hierarchyPath[0]]);
+        for (int i = 0; i + 1 < length; i++) {
+            unpackEdge(hierarchyPath[i], hierarchyPath[i + 1], path);
+        }
+        return new DijkstraResult(path, best);
+    }
+
+    /**
+     * Tính bảng khoảng cách nhiều - nhiều bằng thuật toán bucket.
+     * Với mỗi đích t, một tìm kiếm ngược chỉ đi lên (không dừng sớm) ghi cặp (t, d(v, t))
+     * vào bucket của mọi đỉnh v chạm tới. Sau đó với mỗi nguồn s, một tìm kiếm xuôi chỉ đi lên
+     * quét bucket của các đỉnh u chạm tới: d(s, t) = min d(s, u) + d(u, t).
+     * Tổng chi phí là |sources| + |targets| tìm kiếm nhỏ thay vì |sources| x |targets| truy vấn.
+     * @param sources Danh sách ID đỉnh nguồn.
+     * @param targets Danh sách ID đỉnh đích.
+     * @return Mảng phẳng theo hàng: phần tử [i * targets.length + j] là d(sources[i], targets[j]),
+     *         Double.POSITIVE_INFINITY nếu không có đường đi.
+     * @throws IllegalArgumentException nếu có ID không tồn tại.
+     */
+    public double[] computeDistanceTable(int[] sources, int[] targets) {
+        for (int id : sources) {
+            if (getLocation(id) == null) {
+                throw new IllegalArgumentException("Location with ID " + id + " does not exist.");
+            }
+        }
+        for (int id : targets) {
+            if (getLocation(id) == null) {
+                throw new IllegalArgumentException("Location with ID " + id + " does not exist.");
+            }
+        }
+
+        int n = locations.length;
+        SearchContext context = FORWARD_CONTEXT.get();
+        IndexedMinHeap heap = context.getHeap();
+
+        // Pha 1: tìm kiếm ngược từ mỗi đích, gom các mục bucket (đỉnh, chỉ số đích, khoảng cách)
+        int[] entryVertex = new int[16];
+        int[] entryTarget = new int[16];
+        double[] entryDistance = new double[16];
+        int numEntries = 0;
+        for (int j = 0; j < targets.length; j++) {
+            context.reset(n);
+            context.setDistance(targets[j], 0.0, -1);
+            heap.insert(targets[j], 0.0);
+            while (!heap.isEmpty()) {
+                int u = heap.extractMin();
+                context.markSettled(u);
+                double distU = context.getDistance(u);
+                if (numEntries == entryVertex.length) {
+                    entryVertex = Arrays.copyOf(entryVertex, numEntries * 2);
+                    entryTarget = Arrays.copyOf(entryTarget, numEntries * 2);
+                    entryDistance = Arrays.copyOf(entryDistance, numEntries * 2);
+                }
+                entryVertex[numEntries] = u;
+                entryTarget[numEntries] = j;
+                entryDistance[numEntries] = distU;
+                numEntries++;
+                for (int e = downOffsets[u]; e < downOffsets[u + 1]; e++) {
+                    int v = downSources[e];
+                    double newDist = distU + downWeights[e];
+                    if (newDist < context.getDistance(v)) {
+                        context.setDistance(v, newDist, u);
+                        heap.insertOrDecrease(v, newDist);
+                    }
+                }
+            }
+        }
+
+        // Sắp xếp đếm các mục theo đỉnh để bucket của mỗi đỉnh nằm liên tục
+        int[] bucketOffsets = new int[n + 1];
+        for (int i = 0; i < numEntries; i++) {
+            bucketOffsets[entryVertex[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            bucketOffsets[v + 1] += bucketOffsets[v];
+        }
+        int[] bucketTargets = new int[numEntries];
+        double[] bucketDistances = new double[numEntries];
+        int[] fill = Arrays.copyOf(bucketOffsets, n);
+        for (int i = 0; i < numEntries; i++) {
+            int slot = fill[entryVertex[i]]++;
+            bucketTargets[slot] = entryTarget[i];
+            bucketDistances[slot] = entryDistance[i];
+        }
+
+        // Pha 2: tìm kiếm xuôi từ mỗi nguồn, quét bucket của các đỉnh chạm tới
+        int numTargets = targets.length;
+        double[] table = new double[sources.length * numTargets];
+        Arrays.fill(table, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < sources.length; i++) {
+            int row = i * numTargets;
+            context.reset(n);
+            context.setDistance(sources[i], 0.0, -1);
+            heap.insert(sources[i], 0.0);
+            while (!heap.isEmpty()) {
+                int u = heap.extractMin();
+                context.markSettled(u);
+                double distU = context.getDistance(u);
+                for (int b = bucketOffsets[u]; b < bucketOffsets[u + 1]; b++) {
+                    double candidate = distU + bucketDistances[b];
+                    if (candidate < table[row + bucketTargets[b]]) {
+                        table[row + bucketTargets[b]] = candidate;
+                    }
+                }
+                for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+                    int v = upTargets[e];
+                    double newDist = distU + upWeights[e];
+                    if (newDist < context.getDistance(v)) {
+                        context.setDistance(v, newDist, u);
+                        heap.insertOrDecrease(v, newDist);
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Giải nén cạnh from -> to (có thể là shortcut) thành dãy đỉnh gốc,
+     * thêm các đỉnh sau from (bao gồm to) vào cuối path.
+     * Dùng ngăn xếp tường minh thay cho đệ quy để tránh tràn stack với shortcut lồng sâu.
+     */
+    private void unpackEdge(int from, int to, CustomLinkedList<Location> path) {
+        IntArrayDeque stack = new IntArrayDeque();
+        stack.addLast(from);
+        stack.addLast(to);
+        while (!stack.isEmpty()) {
+            int b = stack.removeLast();
+            int a = stack.removeLast();
+            int middle = findMiddle(a, b);
+            if (middle == -1) {
+                path.add(locations[b]);
+            } else {
+                // Đẩy (middle, b) trước để (a, middle) được xử lý trước
+                stack.addLast(middle);
+                stack.addLast(b);
+                stack.addLast(a);
+                stack.addLast(middle);
+            }
+        }
+    }
+
+    /**
+     * Tìm đỉnh giữa của cạnh a -> b trong hierarchy (-1 nếu là cạnh gốc).
+     */
+    private int findMiddle(int a, int b) {
+        if (rank[a] < rank[b]) {
+            for (int e = upOffsets[a]; e < upOffsets[a + 1]; e++) {
+                if (upTargets[e] == b) {
+                    return upMiddles[e];
+                }
+            }
+        } else {
+            for (int e = downOffsets[b]; e < downOffsets[b + 1]; e++) {
+                if (downSources[e] == a) {
+                    return downMiddles[e];
+                }
+            }
+        }
+        throw new IllegalStateException("Edge " + a + " -> " + b + " not found in hierarchy.");
+    }
+
+    private Location getLocation(int vertexId) {
+        if (vertexId < 0 || vertexId >= locations.length) {
+            return null;
+        }
+        return locations[vertexId];
+    }
+
+    /**
+     * Lưu hierarchy ra file (tuần tự hóa Java).
+     * @param filePath Đường dẫn file.
+     * @throws IOException nếu ghi file thất bại.
+     */
+    public void save(String filePath) throws IOException {
+        try (ObjectOutputStream output = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(filePath)))) {
+            output.writeObject(this);
+        }
+    }
+
+    /**
+     * Nạp hierarchy đã lưu bằng {@link #save(String)}.
+     * @param filePath Đường dẫn file.
+     * @return ContractionHierarchy đã nạp.
+     * @throws IOException nếu đọc file thất bại hoặc nội dung không hợp lệ.
+     */
+    public static ContractionHierarchy load(String filePath) throws IOException {
+        try (ObjectInputStream input = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(filePath)))) {
+            return (ContractionHierarchy) input.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Invalid contraction hierarchy file: " + filePath, e);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package algorithms;
+
+import datastructure.IndexedMinHeap;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Location;
+import graph.Route;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf để thay đổi kích thước mảng
+
+/**
+ * Bước tiền xử lý (offline) của Contraction Hierarchies.
+ * Lần lượt "co" (contract) từng đỉnh theo thứ tự độ quan trọng tăng dần: khi co
+ * đỉnh v, với mỗi cặp cạnh u -> v -> w, nếu không có đường đi chứng kiến (witness)
+ * từ u đến w tránh v mà ngắn hơn hoặc bằng, thì thêm cạnh tắt (shortcut) u -> w.
+ * Thứ tự co được chọn bằng heuristic edge difference (số shortcut cần thêm trừ số
+ * cạnh bị xóa) cộng số hàng xóm đã bị co, cập nhật lười (lazy update).
+ */
+public class ContractionHierarchyBuilder {
+
+    // Giới hạn số đỉnh được tối ưu trong mỗi lần tìm witness (đánh đổi giữa thời gian và số shortcut).
+    // Khi chỉ mô phỏng để tính độ ưu tiên thì dùng giới hạn nhỏ hơn.
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    /**
+     * Danh sách cạnh động của một đỉnh trong quá trình co (mỗi đỉnh kề chỉ giữ một cạnh nhỏ nhất).
+     */
+    private static final class EdgeList {
+        int[] to = new int[4];
+        double[] weight = new double[4];
+        int[] middle = new int[4]; // -1 nếu là cạnh gốc, ngược lại là đỉnh bị co của shortcut
+        int size;
+
+        int indexOf(int target) {
+            for (int i = 0; i < size; i++) {
+                if (to[i] == target) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void addOrImprove(int target, double w, int mid) {
+            int index = indexOf(target);
+            if (index >= 0) {
+                if (w < weight[index]) {
+                    weight[index] = w;
+                    middle[index] = mid;
+                }
+                return;
+            }
+            if (size == to.length) {
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                middle = Arrays.copyOf(middle, size * 2);
+            }
+            to[size] = target;
+            weight[size] = w;
+            middle[size] = mid;
+            size++;
+        }
+
+        void remove(int target) {
+            int index = indexOf(target);
+            if (index >= 0) {
+                size--;
+                to[index] = to[size];
+                weight[index] = weight[size];
+                middle[index] = middle[size];
+            }
+        }
+    }
+
+    private final int n;
+    private final EdgeList[] out;        // Cạnh ra còn lại (đến các đỉnh chưa bị co)
+    private final EdgeList[] in;         // Cạnh vào còn lại (từ các đỉnh chưa bị co)
+    private final int[] deletedNeighbors;
+    private final SearchContext witness;
+
+    private ContractionHierarchyBuilder(int n) {
+        this.n = n;
+        this.out = new EdgeList[n];
+        this.in = new EdgeList[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = new EdgeList();
+            in[i] = new EdgeList();
+        }
+        this.deletedNeighbors = new int[n];
+        this.witness = new SearchContext(n);
+    }
+
+    /**
+     * Xây dựng Contraction Hierarchy cho một đồ thị theo một tiêu chí.
+     * Có thể tốn thời gian trên đồ thị lớn; kết quả nên được lưu lại bằng
+     * {@link ContractionHierarchy#save(String)} và nạp khi khởi động.
+     * @param graph Đồ thị gốc.
+     * @param criteria Tiêu chí ("distance", "time", "cost").
+     * @return ContractionHierarchy đã xây dựng.
+     * @throws IllegalArgumentException nếu tiêu chí không hợp lệ.
+     */
+    public static ContractionHierarchy build(GraphView graph, String criteria) {
+        return build(graph, Criterion.parse(criteria));
+    }
+
+    /**
+     * Xây dựng Contraction Hierarchy cho một đồ thị theo một tiêu chí (kể cả tiêu chí kết hợp).
+     * @param graph Đồ thị gốc.
+     * @param criterion Tiêu chí.
+     * @return ContractionHierarchy đã xây dựng.
+     */
+    public static ContractionHierarchy build(GraphView graph, Criterion criterion) {
+        int n = graph.getMaxVertices();
+        ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(n);
+        Location[] locations = new Location[n];
+        for (int u = 0; u < n; u++) {
+            locations[u] = graph.getLocationById(u);
+            if (locations[u] == null) {
+                continue;
+            }
+            for (Route route : graph.getNeighbors(u)) {
+                int v = route.destinationId;
+                if (v == u) {
+                    continue; // Khuyên không bao giờ nằm trên đường đi ngắn nhất
+                }
+                double w = criterion.weightOf(route);
+                builder.out[u].addOrImprove(v, w, -1);
+                builder.in[v].addOrImprove(u, w, -1);
+            }
+        }
+        return builder.contractAll(criterion, locations);
+    }
+
+    private ContractionHierarchy contractAll(Criterion criterion, Location[] locations) {
+        // Cạnh cuối cùng của mỗi đỉnh, ghi lại tại thời điểm đỉnh bị co
+        EdgeList[] upward = new EdgeList[n];   // v -> w với rank[w] > rank[v]
+        EdgeList[] downward = new EdgeList[n]; // u -> v với rank[u] > rank[v], lưu tại v
+        int[] rank = new int[n];
+
+        IndexedMinHeap queue = new IndexedMinHeap(n);
+        for (int v = 0; v < n; v++) {
+            queue.insert(v, priority(v));
+        }
+
+        int nextRank = 0;
+        while (!queue.isEmpty()) {
+            int v = queue.extractMin();
+            // Cập nhật lười: nếu độ ưu tiên đã tăng và không còn nhỏ nhất thì đưa lại vào hàng đợi
+            double p = priority(v);
+            if (!queue.isEmpty() && p > queue.peekMinKey()) {
+                queue.insert(v, p);
+                continue;
+            }
+
+            upward[v] = copyOf(out[v]);
+            downward[v] = copyOf(in[v]);
+            processNode(v, true);
+
+            // Xóa v khỏi đồ thị còn lại và cập nhật độ ưu tiên của các hàng xóm
+            rank[v] = nextRank++;
+            for (int i = 0; i < downward[v].size; i++) {
+                int u = downward[v].to[i];
+                out[u].remove(v);
+                deletedNeighbors[u]++;
+            }
+            for (int i = 0; i < upward[v].size; i++) {
+                int w = upward[v].to[i];
+                in[w].remove(v);
+                deletedNeighbors[w]++;
+            }
+            for (int i = 0; i < downward[v].size; i++) {
+                updatePriority(queue, downward[v].to[i]);
+            }
+            for (int i = 0; i < upward[v].size; i++) {
+                updatePriority(queue, upward[v].to[i]);
+            }
+            out[v] = null;
+            in[v] = null;
+        }
+
+        return new ContractionHierarchy(criterion, locations, rank,
+                toCsrOffsets(upward), toCsrTargets(upward), toCsrWeights(upward), toCsrMiddles(upward),
+                toCsrOffsets(downward), toCsrTargets(downward), toCsrWeights(downward), toCsrMiddles(downward));
+    }
+
+    private void updatePriority(IndexedMinHeap queue, int vertex) {
+        if (queue.contains(vertex)) {
+            queue.updateKey(vertex, priority(vertex));
+        }
+    }
+
+    /**
+     * Độ ưu tiên co của đỉnh: edge difference + số hàng xóm đã bị co.
+     */
+    private double priority(int v) {
+        int shortcuts = processNode(v, false);
+        return shortcuts - (in[v].size + out[v].size) + deletedNeighbors[v];
+    }
+
+    /**
+     * Mô phỏng (apply = false) hoặc thực hiện (apply = true) việc co đỉnh v.
+     * @return Số shortcut cần thêm.
+     */
+    private int processNode(int v, boolean apply) {
+        EdgeList inV = in[v];
+        EdgeList outV = out[v];
+        int shortcuts = 0;
+        for (int i = 0; i < inV.size; i++) {
+            int u = inV.to[i];
+            double weightUV = inV.weight[i];
+
+            double maxVia = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < outV.size; j++) {
+                if (outV.to[j] != u) {
+                    maxVia = Math.max(maxVia, weightUV + outV.weight[j]);
+                }
+            }
+            if (maxVia == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+
+            witnessSearch(u, v, maxVia, apply ? WITNESS_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT);
+            for (int j = 0; j < outV.size; j++) {
+                int w = outV.to[j];
+                if (w == u) {
+                    continue;
+                }
+                double via = weightUV + outV.weight[j];
+                if (witness.getDistance(w) <= via) {
+                    continue; // Có đường chứng kiến không đi qua v
+                }
+                shortcuts++;
+                if (apply) {
+                    out[u].addOrImprove(w, via, v);
+                    in[w].addOrImprove(u, via, v);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    /**
+     * Dijkstra cục bộ từ source trên đồ thị còn lại, bỏ qua đỉnh excluded,
+     * dừng khi vượt maxDistance hoặc giới hạn số đỉnh được tối ưu (settleLimit).
+     */
+    private void witnessSearch(int source, int excluded, double maxDistance, int settleLimit) {
+        witness.reset(n);
+        witness.setDistance(source, 0.0, -1);
+        IndexedMinHeap heap = witness.getHeap();
+        heap.insert(source, 0.0);
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            if (heap.peekMinKey() > maxDistance || settled >= settleLimit) {
+                break;
+            }
+            int x = heap.extractMin();
+            witness.markSettled(x);
+            settled++;
+            double distX = witness.getDistance(x);
+            EdgeList edges = out[x];
+            for (int i = 0; i < edges.size; i++) {
+                int y = edges.to[i];
+                if (y == excluded || witness.isSettled(y)) {
+                    continue;
+                }
+                double newDist = distX + edges.weight[i];
+                if (newDist < witness.getDistance(y)) {
+                    witness.setDistance(y, newDist, x);
+                    heap.insertOrDecrease(y, newDist);
+                }
+            }
+        }
+    }
+
+    private static EdgeList copyOf(EdgeList list) {
+        EdgeList copy = new EdgeList();
+        copy.to = Arrays.copyOf(list.to, Math.max(1, list.size));
+        copy.weight = Arrays.copyOf(list.weight, Math.max(1, list.size));
+        copy.middle = Arrays.copyOf(list.middle, Math.max(1, list.size));
+        copy.size = list.size;
+        return copy;
+    }
+
+    private static int[] toCsrOffsets(EdgeList[] lists) {
+        int[] offsets = new int[lists.length + 1];
+        for (int v = 0; v < lists.length; v++) {
+            offsets[v + 1] = offsets[v] + lists[v].size;
+        }
+        return offsets;
+    }
+
+    private static int[] toCsrTargets(EdgeList[] lists) {
+        int[] result = new int[countEdges(lists)];
+        int e = 0;
+        for (EdgeList list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                result[e++] = list.to[i];
+            }
+        }
+        return result;
+    }
+
+    private static double[] toCsrWeights(EdgeList[] lists) {
+        double[] result = new double[countEdges(lists)];
+        int e = 0;
+        for (EdgeList list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                result[e++] = list.weight[i];
+            }
+        }
+        return result;
+    }
+
+    private static int[] toCsrMiddles(EdgeList[] lists) {
+        int[] result = new int[countEdges(lists)];
+        int e = 0;
+        for (EdgeList list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                result[e++] = list.middle[i];
+            }
+        }
+        return result;
+    }
+
+    private static int countEdges(EdgeList[] lists) {
+        int count = 0;
+        for (EdgeList list : lists) {
+            count += list.size;
+        }
+        return count;
+    }
+}
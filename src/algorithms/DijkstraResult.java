@@ -5,6 +5,8 @@ import graph.Location;
 
 /**
  * Lớp để đóng gói kết quả của thuật toán Dijkstra.
+ * Bất biến: danh sách đường đi được khóa chỉ đọc khi tạo kết quả, nên một kết quả
+ * có thể được lưu trong cache và dùng chung giữa nhiều luồng.
  */
 public class DijkstraResult {
     public final CustomLinkedList<Location> path; // Danh sách các địa điểm trên đường đi
@@ -13,10 +15,12 @@ public class DijkstraResult {
 
     /**
      * Constructor cho trường hợp tìm thấy đường đi.
+     * Kết quả nhận quyền sở hữu danh sách: danh sách bị khóa chỉ đọc, không sửa tiếp được.
      * @param path Danh sách địa điểm.
      * @param totalValue Tổng giá trị.
      */
     public DijkstraResult(CustomLinkedList<Location> path, double totalValue) {
+        path.makeReadOnly();
         this.path = path;
         this.totalValue = totalValue;
         this.pathFound = true;
@@ -27,6 +31,7 @@ public class DijkstraResult {
      */
     public DijkstraResult() {
         this.path = new CustomLinkedList<>(); // Danh sách rỗng
+        this.path.makeReadOnly();
         this.totalValue = Double.POSITIVE_INFINITY;
         this.pathFound = false;
     }
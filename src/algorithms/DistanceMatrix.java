@@ -0,0 +1,314 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.Criterion;
+import graph.CsrGraph;
+import graph.EdgeWeights;
+import graph.Graph;
+import graph.GraphView;
+import graph.Location;
+import graph.TransportMode;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Ma trận khoảng cách nguồn x đích (origin x destination) theo một tiêu chí.
+ * Thay vì gọi findShortestPath cho từng cặp (mỗi lần dừng sớm tại một đích),
+ * mỗi nguồn chỉ chạy một tìm kiếm Dijkstra, dừng khi mọi đích đã được tối ưu.
+ * Khi có ContractionHierarchy, ma trận được tính bằng thuật toán bucket nhiều - nhiều
+ * ({@link ContractionHierarchy#computeDistanceTable(int[], int[])}).
+ * Giá trị được lưu trong một mảng double[] phẳng theo hàng; đường đi chỉ được giữ lại khi yêu cầu.
+ */
+public class DistanceMatrix {
+    private final int[] origins;
+    private final int[] destinations;
+    private final double[] values;             // values[i * destinations.length + j]
+    private final Location[] locations;        // Để dựng lại đường đi (null nếu không giữ đường đi)
+    private final int[][] predecessors;        // Cây đường đi ngắn nhất của mỗi nguồn (null nếu không giữ)
+    private final ContractionHierarchy hierarchy; // Dựng lại đường đi bằng truy vấn CH (null nếu không dùng CH)
+
+    private DistanceMatrix(int[] origins, int[] destinations, double[] values, Location[] locations,
+                           int[][] predecessors, ContractionHierarchy hierarchy) {
+        this.origins = origins;
+        this.destinations = destinations;
+        this.values = values;
+        this.locations = locations;
+        this.predecessors = predecessors;
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Tính ma trận khoảng cách trực tiếp trên đồ thị danh sách kề (không giữ đường đi).
+     * Đồ thị không bị chuyển sang CSR ở mỗi lần gọi; nếu cần nhiều ma trận trên một đồ thị
+     * không đổi, hãy gọi {@link Graph#freeze()} một lần và dùng bản nhận {@link CsrGraph}.
+     * @param graph Đồ thị (Graph hoặc ảnh chụp GraphSnapshot).
+     * @param origins Danh sách ID đỉnh nguồn.
+     * @param destinations Danh sách ID đỉnh đích.
+     * @param criterion Tiêu chí.
+     * @return Ma trận khoảng cách.
+     * @throws IllegalArgumentException nếu có ID không tồn tại.
+     */
+    public static DistanceMatrix compute(GraphView graph, int[] origins, int[] destinations, Criterion criterion) {
+        return compute(graph, origins, destinations, criterion, false);
+    }
+
+    /**
+     * Tính ma trận khoảng cách trực tiếp trên đồ thị danh sách kề, mỗi nguồn một tìm kiếm Dijkstra.
+     * @param graph Đồ thị (Graph hoặc ảnh chụp GraphSnapshot).
+     * @param origins Danh sách ID đỉnh nguồn.
+     * @param destinations Danh sách ID đỉnh đích.
+     * @param criterion Tiêu chí.
+     * @param keepPaths true để giữ cây đường đi của mỗi nguồn (tốn thêm O(V) bộ nhớ mỗi nguồn).
+     * @return Ma trận khoảng cách.
+     * @throws IllegalArgumentException nếu có ID không tồn tại.
+     */
+    public static DistanceMatrix compute(GraphView graph, int[] origins, int[] destinations, Criterion criterion,
+                                         boolean keepPaths) {
+        return compute(graph.getMaxVertices(), graph::getLocationById, origins, destinations, keepPaths,
+                (sourceId, context, isDestination, remaining) ->
+                        ShortestPathAlgorithm.search(graph, sourceId, -1, isDestination, remaining, criterion,
+                                TransportMode.ALL_MODES, context));
+    }
+
+    /**
+     * Tính ma trận khoảng cách trên đồ thị CSR (không giữ đường đi).
+     * @param graph Đồ thị CSR.
+     * @param origins Danh sách ID đỉnh nguồn.
+     * @param destinations Danh sách ID đỉnh đích.
+     * @param criterion Tiêu chí.
+     * @return Ma trận khoảng cách.
+     * @throws IllegalArgumentException nếu có ID không tồn tại.
+     */
+    public static DistanceMatrix compute(CsrGraph graph, int[] origins, int[] destinations,
+                                         Criterion criterion) {
+        return compute(graph, origins, destinations, criterion, false);
+    }
+
+    /**
+     * Tính ma trận khoảng cách trên đồ thị CSR, mỗi nguồn một tìm kiếm Dijkstra.
+     * @param graph Đồ thị CSR.
+     * @param origins Danh sách ID đỉnh nguồn.
+     * @param destinations Danh sách ID đỉnh đích.
+     * @param criterion Tiêu chí.
+     * @param keepPaths true để giữ cây đường đi của mỗi nguồn (tốn thêm O(V) bộ nhớ mỗi nguồn).
+     * @return Ma trận khoảng cách.
+     * @throws IllegalArgumentException nếu có ID không tồn tại.
+     */
+    public static DistanceMatrix compute(CsrGraph graph, int[] origins, int[] destinations,
+                                         Criterion criterion, boolean keepPaths) {
+        EdgeWeights weights = graph.getEdgeWeights(criterion);
+        return compute(graph.getMaxVertices(), graph::getLocationById, origins, destinations, keepPaths,
+                (sourceId, context, isDestination, remaining) ->
+                        ShortestPathAlgorithm.search(graph, weights, sourceId, -1, isDestination, remaining,
+                                TransportMode.ALL_MODES, context));
+    }
+
+    /**
+     * Phần chung của các bản compute theo Dijkstra: mỗi nguồn một lần gọi search, rồi đọc
+     * khoảng cách (và cây đường đi nếu cần) từ SearchContext.
+     */
+    private static DistanceMatrix compute(int n, IntFunction<Location> locationLookup, int[] origins,
+                                          int[] destinations, boolean keepPaths, SourceSearch search) {
+        validateIds(locationLookup, origins);
+        validateIds(locationLookup, destinations);
+
+        // Đánh dấu đích (có thể trùng lặp) để dừng khi mọi đích đã được tối ưu
+        boolean[] isDestination = new boolean[n];
+        int distinctDestinations = 0;
+        for (int id : destinations) {
+            if (!isDestination[id]) {
+                isDestination[id] = true;
+                distinctDestinations++;
+            }
+        }
+
+        SearchContext context = SearchContext.forCurrentThread();
+        int numDestinations = destinations.length;
+        double[] values = new double[origins.length * numDestinations];
+        int[][] predecessors = keepPaths ? new int[origins.length][] : null;
+
+        for (int i = 0; i < origins.length; i++) {
+            search.run(origins[i], context, isDestination, distinctDestinations);
+            int row = i * numDestinations;
+            for (int j = 0; j < numDestinations; j++) {
+                values[row + j] = context.getDistance(destinations[j]);
+            }
+            if (keepPaths) {
+                int[] tree = new int[n];
+                for (int v = 0; v < n; v++) {
+                    tree[v] = context.getPreviousVertex(v);
+                }
+                predecessors[i] = tree;
+            }
+        }
+
+        Location[] locations = null;
+        if (keepPaths) {
+            locations = new Location[n];
+            for (int v = 0; v < n; v++) {
+                locations[v] = locationLookup.apply(v);
+            }
+        }
+        return new DistanceMatrix(origins.clone(), destinations.clone(), values, locations, predecessors, null);
+    }
+
+    /**
+     * Tính ma trận khoảng cách bằng thuật toán bucket trên Contraction Hierarchy.
+     * Đường đi của từng cặp luôn có thể lấy bằng {@link #getPath(int, int)} (một truy vấn CH).
+     * @param hierarchy Hierarchy đã xây dựng (tiêu chí là tiêu chí của hierarchy).
+     * @param origins Danh sách ID đỉnh nguồn.
+     * @param destinations Danh sách ID đỉnh đích.
+     * @return Ma trận khoảng cách.
+     * @throws IllegalArgumentException nếu có ID không tồn tại.
+     */
+    public static DistanceMatrix compute(ContractionHierarchy hierarchy, int[] origins, int[] destinations) {
+        double[] values = hierarchy.computeDistanceTable(origins, destinations);
+        return new DistanceMatrix(origins.clone(), destinations.clone(), values, null, null, hierarchy);
+    }
+
+    /**
+     * Tính khoảng cách từ một nguồn đến mọi đỉnh (một tìm kiếm Dijkstra đầy đủ).
+     * @param graph Đồ thị CSR.
+     * @param sourceId ID đỉnh nguồn.
+     * @param criterion Tiêu chí.
+     * @return Mảng độ dài getMaxVertices(), Double.POSITIVE_INFINITY với đỉnh không tới được.
+     * @throws IllegalArgumentException nếu đỉnh nguồn không tồn tại.
+     */
+    public static double[] oneToAll(CsrGraph graph, int sourceId, Criterion criterion) {
+        validateIds(graph::getLocationById, new int[]{sourceId});
+        SearchContext context = SearchContext.forCurrentThread();
+        ShortestPathAlgorithm.search(graph, graph.getEdgeWeights(criterion), sourceId, -1, null, 0,
+                TransportMode.ALL_MODES, context);
+        double[] result = new double[graph.getMaxVertices()];
+        for (int v = 0; v < result.length; v++) {
+            result[v] = context.getDistance(v);
+        }
+        return result;
+    }
+
+    /**
+     * Tính khoảng cách từ một nguồn đến mọi đỉnh trực tiếp trên đồ thị danh sách kề
+     * (không chuyển sang CSR).
+     * @param graph Đồ thị (Graph hoặc ảnh chụp GraphSnapshot).
+     * @param sourceId ID đỉnh nguồn.
+     * @param criterion Tiêu chí.
+     * @return Mảng độ dài getMaxVertices(), Double.POSITIVE_INFINITY với đỉnh không tới được.
+     * @throws IllegalArgumentException nếu đỉnh nguồn không tồn tại.
+     */
+    public static double[] oneToAll(GraphView graph, int sourceId, Criterion criterion) {
+        validateIds(graph::getLocationById, new int[]{sourceId});
+        SearchContext context = SearchContext.forCurrentThread();
+        ShortestPathAlgorithm.search(graph, sourceId, -1, criterion, TransportMode.ALL_MODES, context);
+        double[] result = new double[graph.getMaxVertices()];
+        for (int v = 0; v < result.length; v++) {
+            result[v] = context.getDistance(v);
+        }
+        return result;
+    }
+
+    /**
+     * Một tìm kiếm Dijkstra từ một nguồn, để lại kết quả trong context.
+     */
+    private interface SourceSearch {
+        void run(int sourceId, SearchContext context, boolean[] isDestination, int remaining);
+    }
+
+    private static void validateIds(IntFunction<Location> locationLookup, int[] ids) {
+        for (int id : ids) {
+            if (locationLookup.apply(id) == null) {
+                throw new IllegalArgumentException("Location with ID " + id + " does not exist.");
+            }
+        }
+    }
+
+    public int getNumOrigins() {
+        return origins.length;
+    }
+
+    public int getNumDestinations() {
+        return destinations.length;
+    }
+
+    /**
+     * Lấy ID đỉnh nguồn của hàng i.
+     * @param i Chỉ số hàng.
+     * @return ID đỉnh nguồn.
+     */
+    public int getOrigin(int i) {
+        return origins[i];
+    }
+
+    /**
+     * Lấy ID đỉnh đích của cột j.
+     * @param j Chỉ số cột.
+     * @return ID đỉnh đích.
+     */
+    public int getDestination(int j) {
+        return destinations[j];
+    }
+
+    /**
+     * Lấy giá trị tại hàng i, cột j.
+     * @param i Chỉ số nguồn (theo thứ tự của mảng origins).
+     * @param j Chỉ số đích (theo thứ tự của mảng destinations).
+     * @return Khoảng cách, hoặc Double.POSITIVE_INFINITY nếu không có đường đi.
+     */
+    public double get(int i, int j) {
+        return values[i * destinations.length + j];
+    }
+
+    /**
+     * Lấy toàn bộ giá trị dạng mảng phẳng theo hàng (không sao chép, chỉ được đọc).
+     * @return Mảng với phần tử [i * getNumDestinations() + j].
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Sao chép giá trị ra mảng hai chiều.
+     * @return Mảng double[getNumOrigins()][getNumDestinations()].
+     */
+    public double[][] toArray() {
+        int numDestinations = destinations.length;
+        double[][] result = new double[origins.length][];
+        for (int i = 0; i < origins.length; i++) {
+            result[i] = Arrays.copyOfRange(values, i * numDestinations, (i + 1) * numDestinations);
+        }
+        return result;
+    }
+
+    /**
+     * Kiểm tra ma trận có thể dựng lại đường đi hay không.
+     * @return true nếu đã giữ cây đường đi hoặc được tính trên Contraction Hierarchy.
+     */
+    public boolean hasPaths() {
+        return predecessors != null || hierarchy != null;
+    }
+
+    /**
+     * Dựng lại đường đi của cặp (origins[i], destinations[j]).
+     * @param i Chỉ số nguồn.
+     * @param j Chỉ số đích.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     * @throws IllegalStateException nếu ma trận được tính mà không giữ đường đi.
+     */
+    public DijkstraResult getPath(int i, int j) {
+        if (hierarchy != null) {
+            return hierarchy.findShortestPath(origins[i], destinations[j]);
+        }
+        if (predecessors == null) {
+            throw new IllegalStateException("Paths were not kept. Compute the matrix with keepPaths = true.");
+        }
+        double total = get(i, j);
+        if (total == Double.POSITIVE_INFINITY) {
+            return new DijkstraResult();
+        }
+        int[] tree = predecessors[i];
+        CustomLinkedList<Location> path = ShortestPathAlgorithm.tracePath(v -> locations[v], locations.length,
+                v -> tree[v], origins[i], destinations[j]);
+        return new DijkstraResult(path, total);
+    }
+}
@@ -0,0 +1,61 @@
+package algorithms;
+
+import graph.GraphView;
+
+/**
+ * Ràng buộc của một cache với một đồ thị nguồn ({@link GraphView#getSource()}) tại một epoch.
+ * Dùng chung bởi {@link RouteCache} và {@link ShortestPathTreeCache}.
+ * Với cùng một nguồn, ràng buộc chỉ tiến tới epoch mới hơn: truy vấn trên ảnh chụp cũ hơn
+ * (bên đọc vẫn giữ ảnh chụp trước) không kéo cache lùi lại và không xóa các mục của epoch hiện tại,
+ * kết quả của nó chỉ được tính mà không lưu. Không đồng bộ hóa: chỉ dùng khi đang giữ khóa của cache.
+ */
+final class EpochBinding {
+    /** Truy vấn thuộc đúng đồ thị và epoch đang ràng buộc. */
+    static final int CURRENT = 0;
+    /** Ràng buộc vừa chuyển sang nguồn khác hoặc epoch mới hơn: các mục hiện có phải bị xóa. */
+    static final int ADVANCED = 1;
+    /** Truy vấn trên epoch cũ hơn của cùng nguồn: không tra cứu, không lưu. */
+    static final int STALE = 2;
+
+    private Object boundSource; // null nếu chưa ràng buộc
+    private long boundEpoch;
+
+    /**
+     * Đối chiếu một truy vấn với ràng buộc, chuyển ràng buộc nếu truy vấn thuộc nguồn khác
+     * hoặc epoch mới hơn.
+     * @param graph Đồ thị của truy vấn.
+     * @param epoch Epoch đọc được từ đồ thị trước khi truy vấn.
+     * @return CURRENT, ADVANCED hoặc STALE.
+     */
+    int bind(GraphView graph, long epoch) {
+        Object source = graph.getSource();
+        if (source == boundSource) {
+            if (epoch == boundEpoch) {
+                return CURRENT;
+            }
+            if (epoch < boundEpoch) {
+                return STALE;
+            }
+        }
+        boundSource = source;
+        boundEpoch = epoch;
+        return ADVANCED;
+    }
+
+    /**
+     * Kiểm tra một kết quả tính trên (graph, epoch) còn thuộc ràng buộc hiện tại để được lưu không.
+     * @param graph Đồ thị của truy vấn.
+     * @param epoch Epoch của kết quả.
+     * @return true nếu đúng nguồn và epoch đang ràng buộc.
+     */
+    boolean isCurrent(GraphView graph, long epoch) {
+        return graph.getSource() == boundSource && epoch == boundEpoch;
+    }
+
+    /**
+     * Bỏ ràng buộc (truy vấn kế tiếp sẽ ràng buộc lại).
+     */
+    void reset() {
+        boundSource = null;
+    }
+}
@@ -0,0 +1,126 @@
+package algorithms;
+
+import graph.Criterion;
+import graph.GraphView;
+import graph.Location;
+import graph.Route;
+
+/**
+ * Heuristic dựa trên tọa độ địa lý của Location.
+ * - "distance": khoảng cách đường tròn lớn (km) giữa hai địa điểm.
+ * - "time": khoảng cách đường tròn lớn chia cho tốc độ tối đa của phương tiện nhanh nhất.
+ * - "cost": không có cận dưới hình học, trả về 0 (A* khi đó tương đương Dijkstra).
+ * - Tiêu chí kết hợp: tổ hợp tuyến tính của các cận trên với cùng hệ số.
+ * Dữ liệu thực không bảo đảm mỗi cạnh dài ít nhất bằng khoảng cách đường tròn lớn giữa hai đầu
+ * (ví dụ khoảng cách đường bay được làm tròn xuống), nên hệ số còn bị chặn bởi tỉ lệ nhỏ nhất
+ * trọng số / khoảng cách đường tròn lớn trên mọi cạnh của đồ thị: theo bất đẳng thức tam giác,
+ * mọi đường đi khi đó có trọng số không nhỏ hơn ước lượng, nên A* luôn cho kết quả tối ưu.
+ * Hệ số được tính một lần khi tạo (duyệt O(V + E)) theo trạng thái đồ thị lúc đó; tạo lại heuristic
+ * sau khi đồ thị thay đổi. Nếu một địa điểm không có tọa độ, ước lượng là 0; nếu có cạnh nối với
+ * địa điểm không có tọa độ thì không chặn được tỉ lệ nói trên, và ước lượng luôn là 0.
+ */
+public class GeographicHeuristic implements Heuristic {
+
+    /** Tốc độ tối đa (km/h) dùng khi đồ thị không có cạnh nào có thời gian dương. */
+    public static final double DEFAULT_MAX_SPEED_KMH = 900.0;
+
+    private final GraphView graph;
+    private final double scale; // Hệ số nhân với khoảng cách km (0 nếu không có cận hình học)
+
+    /**
+     * Constructor với tốc độ tối đa lấy từ cạnh nhanh nhất của đồ thị.
+     * @param graph Đồ thị (để lấy tọa độ các Location và trọng số các cạnh).
+     * @param criteria Tiêu chí ("distance", "time", "cost").
+     * @throws IllegalArgumentException nếu tiêu chí không hợp lệ.
+     */
+    public GeographicHeuristic(GraphView graph, String criteria) {
+        this(graph, Criterion.parse(criteria));
+    }
+
+    /**
+     * Constructor với tốc độ tối đa lấy từ cạnh nhanh nhất của đồ thị (distance / time lớn nhất).
+     * @param graph Đồ thị (để lấy tọa độ các Location và trọng số các cạnh).
+     * @param criterion Tiêu chí.
+     */
+    public GeographicHeuristic(GraphView graph, Criterion criterion) {
+        this(graph, criterion, fastestSpeedKmh(graph));
+    }
+
+    /**
+     * Constructor.
+     * Với tiêu chí kết hợp, cận dưới là tổ hợp của cận khoảng cách và cận thời gian
+     * (chi phí không có cận hình học nên đóng góp 0). Hệ số này còn bị chặn bởi tỉ lệ
+     * trọng số / khoảng cách đường tròn lớn nhỏ nhất trên các cạnh của đồ thị.
+     * @param graph Đồ thị (để lấy tọa độ các Location và trọng số các cạnh).
+     * @param criterion Tiêu chí.
+     * @param maxSpeedKmh Tốc độ tối đa (km/h) trên mọi cạnh, dùng cho thành phần thời gian.
+     * @throws IllegalArgumentException nếu tốc độ không dương.
+     */
+    public GeographicHeuristic(GraphView graph, Criterion criterion, double maxSpeedKmh) {
+        if (maxSpeedKmh <= 0) {
+            throw new IllegalArgumentException("Maximum speed must be positive.");
+        }
+        this.graph = graph;
+        double factor = criterion.getDistanceFactor() + criterion.getTimeFactor() / maxSpeedKmh;
+        this.scale = factor == 0.0 ? 0.0 : Math.min(factor, minWeightPerKm(graph, criterion));
+    }
+
+    /**
+     * Tốc độ (km/h) của cạnh nhanh nhất: distance / time lớn nhất trên các cạnh có thời gian dương.
+     * @return Tốc độ, hoặc DEFAULT_MAX_SPEED_KMH nếu không có cạnh nào như vậy.
+     */
+    private static double fastestSpeedKmh(GraphView graph) {
+        double fastest = 0.0;
+        for (int u = 0; u < graph.getMaxVertices(); u++) {
+            if (graph.getLocationById(u) == null) {
+                continue;
+            }
+            for (Route route : graph.getNeighbors(u)) {
+                if (route.time > 0.0 && route.distance / route.time > fastest) {
+                    fastest = route.distance / route.time;
+                }
+            }
+        }
+        return fastest > 0.0 && fastest < Double.POSITIVE_INFINITY ? fastest : DEFAULT_MAX_SPEED_KMH;
+    }
+
+    /**
+     * Tỉ lệ nhỏ nhất weightOf(route) / khoảng cách đường tròn lớn giữa hai đầu cạnh.
+     * Cạnh có hai đầu trùng tọa độ không giới hạn tỉ lệ (trọng số không âm).
+     * @return Tỉ lệ (Double.POSITIVE_INFINITY nếu không có cạnh nào giới hạn),
+     *         hoặc 0 nếu có cạnh nối với địa điểm không có tọa độ.
+     */
+    private static double minWeightPerKm(GraphView graph, Criterion criterion) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < graph.getMaxVertices(); u++) {
+            Location from = graph.getLocationById(u);
+            if (from == null) {
+                continue;
+            }
+            for (Route route : graph.getNeighbors(u)) {
+                Location to = graph.getLocationById(route.destinationId);
+                if (!from.hasCoordinates() || !to.hasCoordinates()) {
+                    return 0.0;
+                }
+                double km = from.greatCircleDistanceTo(to);
+                if (km > 0.0) {
+                    min = Math.min(min, criterion.weightOf(route) / km);
+                }
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public double estimate(int vertexId, int targetId) {
+        if (scale == 0.0) {
+            return 0.0;
+        }
+        Location from = graph.getLocationById(vertexId);
+        Location to = graph.getLocationById(targetId);
+        if (from == null || to == null) {
+            return 0.0;
+        }
+        return from.greatCircleDistanceTo(to) * scale;
+    }
+}
@@ -0,0 +1,17 @@
+package algorithms;
+
+/**
+ * Hàm ước lượng (heuristic) cho thuật toán A*.
+ * Giá trị trả về phải là cận dưới (admissible) của độ dài đường đi ngắn nhất
+ * từ vertexId đến targetId theo tiêu chí đang tìm, nếu không kết quả có thể không tối ưu.
+ */
+public interface Heuristic {
+
+    /**
+     * Ước lượng độ dài đường đi ngắn nhất còn lại.
+     * @param vertexId ID đỉnh hiện tại.
+     * @param targetId ID đỉnh đích.
+     * @return Cận dưới không âm của độ dài đường đi từ vertexId đến targetId.
+     */
+    double estimate(int vertexId, int targetId);
+}
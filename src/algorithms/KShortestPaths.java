@@ -0,0 +1,344 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.IndexedMinHeap;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Location;
+import graph.Route;
+import graph.TransportMode;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf/equals để thao tác mảng cơ bản
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * K đường đi ngắn nhất không lặp (thuật toán Yen), trả về các phương án thay thế theo thứ tự.
+ * Đường thứ k+1 được tìm bằng cách rẽ nhánh khỏi đường thứ k tại từng đỉnh (spur node):
+ * giữ nguyên đoạn gốc, cấm các đỉnh của đoạn gốc và các cạnh mà các đường đã chọn cùng gốc
+ * đã đi qua, rồi tìm đường từ spur node đến đích.
+ * Khoảng cách đến đích trên đồ thị đầy đủ (một lần Dijkstra ngược từ đích) là cận dưới đúng
+ * khi bị cấm bớt đỉnh/cạnh, nên mọi lần tìm kiếm rẽ nhánh là A* với heuristic gần như chính xác:
+ * chúng chỉ mở rộng vài đỉnh quanh đường đi thay vì cả đồ thị, nên k đường tốn ít hơn nhiều so với k lần Dijkstra.
+ * Các lần tìm kiếm rẽ nhánh của cùng một vòng độc lập với nhau nên được chạy song song trên
+ * ForkJoinPool chung; mỗi luồng dùng SearchContext riêng ({@link SearchContext#forCurrentThread()}),
+ * và đỉnh bị cấm được đánh dấu "đã tối ưu" trong context nên không cần mảng cấm riêng.
+ * Các đường chỉ khác nhau ở cạnh song song (cùng dãy đỉnh) được coi là một.
+ */
+public class KShortestPaths {
+
+    // Số spur node tối đa của một tác vụ không chia nhỏ thêm
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+
+    /**
+     * Một đường đi dưới dạng dãy đỉnh cùng tổng trọng số tích lũy tại từng đỉnh.
+     */
+    private static final class Candidate {
+        final int[] vertices;
+        final double[] prefixCost; // prefixCost[i]: trọng số từ nguồn đến vertices[i]
+
+        Candidate(int[] vertices, double[] prefixCost) {
+            this.vertices = vertices;
+            this.prefixCost = prefixCost;
+        }
+
+        double total() {
+            return prefixCost[prefixCost.length - 1];
+        }
+    }
+
+    /**
+     * Tìm tối đa k đường đi ngắn nhất không lặp dùng mọi phương tiện.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param k Số đường đi tối đa.
+     * @param criterion Tiêu chí.
+     * @return Danh sách (chỉ đọc) DijkstraResult theo tổng trọng số tăng dần
+     *         (có thể ít hơn k, rỗng nếu không có đường).
+     * @throws IllegalArgumentException nếu k không dương.
+     */
+    public static CustomLinkedList<DijkstraResult> findKShortestPaths(GraphView graph, int startId, int endId,
+                                                                      int k, Criterion criterion) {
+        return findKShortestPaths(graph, startId, endId, k, criterion, TransportMode.ALL_MODES,
+                Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Tìm tối đa k đường đi ngắn nhất không lặp, chỉ giữ các đường có tổng trọng số
+     * không vượt quá maxStretch lần đường ngắn nhất (ví dụ 1.1 = trong phạm vi 10%).
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param k Số đường đi tối đa.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param maxStretch Tỉ lệ tối đa so với đường ngắn nhất (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @return Danh sách (chỉ đọc) DijkstraResult theo tổng trọng số tăng dần
+     *         (có thể ít hơn k, rỗng nếu không có đường).
+     * @throws IllegalArgumentException nếu k không dương hoặc maxStretch nhỏ hơn 1.
+     */
+    public static CustomLinkedList<DijkstraResult> findKShortestPaths(GraphView graph, int startId, int endId,
+                                                                      int k, Criterion criterion, int modeMask,
+                                                                      double maxStretch) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive.");
+        }
+        if (!(maxStretch >= 1.0)) {
+            throw new IllegalArgumentException("Max stretch must be at least 1.");
+        }
+        CustomLinkedList<DijkstraResult> results = new CustomLinkedList<>();
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            results.makeReadOnly();
+            return results;
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            results.makeReadOnly();
+            return results;
+        }
+
+        SearchContext context = SearchContext.forCurrentThread();
+        double[] toTarget = ShortestPathAlgorithm.distancesToTarget(graph, endId, criterion, modeMask, context);
+        Candidate first = spurSearch(graph, startId, endId, criterion, modeMask, toTarget, null, 0, new int[0],
+                context);
+        if (first == null) {
+            results.makeReadOnly();
+            return results;
+        }
+        double limit = first.total() * maxStretch;
+
+        Candidate[] accepted = new Candidate[k];
+        accepted[0] = first;
+        int numAccepted = 1;
+        Candidate[] pending = new Candidate[8]; // Tập ứng viên B
+        int numPending = 0;
+
+        while (numAccepted < k) {
+            Candidate previous = accepted[numAccepted - 1];
+            int spurCount = previous.vertices.length - 1;
+            Candidate[] spurResults = new Candidate[spurCount];
+            SpurTask task = new SpurTask(graph, endId, criterion, modeMask, toTarget, previous, accepted,
+                    numAccepted, spurResults, 0, spurCount);
+            if (spurCount <= SEQUENTIAL_THRESHOLD) {
+                task.compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(task);
+            }
+
+            for (Candidate candidate : spurResults) {
+                if (candidate != null && candidate.total() <= limit
+                        && !contains(accepted, numAccepted, candidate) && !contains(pending, numPending, candidate)) {
+                    if (numPending == pending.length) {
+                        pending = Arrays.copyOf(pending, pending.length * 2);
+                    }
+                    pending[numPending++] = candidate;
+                }
+            }
+            if (numPending == 0) {
+                break; // Không còn phương án nào
+            }
+
+            // Lấy ứng viên ngắn nhất (ít đỉnh hơn nếu bằng nhau)
+            int best = 0;
+            for (int i = 1; i < numPending; i++) {
+                Candidate c = pending[i];
+                if (c.total() < pending[best].total()
+                        || (c.total() == pending[best].total() && c.vertices.length < pending[best].vertices.length)) {
+                    best = i;
+                }
+            }
+            accepted[numAccepted++] = pending[best];
+            pending[best] = pending[--numPending];
+            pending[numPending] = null;
+        }
+
+        for (int i = 0; i < numAccepted; i++) {
+            results.add(toResult(graph, accepted[i]));
+        }
+        results.makeReadOnly();
+        return results;
+    }
+
+    /**
+     * Tác vụ fork-join chạy các tìm kiếm rẽ nhánh tại spur index [from, to) của đường previous.
+     */
+    private static final class SpurTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GraphView graph;
+        private final int endId;
+        private final Criterion criterion;
+        private final int modeMask;
+        private final double[] toTarget;
+        private final Candidate previous;
+        private final Candidate[] accepted;
+        private final int numAccepted;
+        private final Candidate[] spurResults;
+        private final int from;
+        private final int to;
+
+        SpurTask(GraphView graph, int endId, Criterion criterion, int modeMask, double[] toTarget,
+                 Candidate previous, Candidate[] accepted, int numAccepted, Candidate[] spurResults,
+                 int from, int to) {
+            this.graph = graph;
+            this.endId = endId;
+            this.criterion = criterion;
+            this.modeMask = modeMask;
+            this.toTarget = toTarget;
+            this.previous = previous;
+            this.accepted = accepted;
+            this.numAccepted = numAccepted;
+            this.spurResults = spurResults;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                SearchContext context = SearchContext.forCurrentThread();
+                for (int i = from; i < to; i++) {
+                    spurResults[i] = deviate(i, context);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SpurTask(graph, endId, criterion, modeMask, toTarget, previous, accepted,
+                            numAccepted, spurResults, from, middle),
+                    new SpurTask(graph, endId, criterion, modeMask, toTarget, previous, accepted,
+                            numAccepted, spurResults, middle, to));
+        }
+
+        /**
+         * Rẽ nhánh tại đỉnh thứ spurIndex của đường previous.
+         */
+        private Candidate deviate(int spurIndex, SearchContext context) {
+            int[] root = previous.vertices;
+            int spurNode = root[spurIndex];
+            // Cấm cạnh kế tiếp của mọi đường đã chọn có cùng đoạn gốc root[0..spurIndex]
+            int[] bannedNext = new int[numAccepted];
+            int numBanned = 0;
+            for (int a = 0; a < numAccepted; a++) {
+                int[] path = accepted[a].vertices;
+                if (path.length > spurIndex + 1 && sharesRoot(path, root, spurIndex)) {
+                    bannedNext[numBanned++] = path[spurIndex + 1];
+                }
+            }
+            Candidate spur = spurSearch(graph, spurNode, endId, criterion, modeMask, toTarget, root, spurIndex,
+                    Arrays.copyOf(bannedNext, numBanned), context);
+            if (spur == null) {
+                return null;
+            }
+            // Ghép đoạn gốc với đoạn rẽ nhánh
+            int length = spurIndex + spur.vertices.length;
+            int[] vertices = Arrays.copyOf(root, length);
+            double[] prefixCost = Arrays.copyOf(previous.prefixCost, length);
+            double rootCost = previous.prefixCost[spurIndex];
+            for (int i = 1; i < spur.vertices.length; i++) {
+                vertices[spurIndex + i] = spur.vertices[i];
+                prefixCost[spurIndex + i] = rootCost + spur.prefixCost[i];
+            }
+            return new Candidate(vertices, prefixCost);
+        }
+    }
+
+    /**
+     * A* từ startId đến endId với heuristic toTarget, bỏ qua các đỉnh root[0..rootLength)
+     * và các cạnh startId -> bannedNext[i].
+     * Đỉnh bị cấm được đánh dấu đã tối ưu ngay sau reset nên vòng lặp chính không bao giờ nới lỏng vào chúng.
+     * toTarget là khoảng cách chính xác trên đồ thị đầy đủ nên nhất quán, và đỉnh có toTarget vô cùng
+     * không thể dẫn tới đích nên bị bỏ qua luôn.
+     * @return Đường đi tìm được (prefixCost tính từ startId), hoặc null nếu không có.
+     */
+    private static Candidate spurSearch(GraphView graph, int startId, int endId, Criterion criterion, int modeMask,
+                                        double[] toTarget, int[] root, int rootLength, int[] bannedNext,
+                                        SearchContext context) {
+        if (toTarget[startId] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        context.reset(graph.getMaxVertices());
+        for (int i = 0; i < rootLength; i++) {
+            context.markSettled(root[i]);
+        }
+        context.setDistance(startId, 0.0, -1);
+        IndexedMinHeap pq = context.getHeap();
+        pq.insert(startId, toTarget[startId]);
+
+        while (!pq.isEmpty()) {
+            int u = pq.extractMin();
+            context.markSettled(u);
+            if (u == endId) {
+                break;
+            }
+            double distU = context.getDistance(u);
+            for (Route route : graph.getNeighbors(u)) {
+                int v = route.destinationId;
+                if (context.isSettled(v) || !route.allows(modeMask) || toTarget[v] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                if (u == startId && isBanned(bannedNext, v)) {
+                    continue;
+                }
+                double newDist = distU + criterion.weightOf(route);
+                if (newDist < context.getDistance(v)) {
+                    context.setDistance(v, newDist, u);
+                    pq.insertOrDecrease(v, newDist + toTarget[v]);
+                }
+            }
+        }
+
+        if (context.getDistance(endId) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        int length = 0;
+        for (int v = endId; v != -1; v = context.getPreviousVertex(v)) {
+            length++;
+        }
+        int[] vertices = new int[length];
+        double[] prefixCost = new double[length];
+        int index = length;
+        for (int v = endId; v != -1; v = context.getPreviousVertex(v)) {
+            index--;
+            vertices[index] = v;
+            prefixCost[index] = context.getDistance(v);
+        }
+        return new Candidate(vertices, prefixCost);
+    }
+
+    private static boolean isBanned(int[] bannedNext, int vertexId) {
+        for (int banned : bannedNext) {
+            if (banned == vertexId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sharesRoot(int[] path, int[] root, int spurIndex) {
+        for (int i = 0; i <= spurIndex; i++) {
+            if (path[i] != root[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(Candidate[] candidates, int count, Candidate candidate) {
+        for (int i = 0; i < count; i++) {
+            if (Arrays.equals(candidates[i].vertices, candidate.vertices)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DijkstraResult toResult(GraphView graph, Candidate candidate) {
+        CustomLinkedList<Location> path = new CustomLinkedList<>();
+        for (int v : candidate.vertices) {
+            path.add(graph.getLocationById(v));
+        }
+        return new DijkstraResult(path, candidate.total());
+    }
+}
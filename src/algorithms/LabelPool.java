@@ -0,0 +1,145 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.DoubleIntHeap;
+import graph.GraphView;
+import graph.Location;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf/fill để thay đổi kích thước mảng
+
+/**
+ * Kho nhãn dùng lại được cho tìm kiếm gắn nhãn đa tiêu chí
+ * (xem {@link ParetoSearch}, {@link ConstrainedShortestPath}).
+ * Mỗi nhãn là một chỉ số vào các mảng nguyên thủy song song (distance, time, cost,
+ * đỉnh, nhãn cha), không tạo đối tượng cho từng nhãn. Nhãn của cùng một đỉnh
+ * ("túi" nhãn) được nối thành danh sách liên kết đơn bằng mảng nextInBag.
+ * Các mảng được giữ lại giữa các truy vấn; đầu túi của mỗi đỉnh mang tem thế hệ
+ * giống {@link SearchContext}, nên reset() không phải duyệt lại toàn bộ đỉnh.
+ * Không an toàn luồng; mỗi luồng dùng một kho riêng ({@link #forCurrentThread()}).
+ */
+final class LabelPool {
+
+    private static final ThreadLocal<LabelPool> PER_THREAD =
+            ThreadLocal.withInitial(() -> new LabelPool(16, 64));
+
+    // --- Dữ liệu theo nhãn ---
+    double[] distance;
+    double[] time;
+    double[] cost;
+    int[] vertex;
+    int[] parent;     // Nhãn cha trên đường đi, -1 với nhãn tại nguồn
+    int[] nextInBag;  // Nhãn kế tiếp trong túi của cùng đỉnh, -1 nếu hết
+    boolean[] dead;   // Nhãn đã bị một nhãn mới trội hơn loại bỏ
+    int size;
+
+    // --- Dữ liệu theo đỉnh ---
+    private int[] bagHead;
+    private int[] bagStamp;
+    private int generation;
+
+    // Hàng đợi nhãn: mỗi nhãn được thêm đúng một lần và không bao giờ giảm khóa (nhãn bị trội chỉ bị đánh dấu dead),
+    // nên không cần bảng vị trí theo nhãn của IndexedMinHeap
+    private final DoubleIntHeap heap;
+
+    LabelPool(int vertexCapacity, int labelCapacity) {
+        this.distance = new double[labelCapacity];
+        this.time = new double[labelCapacity];
+        this.cost = new double[labelCapacity];
+        this.vertex = new int[labelCapacity];
+        this.parent = new int[labelCapacity];
+        this.nextInBag = new int[labelCapacity];
+        this.dead = new boolean[labelCapacity];
+        this.bagHead = new int[vertexCapacity];
+        this.bagStamp = new int[vertexCapacity];
+        this.heap = new DoubleIntHeap(labelCapacity);
+    }
+
+    static LabelPool forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Chuẩn bị cho một truy vấn mới: xóa mọi nhãn và túi nhãn.
+     * @param numVertices Số lượng ID đỉnh tối đa của đồ thị.
+     */
+    void reset(int numVertices) {
+        if (numVertices > bagHead.length) {
+            int newCapacity = Math.max(numVertices, bagHead.length * 2);
+            bagHead = Arrays.copyOf(bagHead, newCapacity);
+            bagStamp = Arrays.copyOf(bagStamp, newCapacity);
+        }
+        heap.clear();
+        size = 0;
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(bagStamp, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Tạo nhãn mới và đưa vào đầu túi của đỉnh.
+     * @return Chỉ số của nhãn.
+     */
+    int add(int vertexId, double dist, double t, double c, int parentLabel) {
+        if (size == distance.length) {
+            grow();
+        }
+        int label = size++;
+        distance[label] = dist;
+        time[label] = t;
+        cost[label] = c;
+        vertex[label] = vertexId;
+        parent[label] = parentLabel;
+        dead[label] = false;
+        nextInBag[label] = firstInBag(vertexId);
+        bagHead[vertexId] = label;
+        bagStamp[vertexId] = generation;
+        return label;
+    }
+
+    /**
+     * Lấy nhãn đầu tiên trong túi của đỉnh.
+     * @return Chỉ số nhãn, -1 nếu túi rỗng.
+     */
+    int firstInBag(int vertexId) {
+        return bagStamp[vertexId] == generation ? bagHead[vertexId] : -1;
+    }
+
+    /**
+     * Gỡ một nhãn khỏi túi của đỉnh (previous là nhãn đứng trước nó, -1 nếu nó đứng đầu).
+     */
+    void unlink(int vertexId, int previous, int label) {
+        if (previous == -1) {
+            bagHead[vertexId] = nextInBag[label];
+        } else {
+            nextInBag[previous] = nextInBag[label];
+        }
+    }
+
+    /**
+     * Truy vết đường đi theo chuỗi nhãn cha, từ nguồn đến đỉnh của nhãn.
+     */
+    CustomLinkedList<Location> tracePath(GraphView graph, int label) {
+        CustomLinkedList<Location> path = new CustomLinkedList<>();
+        for (int l = label; l != -1; l = parent[l]) {
+            path.addFirst(graph.getLocationById(vertex[l]));
+        }
+        return path;
+    }
+
+    DoubleIntHeap getHeap() {
+        return heap;
+    }
+
+    private void grow() {
+        int newCapacity = distance.length * 2;
+        distance = Arrays.copyOf(distance, newCapacity);
+        time = Arrays.copyOf(time, newCapacity);
+        cost = Arrays.copyOf(cost, newCapacity);
+        vertex = Arrays.copyOf(vertex, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        nextInBag = Arrays.copyOf(nextInBag, newCapacity);
+        dead = Arrays.copyOf(dead, newCapacity);
+    }
+}
@@ -0,0 +1,353 @@
+package algorithms;
+
+import datastructure.IndexedMinHeap;
+import datastructure.IntArrayList;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Route;
+
+import java.util.Arrays; // Chỉ dùng Arrays.fill/copyOf để thao tác mảng cơ bản
+import java.util.Random;
+
+/**
+ * Chỉ mục landmark cho A* kiểu ALT (A*, Landmarks, Triangle inequality).
+ * Chọn k đỉnh mốc (landmark) L và tính trước, cho mọi đỉnh v, d(L, v) (bảng xuôi)
+ * và d(v, L) (bảng ngược) theo một tiêu chí. Theo bất đẳng thức tam giác:
+ *     d(v, t) >= d(L, t) - d(L, v)   và   d(v, t) >= d(v, L) - d(t, L),
+ * nên giá trị lớn nhất trên các landmark là cận dưới hợp lệ cho A*, kể cả với
+ * tiêu chí "cost" vốn không có heuristic hình học.
+ * Bảng được lưu trong mảng nguyên thủy theo thứ tự đỉnh (k giá trị liên tiếp của
+ * một đỉnh nằm cạnh nhau), tùy chọn dạng float[] để giảm một nửa bộ nhớ.
+ */
+public class LandmarkIndex implements Heuristic {
+
+    /**
+     * Chiến lược chọn landmark.
+     */
+    public enum Selection {
+        /** Lần lượt chọn đỉnh xa nhất so với tập landmark đã chọn. */
+        FARTHEST,
+        /** Chọn landmark ở vùng mà cận dưới hiện tại còn kém nhất (chiến lược "avoid"). */
+        AVOID
+    }
+
+    // Sai số tương đối của float (2^-23), dùng để giữ cận dưới hợp lệ khi bảng lưu dạng float
+    private static final double FLOAT_SLACK = 1.2e-7;
+
+    private final Criterion criterion;
+    private final int maxVertices;
+    private final int[] landmarks;
+    private final boolean compact;       // true nếu bảng lưu dạng float[]
+    private final double[] fromLandmark; // fromLandmark[v * k + i] = d(L_i, v) (null nếu compact)
+    private final double[] toLandmark;   // toLandmark[v * k + i] = d(v, L_i) (null nếu compact)
+    private final float[] fromLandmarkCompact;
+    private final float[] toLandmarkCompact;
+
+    private LandmarkIndex(Criterion criterion, int maxVertices, int[] landmarks, boolean compact,
+                          double[][] from, double[][] to) {
+        this.criterion = criterion;
+        this.maxVertices = maxVertices;
+        this.landmarks = landmarks;
+        this.compact = compact;
+        int k = landmarks.length;
+        if (compact) {
+            this.fromLandmark = null;
+            this.toLandmark = null;
+            this.fromLandmarkCompact = new float[maxVertices * k];
+            this.toLandmarkCompact = new float[maxVertices * k];
+            for (int i = 0; i < k; i++) {
+                for (int v = 0; v < maxVertices; v++) {
+                    fromLandmarkCompact[v * k + i] = (float) from[i][v];
+                    toLandmarkCompact[v * k + i] = (float) to[i][v];
+                }
+            }
+        } else {
+            this.fromLandmarkCompact = null;
+            this.toLandmarkCompact = null;
+            this.fromLandmark = new double[maxVertices * k];
+            this.toLandmark = new double[maxVertices * k];
+            for (int i = 0; i < k; i++) {
+                for (int v = 0; v < maxVertices; v++) {
+                    fromLandmark[v * k + i] = from[i][v];
+                    toLandmark[v * k + i] = to[i][v];
+                }
+            }
+        }
+    }
+
+    /**
+     * Xây dựng chỉ mục landmark cho một tiêu chí.
+     * @param graph Đồ thị (cần chỉ mục ngược getIncomingRoutes).
+     * @param criteria Tiêu chí ("distance", "time", "cost").
+     * @param numLandmarks Số landmark k.
+     * @param selection Chiến lược chọn landmark.
+     * @param compact true để lưu bảng dạng float[] (một nửa bộ nhớ, cận dưới được nới nhẹ).
+     * @return LandmarkIndex đã xây dựng.
+     * @throws IllegalArgumentException nếu tiêu chí không hợp lệ hoặc numLandmarks không dương.
+     */
+    public static LandmarkIndex build(GraphView graph, String criteria, int numLandmarks,
+                                      Selection selection, boolean compact) {
+        return build(graph, Criterion.parse(criteria), numLandmarks, selection, compact);
+    }
+
+    /**
+     * Xây dựng chỉ mục landmark cho một tiêu chí (kể cả tiêu chí kết hợp).
+     * @param graph Đồ thị (cần chỉ mục ngược getIncomingRoutes).
+     * @param criterion Tiêu chí.
+     * @param numLandmarks Số landmark k.
+     * @param selection Chiến lược chọn landmark.
+     * @param compact true để lưu bảng dạng float[].
+     * @return LandmarkIndex đã xây dựng.
+     * @throws IllegalArgumentException nếu numLandmarks không dương.
+     */
+    public static LandmarkIndex build(GraphView graph, Criterion criterion, int numLandmarks,
+                                      Selection selection, boolean compact) {
+        if (numLandmarks <= 0) {
+            throw new IllegalArgumentException("Number of landmarks must be positive.");
+        }
+
+        int n = graph.getMaxVertices();
+        IntArrayList existing = new IntArrayList(graph.getNumVertices()); // get(i) O(1) khi chọn gốc ngẫu nhiên
+        for (int v = 0; v < n; v++) {
+            if (graph.getLocationById(v) != null) {
+                existing.add(v);
+            }
+        }
+        int k = Math.min(numLandmarks, existing.size());
+        if (k == 0) {
+            throw new IllegalArgumentException("Graph has no vertices.");
+        }
+
+        int[] landmarks = new int[k];
+        double[][] from = new double[k][];
+        double[][] to = new double[k][];
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        int[] order = new int[n];
+        Random random = new Random(42); // Cố định seed để kết quả lặp lại được
+
+        for (int i = 0; i < k; i++) {
+            int landmark;
+            if (i == 0) {
+                // Landmark đầu tiên: đỉnh xa nhất tính từ một đỉnh ngẫu nhiên
+                int root = existing.get(random.nextInt(existing.size()));
+                int settled = fullSearch(graph, criterion, root, false, dist, parent, order);
+                landmark = order[settled - 1];
+            } else if (selection == Selection.FARTHEST) {
+                landmark = selectFarthest(n, i, from, to, landmarks);
+            } else {
+                int root = existing.get(random.nextInt(existing.size()));
+                landmark = selectAvoid(graph, criterion, root, i, landmarks, from, to, dist, parent, order);
+                if (landmark == -1) {
+                    landmark = selectFarthest(n, i, from, to, landmarks);
+                }
+            }
+            if (landmark == -1) {
+                // Không còn đỉnh mới để chọn (đồ thị quá nhỏ)
+                k = i;
+                break;
+            }
+            landmarks[i] = landmark;
+            from[i] = new double[n];
+            to[i] = new double[n];
+            fullSearch(graph, criterion, landmark, false, from[i], parent, order);
+            fullSearch(graph, criterion, landmark, true, to[i], parent, order);
+        }
+
+        return new LandmarkIndex(criterion, n, Arrays.copyOf(landmarks, k), compact,
+                Arrays.copyOf(from, k), Arrays.copyOf(to, k));
+    }
+
+    /**
+     * Chọn đỉnh có khoảng cách nhỏ nhất đến tập landmark (theo cả hai chiều) lớn nhất.
+     */
+    private static int selectFarthest(int n, int count, double[][] from, double[][] to, int[] landmarks) {
+        int best = -1;
+        double bestDist = -1;
+        for (int v = 0; v < n; v++) {
+            double nearest = Double.POSITIVE_INFINITY;
+            boolean reachable = false;
+            for (int i = 0; i < count; i++) {
+                double d = Math.min(from[i][v], to[i][v]);
+                if (d < Double.POSITIVE_INFINITY) {
+                    reachable = true;
+                }
+                nearest = Math.min(nearest, d);
+            }
+            if (reachable && nearest > bestDist && !isLandmark(v, landmarks, count)) {
+                bestDist = nearest;
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Chiến lược "avoid": xây cây đường đi ngắn nhất từ root, gán cho mỗi đỉnh trọng số
+     * d(root, v) - cận dưới hiện tại, tính tổng theo cây con (bằng 0 nếu cây con đã chứa
+     * landmark), rồi đi từ root xuống theo con có tổng lớn nhất đến lá.
+     * @return Landmark mới, hoặc -1 nếu không tìm được đỉnh phù hợp.
+     */
+    private static int selectAvoid(GraphView graph, Criterion criterion, int root, int count, int[] landmarks,
+                                   double[][] from, double[][] to, double[] dist, int[] parent, int[] order) {
+        int n = dist.length;
+        int settled = fullSearch(graph, criterion, root, false, dist, parent, order);
+        double[] size = new double[n];
+        boolean[] hasLandmark = new boolean[n];
+        int[] bestChild = new int[n];
+        Arrays.fill(bestChild, -1);
+
+        for (int idx = 0; idx < settled; idx++) {
+            int v = order[idx];
+            double lowerBound = 0.0;
+            for (int i = 0; i < count; i++) {
+                lowerBound = Math.max(lowerBound, bound(from[i][v], from[i][root], to[i][v], to[i][root]));
+            }
+            size[v] = dist[v] - lowerBound;
+            hasLandmark[v] = isLandmark(v, landmarks, count);
+        }
+        // Duyệt ngược thứ tự tối ưu: con luôn được xử lý trước cha
+        for (int idx = settled - 1; idx > 0; idx--) {
+            int v = order[idx];
+            int p = parent[v];
+            if (hasLandmark[v]) {
+                size[v] = 0.0;
+                hasLandmark[p] = true;
+                continue;
+            }
+            size[p] += size[v];
+            if (size[v] > 0 && (bestChild[p] == -1 || size[v] > size[bestChild[p]])) {
+                bestChild[p] = v;
+            }
+        }
+
+        int current = root;
+        while (bestChild[current] != -1) {
+            current = bestChild[current];
+        }
+        return (current == root || isLandmark(current, landmarks, count)) ? -1 : current;
+    }
+
+    private static boolean isLandmark(int v, int[] landmarks, int count) {
+        for (int i = 0; i < count; i++) {
+            if (landmarks[i] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dijkstra đầy đủ từ source (xuôi hoặc ngược), ghi khoảng cách, đỉnh cha và thứ tự tối ưu.
+     * @return Số đỉnh đã được tối ưu (độ dài hữu ích của order).
+     */
+    private static int fullSearch(GraphView graph, Criterion criterion, int source, boolean reverse,
+                                  double[] dist, int[] parent, int[] order) {
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        IndexedMinHeap heap = new IndexedMinHeap(dist.length);
+        dist[source] = 0.0;
+        heap.insert(source, 0.0);
+        int settled = 0;
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            order[settled++] = u;
+            Iterable<Route> routes = reverse ? graph.getIncomingRoutes(u) : graph.getNeighbors(u);
+            for (Route route : routes) {
+                int v = route.destinationId;
+                double newDist = dist[u] + criterion.weightOf(route);
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    parent[v] = u;
+                    heap.insertOrDecrease(v, newDist);
+                }
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Cận dưới của d(v, t) từ một landmark: max(d(L,t) - d(L,v), d(v,L) - d(t,L)).
+     * Các số hạng chứa vô cực (không tới được) bị bỏ qua.
+     */
+    private static double bound(double fromT, double fromV, double toT, double toV) {
+        double result = 0.0;
+        if (fromT < Double.POSITIVE_INFINITY && fromV < Double.POSITIVE_INFINITY) {
+            result = Math.max(result, fromT - fromV);
+        }
+        if (toV < Double.POSITIVE_INFINITY && toT < Double.POSITIVE_INFINITY) {
+            result = Math.max(result, toV - toT);
+        }
+        return result;
+    }
+
+    /**
+     * Cận dưới của d(vertexId, targetId). Đỉnh được thêm sau khi xây dựng chỉ mục (đồ thị đã mở rộng
+     * vượt getMaxVertices() lúc đó) không có trong bảng; với chúng trả về 0, vẫn là cận dưới hợp lệ
+     * (A* khi đó duyệt như Dijkstra quanh các đỉnh này).
+     */
+    @Override
+    public double estimate(int vertexId, int targetId) {
+        if (vertexId < 0 || vertexId >= maxVertices || targetId < 0 || targetId >= maxVertices) {
+            return 0.0;
+        }
+        int k = landmarks.length;
+        int v = vertexId * k;
+        int t = targetId * k;
+        double result = 0.0;
+        if (compact) {
+            for (int i = 0; i < k; i++) {
+                double fromT = fromLandmarkCompact[t + i];
+                double fromV = fromLandmarkCompact[v + i];
+                double toT = toLandmarkCompact[t + i];
+                double toV = toLandmarkCompact[v + i];
+                // Trừ sai số làm tròn của float để cận vẫn không vượt giá trị thật
+                double b = bound(fromT, fromV, toT, toV)
+                        - FLOAT_SLACK * (Math.abs(fromT) + Math.abs(fromV) + Math.abs(toT) + Math.abs(toV));
+                result = Math.max(result, b);
+            }
+        } else {
+            for (int i = 0; i < k; i++) {
+                result = Math.max(result, bound(fromLandmark[t + i], fromLandmark[v + i],
+                        toLandmark[t + i], toLandmark[v + i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lấy tiêu chí mà chỉ mục được xây dựng cho (chỉ dùng A* với cùng tiêu chí).
+     * @return Tiêu chí.
+     */
+    public Criterion getCriterion() {
+        return criterion;
+    }
+
+    /**
+     * Lấy danh sách ID các landmark đã chọn.
+     * @return Bản sao mảng ID landmark.
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Số byte mà các bảng khoảng cách chiếm (không tính phần đầu đối tượng).
+     * @return Dung lượng bộ nhớ ước tính.
+     */
+    public long getMemoryBytes() {
+        return estimateMemoryBytes(maxVertices, landmarks.length, compact);
+    }
+
+    /**
+     * Ước tính bộ nhớ cần cho bảng landmark trước khi xây dựng.
+     * @param numVertices Số đỉnh tối đa.
+     * @param numLandmarks Số landmark.
+     * @param compact true nếu lưu dạng float[].
+     * @return Số byte của hai bảng xuôi và ngược.
+     */
+    public static long estimateMemoryBytes(int numVertices, int numLandmarks, boolean compact) {
+        long bytesPerEntry = compact ? Float.BYTES : Double.BYTES;
+        return 2L * numVertices * numLandmarks * bytesPerEntry + (long) numLandmarks * Integer.BYTES;
+    }
+}
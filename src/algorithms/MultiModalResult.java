@@ -0,0 +1,46 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.Location;
+import graph.TransportMode;
+
+/**
+ * Kết quả của tìm kiếm đa phương tiện: ngoài đường đi còn có phương tiện dùng cho từng chặng.
+ * legModes.get(i) là phương tiện đi từ path.get(i) đến path.get(i + 1).
+ */
+public class MultiModalResult extends DijkstraResult {
+    public final CustomLinkedList<TransportMode> legModes; // Phương tiện của từng chặng
+    public final int numTransfers;                         // Số lần đổi phương tiện
+
+    /**
+     * Constructor cho trường hợp tìm thấy đường đi.
+     * @param path Danh sách địa điểm.
+     * @param legModes Phương tiện của từng chặng (ít hơn path một phần tử), bị khóa chỉ đọc như path.
+     * @param totalValue Tổng giá trị, đã bao gồm phí đổi phương tiện.
+     */
+    public MultiModalResult(CustomLinkedList<Location> path, CustomLinkedList<TransportMode> legModes,
+                            double totalValue) {
+        super(path, totalValue);
+        legModes.makeReadOnly();
+        this.legModes = legModes;
+        int transfers = 0;
+        TransportMode previous = null;
+        for (TransportMode mode : legModes) {
+            if (previous != null && previous != mode) {
+                transfers++;
+            }
+            previous = mode;
+        }
+        this.numTransfers = transfers;
+    }
+
+    /**
+     * Constructor cho trường hợp không tìm thấy đường đi.
+     */
+    public MultiModalResult() {
+        super();
+        this.legModes = new CustomLinkedList<>();
+        this.legModes.makeReadOnly();
+        this.numTransfers = 0;
+    }
+}
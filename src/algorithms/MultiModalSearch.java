@@ -0,0 +1,143 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.IndexedMinHeap;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Location;
+import graph.Route;
+import graph.TransportMode;
+
+/**
+ * Tìm đường đi đa phương tiện (ví dụ: tàu hỏa đến Đà Nẵng rồi ô tô đến Huế)
+ * trên một đồ thị duy nhất có cạnh gắn bitmask phương tiện.
+ * Trạng thái tìm kiếm là cặp (đỉnh, phương tiện đang dùng), mã hóa thành
+ * vertexId * MODE_COUNT + mode.ordinal(). Đi tiếp bằng phương tiện khác với phương tiện
+ * vừa dùng phải cộng thêm phí đổi phương tiện (transfer penalty), tính theo cùng
+ * đơn vị với tiêu chí. Với phí bằng 0, kết quả trùng với Dijkstra có bộ lọc phương tiện.
+ */
+public class MultiModalSearch {
+
+    private static final TransportMode[] MODES = TransportMode.values();
+    private static final int MODE_COUNT = MODES.length;
+
+    /**
+     * Tìm đường đi đa phương tiện, sử dụng SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param transferPenalty Phí mỗi lần đổi phương tiện (không âm, cùng đơn vị với tiêu chí).
+     * @return MultiModalResult chứa đường đi, phương tiện từng chặng và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static MultiModalResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                                    int modeMask, double transferPenalty) {
+        return findShortestPath(graph, startId, endId, criterion, modeMask, transferPenalty,
+                SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đi đa phương tiện, dùng lại trạng thái trong context.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param transferPenalty Phí mỗi lần đổi phương tiện (không âm, cùng đơn vị với tiêu chí).
+     * @param context Trạng thái tìm kiếm dùng lại (kích thước theo số trạng thái).
+     * @return MultiModalResult chứa đường đi, phương tiện từng chặng và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     * @throws IllegalArgumentException nếu phí đổi phương tiện âm hoặc không hữu hạn.
+     */
+    public static MultiModalResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                                    int modeMask, double transferPenalty, SearchContext context) {
+        if (!(transferPenalty >= 0.0) || Double.isInfinite(transferPenalty)) {
+            throw new IllegalArgumentException("Transfer penalty must be finite and non-negative.");
+        }
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new MultiModalResult();
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new MultiModalResult();
+        }
+        if (startId == endId) {
+            CustomLinkedList<Location> path = new CustomLinkedList<>();
+            path.add(graph.getLocationById(startId));
+            return new MultiModalResult(path, new CustomLinkedList<>(), 0.0);
+        }
+
+        int numStates = graph.getMaxVertices() * MODE_COUNT;
+        context.reset(numStates);
+        IndexedMinHeap pq = context.getHeap();
+        // Xuất phát miễn phí với mọi phương tiện được phép
+        for (int m = 0; m < MODE_COUNT; m++) {
+            if (MODES[m].isIn(modeMask)) {
+                int state = startId * MODE_COUNT + m;
+                context.setDistance(state, 0.0, -1);
+                pq.insert(state, 0.0);
+            }
+        }
+
+        int targetState = -1;
+        while (!pq.isEmpty()) {
+            int state = pq.extractMin();
+            context.markSettled(state);
+            int u = state / MODE_COUNT;
+            int currentMode = state % MODE_COUNT;
+            if (u == endId) {
+                targetState = state; // Trạng thái đích đầu tiên được lấy ra là tối ưu
+                break;
+            }
+
+            double distU = context.getDistance(state);
+            for (Route route : graph.getNeighbors(u)) {
+                int allowed = route.modes & modeMask;
+                if (allowed == 0) {
+                    continue;
+                }
+                double weight = criterion.weightOf(route);
+                int base = route.destinationId * MODE_COUNT;
+                // Mỗi phương tiện được phép trên cạnh dẫn tới một trạng thái riêng
+                while (allowed != 0) {
+                    int m = Integer.numberOfTrailingZeros(allowed);
+                    allowed &= allowed - 1;
+                    int next = base + m;
+                    if (context.isSettled(next)) {
+                        continue;
+                    }
+                    double newDist = (m == currentMode) ? distU + weight : distU + weight + transferPenalty;
+                    if (newDist < context.getDistance(next)) {
+                        context.setDistance(next, newDist, state);
+                        pq.insertOrDecrease(next, newDist);
+                    }
+                }
+            }
+        }
+
+        if (targetState == -1) {
+            return new MultiModalResult(); // Không tìm thấy đường đi
+        }
+
+        // Truy vết ngược qua các trạng thái, mỗi bước là một chặng
+        CustomLinkedList<Location> path = new CustomLinkedList<>();
+        CustomLinkedList<TransportMode> legModes = new CustomLinkedList<>();
+        int current = targetState;
+        while (current != -1) {
+            int previous = context.getPreviousVertex(current);
+            path.addFirst(graph.getLocationById(current / MODE_COUNT));
+            if (previous != -1) {
+                legModes.addFirst(MODES[current % MODE_COUNT]);
+            }
+            if (path.size() > numStates) {
+                System.err.println("Error: Cycle detected while tracing path.");
+                return new MultiModalResult();
+            }
+            current = previous;
+        }
+        return new MultiModalResult(path, legModes, context.getDistance(targetState));
+    }
+}
@@ -0,0 +1,38 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.Location;
+
+/**
+ * Một tuyến đường trên mặt Pareto: đường đi cùng tổng khoảng cách, thời gian và chi phí.
+ * Bất biến (đường đi bị khóa chỉ đọc).
+ */
+public final class ParetoRoute {
+    public final CustomLinkedList<Location> path;
+    public final double distance;
+    public final double time;
+    public final double cost;
+
+    ParetoRoute(CustomLinkedList<Location> path, double distance, double time, double cost) {
+        path.makeReadOnly();
+        this.path = path;
+        this.distance = distance;
+        this.time = time;
+        this.cost = cost;
+    }
+
+    /**
+     * Kiểm tra tuyến đường này có trội hơn (không tệ hơn ở mọi tiêu chí và tốt hơn ở ít nhất một) tuyến khác.
+     * @param other Tuyến đường khác.
+     * @return true nếu trội hơn.
+     */
+    public boolean dominates(ParetoRoute other) {
+        return distance <= other.distance && time <= other.time && cost <= other.cost
+                && (distance < other.distance || time < other.time || cost < other.cost);
+    }
+
+    @Override
+    public String toString() {
+        return "ParetoRoute(Dist:" + distance + ", Time:" + time + ", Cost:" + cost + ", Stops:" + path.size() + ")";
+    }
+}
@@ -0,0 +1,157 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.DoubleIntHeap;
+import graph.GraphView;
+import graph.Route;
+import graph.TransportMode;
+
+/**
+ * Tìm kiếm đa tiêu chí (label-setting, kiểu Martins) trả về mặt Pareto của các tuyến đường
+ * không bị trội theo (khoảng cách, thời gian, chi phí) chỉ trong một lần tìm kiếm.
+ * Mỗi đỉnh giữ một túi nhãn không trội lẫn nhau; nhãn được lấy ra theo tổng ba tiêu chí
+ * tăng dần, nên một nhãn đã lấy ra không bao giờ bị nhãn sau trội hơn (trọng số không âm).
+ * Với epsilon > 0, nhãn mới bị bỏ nếu có nhãn cũ tốt hơn nó không quá (1 + epsilon) lần ở
+ * mọi tiêu chí: mặt Pareto trả về là xấp xỉ nhưng số nhãn giảm mạnh trên đồ thị lớn.
+ * Nhãn được lưu trong {@link LabelPool} (mảng nguyên thủy, dùng lại giữa các truy vấn).
+ */
+public class ParetoSearch {
+
+    /**
+     * Tìm mặt Pareto chính xác dùng mọi phương tiện.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @return Danh sách (chỉ đọc) các tuyến đường không bị trội, sắp theo khoảng cách tăng dần;
+     *         rỗng nếu không tìm thấy đường đi.
+     */
+    public static CustomLinkedList<ParetoRoute> findParetoRoutes(GraphView graph, int startId, int endId) {
+        return findParetoRoutes(graph, startId, endId, TransportMode.ALL_MODES, 0.0);
+    }
+
+    /**
+     * Tìm mặt Pareto (xấp xỉ theo epsilon) chỉ dùng các phương tiện trong bộ lọc.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param epsilon Hệ số trội epsilon (0 = mặt Pareto chính xác).
+     * @return Danh sách (chỉ đọc) các tuyến đường không bị trội, sắp theo khoảng cách tăng dần;
+     *         rỗng nếu không tìm thấy đường đi.
+     * @throws IllegalArgumentException nếu epsilon âm hoặc không hữu hạn.
+     */
+    public static CustomLinkedList<ParetoRoute> findParetoRoutes(GraphView graph, int startId, int endId,
+                                                                 int modeMask, double epsilon) {
+        if (!(epsilon >= 0.0) || Double.isInfinite(epsilon)) {
+            throw new IllegalArgumentException("Epsilon must be finite and non-negative.");
+        }
+        CustomLinkedList<ParetoRoute> routes = new CustomLinkedList<>();
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            routes.makeReadOnly();
+            return routes;
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            routes.makeReadOnly();
+            return routes;
+        }
+
+        double slack = 1.0 + epsilon;
+        LabelPool pool = LabelPool.forCurrentThread();
+        pool.reset(graph.getMaxVertices());
+        DoubleIntHeap pq = pool.getHeap();
+        pq.insert(0.0, pool.add(startId, 0.0, 0.0, 0.0, -1));
+
+        while (!pq.isEmpty()) {
+            int label = pq.extractMin();
+            if (pool.dead[label]) {
+                continue; // Đã bị nhãn khác trội hơn sau khi vào heap
+            }
+            int u = pool.vertex[label];
+            if (u == endId) {
+                continue; // Nhãn tại đích là kết quả, không mở rộng tiếp
+            }
+            double d = pool.distance[label];
+            double t = pool.time[label];
+            double c = pool.cost[label];
+            for (Route route : graph.getNeighbors(u)) {
+                if (!route.allows(modeMask)) {
+                    continue;
+                }
+                int v = route.destinationId;
+                double nd = d + route.distance;
+                double nt = t + route.time;
+                double nc = c + route.cost;
+                // Trọng số không âm: nhãn bị một nhãn ở đích trội thì mọi phần mở rộng của nó cũng vậy
+                if (isDominated(pool, endId, nd, nt, nc, slack) || isDominated(pool, v, nd, nt, nc, slack)) {
+                    continue;
+                }
+                removeDominated(pool, v, nd, nt, nc);
+                int newLabel = pool.add(v, nd, nt, nc, label);
+                pq.insert(nd + nt + nc, newLabel);
+            }
+        }
+
+        // Thu các nhãn còn sống ở đích, sắp theo khoảng cách rồi thời gian
+        int count = 0;
+        for (int l = pool.firstInBag(endId); l != -1; l = pool.nextInBag[l]) {
+            count++;
+        }
+        int[] targets = new int[count];
+        int filled = 0;
+        for (int l = pool.firstInBag(endId); l != -1; l = pool.nextInBag[l]) {
+            int i = filled++;
+            while (i > 0 && compare(pool, l, targets[i - 1]) < 0) {
+                targets[i] = targets[i - 1];
+                i--;
+            }
+            targets[i] = l;
+        }
+        for (int l : targets) {
+            routes.add(new ParetoRoute(pool.tracePath(graph, l), pool.distance[l], pool.time[l], pool.cost[l]));
+        }
+        routes.makeReadOnly();
+        return routes;
+    }
+
+    /**
+     * Kiểm tra có nhãn nào trong túi của đỉnh trội (theo epsilon) vector (d, t, c) không.
+     */
+    private static boolean isDominated(LabelPool pool, int vertexId, double d, double t, double c, double slack) {
+        for (int l = pool.firstInBag(vertexId); l != -1; l = pool.nextInBag[l]) {
+            if (pool.distance[l] <= d * slack && pool.time[l] <= t * slack && pool.cost[l] <= c * slack) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gỡ khỏi túi của đỉnh các nhãn bị vector (d, t, c) trội; nhãn bị gỡ được đánh dấu dead
+     * để bỏ qua khi lấy ra khỏi heap.
+     */
+    private static void removeDominated(LabelPool pool, int vertexId, double d, double t, double c) {
+        int previous = -1;
+        int l = pool.firstInBag(vertexId);
+        while (l != -1) {
+            int next = pool.nextInBag[l];
+            if (d <= pool.distance[l] && t <= pool.time[l] && c <= pool.cost[l]) {
+                pool.dead[l] = true;
+                pool.unlink(vertexId, previous, l);
+            } else {
+                previous = l;
+            }
+            l = next;
+        }
+    }
+
+    private static int compare(LabelPool pool, int a, int b) {
+        int result = Double.compare(pool.distance[a], pool.distance[b]);
+        if (result != 0) {
+            return result;
+        }
+        result = Double.compare(pool.time[a], pool.time[b]);
+        return result != 0 ? result : Double.compare(pool.cost[a], pool.cost[b]);
+    }
+}
@@ -0,0 +1,368 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.Criterion;
+import graph.GraphView;
+
+/**
+ * Cache kết quả tìm đường đặt trước bộ giải, khóa theo (start, end, tiêu chí, phương tiện).
+ * Lưu được cả đường đơn lẫn danh sách k đường ngắn nhất.
+ * Dung lượng có giới hạn, loại bỏ mục ít được dùng gần đây nhất (LRU); mỗi mục có thể
+ * hết hạn sau một khoảng thời gian sống (TTL).
+ * Cache gắn với một đồ thị nguồn tại một epoch ({@link GraphView#getEpoch()}): khi truy vấn đến
+ * trên đồ thị khác hoặc epoch mới hơn (đồ thị đã bị sửa, hoặc ảnh chụp mới của ConcurrentGraph),
+ * toàn bộ cache bị xóa trước khi tra cứu, nên không bao giờ trả về kết quả cũ. Truy vấn trên ảnh chụp
+ * cũ hơn của cùng ConcurrentGraph được tính trực tiếp, không lưu và không xóa cache.
+ * An toàn luồng: tra cứu/ghi được đồng bộ hóa, còn việc tìm đường khi trượt cache chạy ngoài khóa.
+ * Kết quả trả về (DijkstraResult bất biến) được dùng chung giữa các lần gọi.
+ */
+public class RouteCache {
+
+    // Giá trị phí đổi phương tiện trong khóa của truy vấn một phương tiện (ShortestPathAlgorithm)
+    private static final double SINGLE_MODE = -1.0;
+
+    /**
+     * Một mục cache: vừa là nút trong bảng băm (chuỗi nextInBucket),
+     * vừa là nút trong danh sách LRU hai chiều (previous/next).
+     * Khóa gồm k (0 cho truy vấn một đường) và một tham số: phí đổi phương tiện (MultiModalSearch),
+     * SINGLE_MODE (ShortestPathAlgorithm) hoặc maxStretch (KShortestPaths).
+     */
+    private static final class Entry {
+        final int startId;
+        final int endId;
+        final Criterion criterion;
+        final int modeMask;
+        final int k;
+        final double parameter;
+        final int hash;
+        final Object result; // DijkstraResult, hoặc danh sách chỉ đọc DijkstraResult khi k > 0
+        final long expiresAtNanos;
+
+        Entry nextInBucket;
+        Entry previous;
+        Entry next;
+
+        Entry(int startId, int endId, Criterion criterion, int modeMask, int k, double parameter, int hash,
+              Object result, long expiresAtNanos) {
+            this.startId = startId;
+            this.endId = endId;
+            this.criterion = criterion;
+            this.modeMask = modeMask;
+            this.k = k;
+            this.parameter = parameter;
+            this.hash = hash;
+            this.result = result;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean matches(int startId, int endId, Criterion criterion, int modeMask, int k, double parameter, int hash) {
+            return this.hash == hash && this.startId == startId && this.endId == endId
+                    && this.modeMask == modeMask && this.k == k
+                    && Double.compare(this.parameter, parameter) == 0
+                    && this.criterion.equals(criterion);
+        }
+    }
+
+    private final int capacity;
+    private final long ttlNanos; // 0 = không hết hạn
+    private final Entry[] buckets; // Không cần mở rộng vì số mục không vượt quá capacity
+    private final Entry head = new Entry(0, 0, null, 0, 0, 0.0, 0, null, 0L); // Lính canh LRU: head.next là mục mới nhất
+    private int size;
+
+    private final EpochBinding binding = new EpochBinding(); // Đồ thị và epoch của các mục hiện tại
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * Constructor cho cache không có TTL (mục chỉ bị loại bởi LRU hoặc khi đồ thị thay đổi).
+     * @param capacity Số mục tối đa.
+     * @throws IllegalArgumentException nếu capacity không dương.
+     */
+    public RouteCache(int capacity) {
+        this(capacity, 0L);
+    }
+
+    /**
+     * Constructor.
+     * @param capacity Số mục tối đa.
+     * @param ttlMillis Thời gian sống của mỗi mục (mili giây), 0 nếu không hết hạn.
+     * @throws IllegalArgumentException nếu capacity không dương hoặc ttlMillis âm.
+     */
+    public RouteCache(int capacity, long ttlMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("TTL must not be negative.");
+        }
+        this.capacity = capacity;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        int bucketCount = 1;
+        while (bucketCount < capacity + capacity / 3) {
+            bucketCount <<= 1;
+        }
+        this.buckets = new Entry[bucketCount];
+        head.previous = head;
+        head.next = head;
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất (xem {@link ShortestPathAlgorithm}), dùng kết quả trong cache nếu có.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @return Kết quả tìm đường (bất biến, có thể dùng chung).
+     */
+    public DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                           int modeMask) {
+        long epoch = graph.getEpoch();
+        Object cached = lookup(graph, epoch, startId, endId, criterion, modeMask, 0, SINGLE_MODE);
+        if (cached != null) {
+            return (DijkstraResult) cached;
+        }
+        DijkstraResult result = ShortestPathAlgorithm.findShortestPath(graph, startId, endId, criterion, modeMask);
+        store(graph, epoch, startId, endId, criterion, modeMask, 0, SINGLE_MODE, result);
+        return result;
+    }
+
+    /**
+     * Tìm đường đi đa phương tiện (xem {@link MultiModalSearch}), dùng kết quả trong cache nếu có.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param transferPenalty Phí mỗi lần đổi phương tiện (không âm).
+     * @return Kết quả tìm đường (bất biến, có thể dùng chung).
+     * @throws IllegalArgumentException nếu phí đổi phương tiện âm hoặc không hữu hạn.
+     */
+    public MultiModalResult findMultiModalPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                               int modeMask, double transferPenalty) {
+        if (!(transferPenalty >= 0.0) || Double.isInfinite(transferPenalty)) {
+            throw new IllegalArgumentException("Transfer penalty must be finite and non-negative.");
+        }
+        long epoch = graph.getEpoch();
+        Object cached = lookup(graph, epoch, startId, endId, criterion, modeMask, 0, transferPenalty);
+        if (cached != null) {
+            return (MultiModalResult) cached;
+        }
+        MultiModalResult result = MultiModalSearch.findShortestPath(graph, startId, endId, criterion,
+                modeMask, transferPenalty);
+        store(graph, epoch, startId, endId, criterion, modeMask, 0, transferPenalty, result);
+        return result;
+    }
+
+    /**
+     * Tìm tối đa k đường đi ngắn nhất (xem {@link KShortestPaths}), dùng kết quả trong cache nếu có.
+     * Danh sách được lưu trong cùng cache với các đường đơn (chung dung lượng, LRU, TTL và epoch).
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param k Số đường đi tối đa.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param maxStretch Tỉ lệ tối đa so với đường ngắn nhất (Double.POSITIVE_INFINITY nếu không giới hạn).
+     * @return Danh sách chỉ đọc DijkstraResult theo tổng trọng số tăng dần (có thể dùng chung).
+     * @throws IllegalArgumentException nếu k không dương hoặc maxStretch nhỏ hơn 1.
+     */
+    @SuppressWarnings("unchecked")
+    public CustomLinkedList<DijkstraResult> findKShortestPaths(GraphView graph, int startId, int endId, int k,
+                                                               Criterion criterion, int modeMask,
+                                                               double maxStretch) {
+        long epoch = graph.getEpoch();
+        Object cached = lookup(graph, epoch, startId, endId, criterion, modeMask, k, maxStretch);
+        if (cached != null) {
+            return (CustomLinkedList<DijkstraResult>) cached;
+        }
+        CustomLinkedList<DijkstraResult> result = KShortestPaths.findKShortestPaths(graph, startId, endId, k,
+                criterion, modeMask, maxStretch);
+        store(graph, epoch, startId, endId, criterion, modeMask, k, maxStretch, result);
+        return result;
+    }
+
+    private synchronized Object lookup(GraphView graph, long epoch, int startId, int endId, Criterion criterion,
+                                       int modeMask, int k, double parameter) {
+        int state = binding.bind(graph, epoch);
+        if (state == EpochBinding.STALE) {
+            misses++; // Ảnh chụp cũ: tính lại, không dùng các mục của epoch mới hơn
+            return null;
+        }
+        if (state == EpochBinding.ADVANCED) {
+            // Đồ thị đã thay đổi: mọi mục hiện có đều có thể sai
+            if (size > 0) {
+                invalidations++;
+            }
+            clear();
+        }
+        int hash = hash(startId, endId, criterion, modeMask, k, parameter);
+        int bucket = hash & (buckets.length - 1);
+        for (Entry entry = buckets[bucket]; entry != null; entry = entry.nextInBucket) {
+            if (entry.matches(startId, endId, criterion, modeMask, k, parameter, hash)) {
+                if (ttlNanos > 0 && System.nanoTime() - entry.expiresAtNanos >= 0) {
+                    remove(entry);
+                    expirations++;
+                    break;
+                }
+                // Đưa lên đầu danh sách LRU
+                unlink(entry);
+                linkFirst(entry);
+                hits++;
+                return entry.result;
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    private synchronized void store(GraphView graph, long epoch, int startId, int endId, Criterion criterion,
+                                    int modeMask, int k, double parameter, Object result) {
+        if (!binding.isCurrent(graph, epoch)) {
+            return; // Ảnh chụp cũ, hoặc đồ thị đã đổi trong lúc tìm đường: kết quả không thuộc epoch hiện tại
+        }
+        int hash = hash(startId, endId, criterion, modeMask, k, parameter);
+        int bucket = hash & (buckets.length - 1);
+        for (Entry entry = buckets[bucket]; entry != null; entry = entry.nextInBucket) {
+            if (entry.matches(startId, endId, criterion, modeMask, k, parameter, hash)) {
+                remove(entry); // Luồng khác đã ghi cùng khóa: thay bằng kết quả mới hơn
+                break;
+            }
+        }
+        if (size >= capacity) {
+            remove(head.previous); // Mục ít được dùng gần đây nhất
+            evictions++;
+        }
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0L;
+        Entry entry = new Entry(startId, endId, criterion, modeMask, k, parameter, hash, result, expiresAt);
+        entry.nextInBucket = buckets[bucket];
+        buckets[bucket] = entry;
+        linkFirst(entry);
+        size++;
+    }
+
+    private void remove(Entry entry) {
+        int bucket = entry.hash & (buckets.length - 1);
+        if (buckets[bucket] == entry) {
+            buckets[bucket] = entry.nextInBucket;
+        } else {
+            Entry current = buckets[bucket];
+            while (current.nextInBucket != entry) {
+                current = current.nextInBucket;
+            }
+            current.nextInBucket = entry.nextInBucket;
+        }
+        unlink(entry);
+        size--;
+    }
+
+    private void unlink(Entry entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+    }
+
+    private void linkFirst(Entry entry) {
+        entry.previous = head;
+        entry.next = head.next;
+        head.next.previous = entry;
+        head.next = entry;
+    }
+
+    private void clear() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = null;
+        }
+        head.previous = head;
+        head.next = head;
+        size = 0;
+    }
+
+    private static int hash(int startId, int endId, Criterion criterion, int modeMask, int k, double parameter) {
+        int result = startId;
+        result = 31 * result + endId;
+        result = 31 * result + criterion.hashCode();
+        result = 31 * result + modeMask;
+        result = 31 * result + k;
+        result = 31 * result + Double.hashCode(parameter);
+        return result ^ (result >>> 16);
+    }
+
+    /**
+     * Xóa toàn bộ cache (ví dụ khi dữ liệu nguồn thay đổi mà epoch không phản ánh được).
+     */
+    public synchronized void invalidateAll() {
+        if (size > 0) {
+            invalidations++;
+        }
+        clear();
+        binding.reset();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Lấy số mục đang có trong cache (kể cả mục đã hết hạn nhưng chưa bị tra tới).
+     * @return Số mục.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Lấy số mục bị loại do cache đầy (LRU).
+     * @return Số lần loại bỏ.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Lấy số mục bị loại do hết hạn TTL.
+     * @return Số mục hết hạn.
+     */
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * Lấy số lần toàn bộ cache bị xóa do đồ thị thay đổi hoặc do invalidateAll().
+     * @return Số lần vô hiệu hóa.
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Tỉ lệ trúng cache.
+     * @return hits / (hits + misses), 0 nếu chưa có truy vấn nào.
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Đặt lại các bộ đếm thống kê (không xóa dữ liệu trong cache).
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        expirations = 0;
+        invalidations = 0;
+    }
+}
@@ -0,0 +1,33 @@
+package algorithms;
+
+import graph.Criterion;
+
+/**
+ * Một truy vấn tìm đường (startId, endId, tiêu chí), dùng cho xử lý theo lô.
+ */
+public final class RouteQuery {
+    public final int startId;
+    public final int endId;
+    public final Criterion criterion;
+
+    /**
+     * Constructor.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @throws IllegalArgumentException nếu tiêu chí là null.
+     */
+    public RouteQuery(int startId, int endId, Criterion criterion) {
+        if (criterion == null) {
+            throw new IllegalArgumentException("Criterion must not be null.");
+        }
+        this.startId = startId;
+        this.endId = endId;
+        this.criterion = criterion;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteQuery(" + startId + " -> " + endId + ", " + criterion + ")";
+    }
+}
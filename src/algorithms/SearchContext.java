@@ -0,0 +1,137 @@
+package algorithms;
+
+import datastructure.IndexedMinHeap;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf/fill để thay đổi kích thước mảng
+
+/**
+ * Trạng thái tìm kiếm dùng lại được giữa các truy vấn Dijkstra.
+ * Các mảng distance, previousVertex và cờ đã tối ưu được giữ lại giữa các lần gọi.
+ * Thay vì khởi tạo lại toàn bộ mảng (O(V)) mỗi truy vấn, mỗi phần tử mang một
+ * "tem thế hệ" (generation stamp): giá trị chỉ hợp lệ nếu tem trùng với thế hệ
+ * hiện tại, nên reset() chỉ cần tăng thế hệ và chi phí mỗi truy vấn chỉ còn
+ * tỉ lệ với số đỉnh thực sự được chạm tới.
+ * Một SearchContext không an toàn luồng; mỗi luồng dùng một đối tượng riêng
+ * (xem {@link #forCurrentThread()}).
+ */
+public class SearchContext {
+
+    private static final ThreadLocal<SearchContext> PER_THREAD =
+            ThreadLocal.withInitial(() -> new SearchContext(16));
+
+    private double[] distance;     // Khoảng cách tốt nhất đã biết
+    private int[] previousVertex;  // Đỉnh trước đó trên đường đi
+    private int[] reachedStamp;    // Thế hệ mà distance/previousVertex được ghi
+    private int[] settledStamp;    // Thế hệ mà đỉnh được lấy ra khỏi heap (đã tối ưu)
+    private int generation;        // Thế hệ hiện tại
+    private final IndexedMinHeap heap;
+
+    /**
+     * Constructor.
+     * @param capacity Số lượng đỉnh ban đầu (sẽ tự mở rộng khi cần).
+     */
+    public SearchContext(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.distance = new double[capacity];
+        this.previousVertex = new int[capacity];
+        this.reachedStamp = new int[capacity];
+        this.settledStamp = new int[capacity];
+        this.generation = 0;
+        this.heap = new IndexedMinHeap(capacity);
+    }
+
+    /**
+     * Lấy SearchContext riêng của luồng hiện tại.
+     * @return Đối tượng SearchContext gắn với luồng đang chạy.
+     */
+    public static SearchContext forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Chuẩn bị cho một truy vấn mới trên đồ thị có numVertices đỉnh.
+     * Chi phí O(1) (trừ khi cần mở rộng mảng hoặc bộ đếm thế hệ bị tràn).
+     * @param numVertices Số lượng ID đỉnh tối đa của đồ thị.
+     */
+    public void reset(int numVertices) {
+        ensureCapacity(numVertices);
+        heap.clear();
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Tràn bộ đếm (rất hiếm): xóa tem một lần rồi bắt đầu lại
+            Arrays.fill(reachedStamp, 0);
+            Arrays.fill(settledStamp, 0);
+            generation = 1;
+        }
+    }
+
+    private void ensureCapacity(int numVertices) {
+        int oldCapacity = distance.length;
+        if (numVertices <= oldCapacity) {
+            return;
+        }
+        int newCapacity = Math.max(numVertices, oldCapacity * 2);
+        distance = Arrays.copyOf(distance, newCapacity);
+        previousVertex = Arrays.copyOf(previousVertex, newCapacity);
+        reachedStamp = Arrays.copyOf(reachedStamp, newCapacity);
+        settledStamp = Arrays.copyOf(settledStamp, newCapacity);
+        heap.ensureCapacity(newCapacity);
+    }
+
+    /**
+     * Lấy khoảng cách tốt nhất đã biết đến đỉnh trong truy vấn hiện tại.
+     * @param vertexId ID của đỉnh.
+     * @return Khoảng cách, hoặc Double.POSITIVE_INFINITY nếu chưa được chạm tới.
+     */
+    public double getDistance(int vertexId) {
+        return reachedStamp[vertexId] == generation ? distance[vertexId] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Lấy đỉnh trước đó trên đường đi tốt nhất đã biết.
+     * @param vertexId ID của đỉnh.
+     * @return ID đỉnh trước đó, hoặc -1 nếu không có.
+     */
+    public int getPreviousVertex(int vertexId) {
+        return reachedStamp[vertexId] == generation ? previousVertex[vertexId] : -1;
+    }
+
+    /**
+     * Ghi nhận khoảng cách và đỉnh trước đó mới cho một đỉnh.
+     * @param vertexId ID của đỉnh.
+     * @param dist Khoảng cách mới.
+     * @param previous ID đỉnh trước đó (-1 nếu là đỉnh nguồn).
+     */
+    public void setDistance(int vertexId, double dist, int previous) {
+        distance[vertexId] = dist;
+        previousVertex[vertexId] = previous;
+        reachedStamp[vertexId] = generation;
+    }
+
+    /**
+     * Kiểm tra đỉnh đã được tối ưu (lấy ra khỏi heap) trong truy vấn hiện tại chưa.
+     * @param vertexId ID của đỉnh.
+     * @return true nếu đã tối ưu.
+     */
+    public boolean isSettled(int vertexId) {
+        return settledStamp[vertexId] == generation;
+    }
+
+    /**
+     * Đánh dấu đỉnh đã được tối ưu.
+     * @param vertexId ID của đỉnh.
+     */
+    public void markSettled(int vertexId) {
+        settledStamp[vertexId] = generation;
+    }
+
+    /**
+     * Lấy heap có chỉ mục dùng cho truy vấn hiện tại (đã được làm rỗng bởi reset()).
+     * @return IndexedMinHeap của context.
+     */
+    public IndexedMinHeap getHeap() {
+        return heap;
+    }
+}
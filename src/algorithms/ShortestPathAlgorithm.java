@@ -1,11 +1,17 @@
 package algorithms;
 
 import datastructure.CustomLinkedList;
-import datastructure.CustomPriorityQueue;
-import datastructure.HeapNode;
-import graph.Graph;
+import datastructure.IndexedMinHeap;
+import graph.Criterion;
+import graph.CsrGraph;
+import graph.EdgeWeights;
+import graph.GraphView;
 import graph.Location;
 import graph.Route;
+import graph.TransportMode;
+
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Chứa thuật toán tìm đường đi ngắn nhất (Dijkstra).
@@ -14,6 +20,7 @@ public class ShortestPathAlgorithm {
 
     /**
      * Tìm đường đi ngắn nhất từ startId đến endId trong đồ thị theo tiêu chí.
+     * Sử dụng SearchContext riêng của luồng hiện tại.
      * @param graph Đồ thị.
      * @param startId ID đỉnh bắt đầu.
      * @param endId ID đỉnh kết thúc.
@@ -21,19 +28,88 @@ public class ShortestPathAlgorithm {
      * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
      *         hoặc kết quả báo không tìm thấy đường đi.
      */
-    public static DijkstraResult findShortestPath(Graph graph, int startId, int endId, String criteria) {
-        int n = graph.getMaxVertices();
-        double[] distance = new double[n]; // Khoảng cách ngắn nhất từ startId
-        int[] previousVertex = new int[n]; // Đỉnh trước đó trên đường đi ngắn nhất
-        boolean[] visited = new boolean[n]; // Đánh dấu đỉnh đã được tối ưu (lấy ra khỏi PQ)
-
-        // Khởi tạo
-        for (int i = 0; i < n; i++) {
-            distance[i] = Double.POSITIVE_INFINITY;
-            previousVertex[i] = -1; // -1 nghĩa là chưa có đỉnh trước đó
-            visited[i] = false;
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, String criteria) {
+        return findShortestPath(graph, startId, endId, criteria, SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất từ startId đến endId, dùng lại trạng thái trong context.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criteria Tiêu chí ("distance", "time", "cost").
+     * @param context Trạng thái tìm kiếm dùng lại (không được dùng đồng thời bởi nhiều luồng).
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, String criteria,
+                                                  SearchContext context) {
+        Criterion criterion = parseCriteria(criteria);
+        if (criterion == null) {
+            return new DijkstraResult(); // Lỗi tiêu chí, không tìm thấy đường
         }
+        return findShortestPath(graph, startId, endId, criterion, context);
+    }
 
+    /**
+     * Tìm đường đi ngắn nhất theo tiêu chí đã kiểm tra trước.
+     * Sử dụng SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion) {
+        return findShortestPath(graph, startId, endId, criterion, SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất từ startId đến endId, dùng lại trạng thái trong context.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí (đã được kiểm tra, không cần xử lý lỗi trong vòng lặp).
+     * @param context Trạng thái tìm kiếm dùng lại (không được dùng đồng thời bởi nhiều luồng).
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                                  SearchContext context) {
+        return findShortestPath(graph, startId, endId, criterion, TransportMode.ALL_MODES, context);
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất chỉ dùng các tuyến đường của những phương tiện trong bộ lọc.
+     * Sử dụng SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép (xem {@link TransportMode#maskOf}).
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                                  int modeMask) {
+        return findShortestPath(graph, startId, endId, criterion, modeMask, SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất chỉ dùng các tuyến đường của những phương tiện trong bộ lọc,
+     * dùng lại trạng thái trong context.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí (đã được kiểm tra, không cần xử lý lỗi trong vòng lặp).
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param context Trạng thái tìm kiếm dùng lại (không được dùng đồng thời bởi nhiều luồng).
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                                  int modeMask, SearchContext context) {
         // Kiểm tra sự tồn tại của đỉnh bắt đầu và kết thúc
         if (graph.getLocationById(startId) == null) {
             System.err.println("Error: Start location with ID " + startId + " does not exist.");
@@ -44,82 +120,257 @@ public class ShortestPathAlgorithm {
             return new DijkstraResult(); // Không tìm thấy đường đi
         }
 
+        search(graph, startId, endId, criterion, modeMask, context);
 
-        distance[startId] = 0.0;
-        CustomPriorityQueue pq = new CustomPriorityQueue(graph.getNumVertices()); // Ước lượng kích thước
-        pq.add(new HeapNode(0.0, startId));
+        // Kiểm tra xem có đến được đích không
+        double total = context.getDistance(endId);
+        if (total == Double.POSITIVE_INFINITY) {
+            return new DijkstraResult(); // Không tìm thấy đường đi
+        }
 
-        while (!pq.isEmpty()) {
-            HeapNode current = pq.poll();
-            int u = current.vertexId;
-            double currentDist = current.priority;
-
-            // Nếu đỉnh này đã được xử lý với khoảng cách tốt hơn, bỏ qua
-            // Hoặc nếu đỉnh đã được tối ưu (lấy ra khỏi PQ trước đó), bỏ qua
-            if (currentDist > distance[u] || visited[u]) {
-                continue;
-            }
+        // Truy vết đường đi
+        CustomLinkedList<Location> path = tracePath(graph::getLocationById, graph.getMaxVertices(),
+                context::getPreviousVertex, startId, endId);
+        return new DijkstraResult(path, total);
+    }
 
-            visited[u] = true; // Đánh dấu đỉnh này đã được tối ưu
+    /**
+     * Dijkstra từ startId trên đồ thị danh sách kề, kết quả nằm trong context.
+     * Dừng khi endId được tối ưu; với endId = -1 chạy đến khi heap rỗng (cây đường đi ngắn nhất đầy đủ).
+     */
+    static void search(GraphView graph, int startId, int endId, Criterion criterion, int modeMask,
+                       SearchContext context) {
+        search(graph, startId, endId, null, 0, criterion, modeMask, context);
+    }
+
+    /**
+     * Dijkstra từ startId trên đồ thị danh sách kề, dừng khi endId được tối ưu hoặc khi đã tối ưu
+     * đủ remainingTargets đỉnh được đánh dấu trong isTarget (các đỉnh phân biệt; isTarget có thể null).
+     * Dùng cho ma trận khoảng cách: một tìm kiếm cho mỗi nguồn, dừng khi mọi đích đã có kết quả.
+     */
+    static void search(GraphView graph, int startId, int endId, boolean[] isTarget, int remainingTargets,
+                       Criterion criterion, int modeMask, SearchContext context) {
+        // Khởi tạo: chỉ tăng thế hệ của context, không duyệt lại toàn bộ mảng
+        context.reset(graph.getMaxVertices());
+        context.setDistance(startId, 0.0, -1);
+        // Heap có chỉ mục: mỗi đỉnh xuất hiện tối đa một lần, cập nhật bằng decreaseKey
+        IndexedMinHeap pq = context.getHeap();
+        pq.insert(startId, 0.0);
+
+        while (!pq.isEmpty()) {
+            int u = pq.extractMin();
+            context.markSettled(u); // Đánh dấu đỉnh này đã được tối ưu
 
             // Nếu đã đến đích, có thể dừng sớm (tối ưu hóa)
-            if (u == endId) {
+            if (u == endId || (isTarget != null && isTarget[u] && --remainingTargets == 0)) {
                 break;
             }
 
+            double distU = context.getDistance(u);
             // Duyệt các đỉnh kề v của u
-            CustomLinkedList<Route> neighbors = graph.getNeighbors(u);
+            Iterable<Route> neighbors = graph.getNeighbors(u);
             if (neighbors != null) {
                 for (Route route : neighbors) {
                     int v = route.destinationId;
-                    // Chỉ xét những đỉnh chưa được tối ưu hoàn toàn
-                    if (!visited[v]) {
-                        double weight;
-                        try {
-                            weight = route.getWeight(criteria);
-                        } catch (IllegalArgumentException e) {
-                            System.err.println("Error in weight criteria: " + e.getMessage());
-                            return new DijkstraResult(); // Lỗi tiêu chí, không tìm thấy đường
-                        }
-
-                        double newDist = distance[u] + weight;
+                    // Chỉ xét những đỉnh chưa được tối ưu hoàn toàn, qua tuyến đường của phương tiện được phép
+                    if (!context.isSettled(v) && route.allows(modeMask)) {
+                        double newDist = distU + criterion.weightOf(route);
 
                         // Relaxation
-                        if (newDist < distance[v]) {
-                            distance[v] = newDist;
-                            previousVertex[v] = u;
-                            pq.add(new HeapNode(newDist, v)); // Thêm vào PQ để xét
+                        if (newDist < context.getDistance(v)) {
+                            context.setDistance(v, newDist, u);
+                            pq.insertOrDecrease(v, newDist); // Thêm vào PQ hoặc giảm độ ưu tiên
                         }
                     }
                 }
             }
         }
+    }
 
-        // Kiểm tra xem có đến được đích không
-        if (distance[endId] == Double.POSITIVE_INFINITY) {
-            return new DijkstraResult(); // Không tìm thấy đường đi
+    /**
+     * Dijkstra ngược từ đích trên toàn đồ thị (qua chỉ mục cạnh vào), dùng làm cận dưới/heuristic
+     * cho các tìm kiếm có ràng buộc (K đường ngắn nhất, đường ngắn nhất có giới hạn tài nguyên).
+     * @return Mảng khoảng cách từ mỗi đỉnh đến đích, Double.POSITIVE_INFINITY nếu không tới được.
+     */
+    static double[] distancesToTarget(GraphView graph, int endId, Criterion criterion, int modeMask,
+                                      SearchContext context) {
+        int n = graph.getMaxVertices();
+        context.reset(n);
+        context.setDistance(endId, 0.0, -1);
+        IndexedMinHeap pq = context.getHeap();
+        pq.insert(endId, 0.0);
+        while (!pq.isEmpty()) {
+            int u = pq.extractMin();
+            context.markSettled(u);
+            double distU = context.getDistance(u);
+            for (Route route : graph.getIncomingRoutes(u)) {
+                int v = route.destinationId; // Đỉnh nguồn của cạnh gốc v -> u
+                if (!context.isSettled(v) && route.allows(modeMask)) {
+                    double newDist = distU + criterion.weightOf(route);
+                    if (newDist < context.getDistance(v)) {
+                        context.setDistance(v, newDist, u);
+                        pq.insertOrDecrease(v, newDist);
+                    }
+                }
+            }
         }
+        double[] toTarget = new double[n];
+        for (int v = 0; v < n; v++) {
+            toTarget[v] = context.getDistance(v);
+        }
+        return toTarget;
+    }
 
-        // Truy vết đường đi
-        CustomLinkedList<Location> path = tracePath(graph, previousVertex, startId, endId);
-        return new DijkstraResult(path, distance[endId]);
+    /**
+     * Tìm đường đi ngắn nhất trên đồ thị dạng CSR (CompactGraph, MappedGraph).
+     * Sử dụng SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị CSR.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criteria Tiêu chí ("distance", "time", "cost").
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(CsrGraph graph, int startId, int endId, String criteria) {
+        Criterion criterion = parseCriteria(criteria);
+        if (criterion == null) {
+            return new DijkstraResult();
+        }
+        return findShortestPath(graph, startId, endId, criterion, SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất trên đồ thị dạng CSR theo tiêu chí đã kiểm tra trước.
+     * Sử dụng SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị CSR.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(CsrGraph graph, int startId, int endId, Criterion criterion) {
+        return findShortestPath(graph, startId, endId, criterion, SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất trên đồ thị dạng CSR (CompactGraph, MappedGraph).
+     * Cột trọng số được chọn một lần trước khi tìm kiếm, vòng lặp nới lỏng cạnh
+     * chỉ đọc các cột nguyên thủy, không tạo đối tượng Route.
+     * @param graph Đồ thị CSR.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param context Trạng thái tìm kiếm dùng lại (không được dùng đồng thời bởi nhiều luồng).
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(CsrGraph graph, int startId, int endId, Criterion criterion,
+                                                  SearchContext context) {
+        return findShortestPath(graph, startId, endId, criterion, TransportMode.ALL_MODES, context);
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất trên đồ thị CSR chỉ dùng cạnh của những phương tiện trong bộ lọc.
+     * @param graph Đồ thị CSR.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param context Trạng thái tìm kiếm dùng lại (không được dùng đồng thời bởi nhiều luồng).
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static DijkstraResult findShortestPath(CsrGraph graph, int startId, int endId, Criterion criterion,
+                                                  int modeMask, SearchContext context) {
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new DijkstraResult();
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new DijkstraResult();
+        }
+
+        search(graph, graph.getEdgeWeights(criterion), startId, endId, null, 0, modeMask, context);
+
+        double total = context.getDistance(endId);
+        if (total == Double.POSITIVE_INFINITY) {
+            return new DijkstraResult();
+        }
+
+        CustomLinkedList<Location> path = tracePath(graph::getLocationById, graph.getMaxVertices(),
+                context::getPreviousVertex, startId, endId);
+        return new DijkstraResult(path, total);
+    }
+
+    /**
+     * Dijkstra từ startId trên đồ thị CSR, kết quả nằm trong context. Cùng điều kiện dừng với bản
+     * danh sách kề: endId được tối ưu, hoặc đã tối ưu đủ remainingTargets đỉnh đánh dấu trong isTarget;
+     * với endId = -1 và isTarget = null chạy đến khi heap rỗng.
+     */
+    static void search(CsrGraph graph, EdgeWeights weights, int startId, int endId, boolean[] isTarget,
+                       int remainingTargets, int modeMask, SearchContext context) {
+        context.reset(graph.getMaxVertices());
+        context.setDistance(startId, 0.0, -1);
+        IndexedMinHeap pq = context.getHeap();
+        pq.insert(startId, 0.0);
+
+        while (!pq.isEmpty()) {
+            int u = pq.extractMin();
+            context.markSettled(u);
+            if (u == endId || (isTarget != null && isTarget[u] && --remainingTargets == 0)) {
+                break;
+            }
+
+            // Duyệt đoạn cạnh liên tục của u trong các mảng CSR
+            double distU = context.getDistance(u);
+            int end = graph.getEdgeEnd(u);
+            for (int e = graph.getEdgeStart(u); e < end; e++) {
+                int v = graph.getDestination(e);
+                if (!context.isSettled(v) && (graph.getModes(e) & modeMask) != 0) {
+                    double newDist = distU + weights.get(e);
+                    if (newDist < context.getDistance(v)) {
+                        context.setDistance(v, newDist, u);
+                        pq.insertOrDecrease(v, newDist);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Chuyển chuỗi tiêu chí thành Criterion, giữ cách báo lỗi cũ:
+     * in lỗi ra System.err và trả về null nếu tiêu chí không hợp lệ.
+     * @param criteria Chuỗi tiêu chí.
+     * @return Criterion tương ứng, hoặc null nếu không hợp lệ.
+     */
+    static Criterion parseCriteria(String criteria) {
+        try {
+            return Criterion.parse(criteria);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error in weight criteria: " + e.getMessage());
+            return null;
+        }
     }
 
     /**
      * Truy vết đường đi từ mảng previousVertex.
-     * @param graph Đồ thị (để lấy đối tượng Location).
-     * @param previousVertex Mảng lưu đỉnh trước đó.
+     * @param locationLookup Hàm lấy đối tượng Location theo ID.
+     * @param maxVertices Số đỉnh tối đa (để phát hiện vòng lặp vô hạn).
+     * @param previousVertex Hàm lấy đỉnh trước đó của một đỉnh (-1 nếu không có).
      * @param startId ID đỉnh bắt đầu.
      * @param endId ID đỉnh kết thúc.
      * @return Danh sách liên kết các Location trên đường đi (từ start đến end).
      */
-    private static CustomLinkedList<Location> tracePath(Graph graph, int[] previousVertex, int startId, int endId) {
+    static CustomLinkedList<Location> tracePath(IntFunction<Location> locationLookup, int maxVertices,
+                                                IntUnaryOperator previousVertex, int startId, int endId) {
         CustomLinkedList<Location> path = new CustomLinkedList<>();
         int currentId = endId;
 
         // Lặp ngược từ đích về nguồn
         while (currentId != -1) {
-            Location loc = graph.getLocationById(currentId);
+            Location loc = locationLookup.apply(currentId);
             if (loc != null) {
                 path.addFirst(loc); // Thêm vào đầu danh sách để có thứ tự đúng
             } else {
@@ -131,10 +382,10 @@ public class ShortestPathAlgorithm {
             if (currentId == startId) { // Đã về đến điểm bắt đầu
                 break;
             }
-            currentId = previousVertex[currentId]; // Di chuyển đến đỉnh trước đó
+            currentId = previousVertex.applyAsInt(currentId); // Di chuyển đến đỉnh trước đó
 
             // Phòng trường hợp vòng lặp vô hạn nếu có lỗi trong previousVertex
-            if (path.size() > graph.getMaxVertices()) {
+            if (path.size() > maxVertices) {
                 System.err.println("Error: Path tracing seems to be in an infinite loop. Aborting.");
                 return new CustomLinkedList<>(); // Trả về đường đi rỗng
             }
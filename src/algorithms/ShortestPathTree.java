@@ -0,0 +1,131 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.Criterion;
+import graph.GraphView;
+import graph.Location;
+import graph.TransportMode;
+
+/**
+ * Cây đường đi ngắn nhất từ một nguồn đến mọi đỉnh (mảng distance[] và previousVertex[]),
+ * tính một lần bằng Dijkstra chạy đến hết. Sau đó đường đi đến bất kỳ đích nào chỉ cần
+ * truy vết ngược theo previousVertex, không phải tìm kiếm lại.
+ * Bất biến sau khi tạo; chỉ đúng với đồ thị tại epoch đã dùng để xây dựng ({@link #getEpoch()}).
+ */
+public final class ShortestPathTree {
+    private final GraphView graph;
+    private final int sourceId;
+    private final Criterion criterion;
+    private final int modeMask;
+    private final long epoch;
+    private final double[] distance;
+    private final int[] previousVertex;
+
+    private ShortestPathTree(GraphView graph, int sourceId, Criterion criterion, int modeMask, long epoch,
+                             double[] distance, int[] previousVertex) {
+        this.graph = graph;
+        this.sourceId = sourceId;
+        this.criterion = criterion;
+        this.modeMask = modeMask;
+        this.epoch = epoch;
+        this.distance = distance;
+        this.previousVertex = previousVertex;
+    }
+
+    /**
+     * Xây dựng cây đường đi ngắn nhất dùng mọi phương tiện.
+     * @param graph Đồ thị.
+     * @param sourceId ID đỉnh nguồn.
+     * @param criterion Tiêu chí.
+     * @return Cây đường đi ngắn nhất.
+     * @throws IllegalArgumentException nếu đỉnh nguồn không tồn tại.
+     */
+    public static ShortestPathTree build(GraphView graph, int sourceId, Criterion criterion) {
+        return build(graph, sourceId, criterion, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Xây dựng cây đường đi ngắn nhất chỉ dùng tuyến đường của các phương tiện trong bộ lọc.
+     * @param graph Đồ thị.
+     * @param sourceId ID đỉnh nguồn.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @return Cây đường đi ngắn nhất.
+     * @throws IllegalArgumentException nếu đỉnh nguồn không tồn tại.
+     */
+    public static ShortestPathTree build(GraphView graph, int sourceId, Criterion criterion, int modeMask) {
+        if (graph.getLocationById(sourceId) == null) {
+            throw new IllegalArgumentException("Source vertex " + sourceId + " does not exist.");
+        }
+        long epoch = graph.getEpoch();
+        int n = graph.getMaxVertices();
+        SearchContext context = SearchContext.forCurrentThread();
+        ShortestPathAlgorithm.search(graph, sourceId, -1, criterion, modeMask, context);
+
+        // Sao chép ra khỏi context vì context sẽ được dùng lại cho truy vấn sau
+        double[] distance = new double[n];
+        int[] previousVertex = new int[n];
+        for (int v = 0; v < n; v++) {
+            distance[v] = context.getDistance(v);
+            previousVertex[v] = context.getPreviousVertex(v);
+        }
+        return new ShortestPathTree(graph, sourceId, criterion, modeMask, epoch, distance, previousVertex);
+    }
+
+    /**
+     * Lấy đường đi ngắn nhất từ nguồn đến một đích bằng cách truy vết trên cây.
+     * @param endId ID đỉnh đích.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public DijkstraResult getPath(int endId) {
+        if (endId < 0 || endId >= distance.length || graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new DijkstraResult();
+        }
+        double total = distance[endId];
+        if (total == Double.POSITIVE_INFINITY) {
+            return new DijkstraResult();
+        }
+        CustomLinkedList<Location> path = ShortestPathAlgorithm.tracePath(graph::getLocationById, distance.length,
+                v -> previousVertex[v], sourceId, endId);
+        return new DijkstraResult(path, total);
+    }
+
+    /**
+     * Lấy khoảng cách ngắn nhất từ nguồn đến một đỉnh.
+     * @param vertexId ID của đỉnh.
+     * @return Khoảng cách, Double.POSITIVE_INFINITY nếu không tới được.
+     * @throws IllegalArgumentException nếu ID nằm ngoài phạm vi.
+     */
+    public double getDistance(int vertexId) {
+        if (vertexId < 0 || vertexId >= distance.length) {
+            throw new IllegalArgumentException("Invalid vertex ID: " + vertexId + ". Must be between 0 and " + (distance.length - 1));
+        }
+        return distance[vertexId];
+    }
+
+    public boolean isReachable(int vertexId) {
+        return getDistance(vertexId) != Double.POSITIVE_INFINITY;
+    }
+
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    public Criterion getCriterion() {
+        return criterion;
+    }
+
+    public int getModeMask() {
+        return modeMask;
+    }
+
+    /**
+     * Lấy epoch của đồ thị khi cây được xây dựng.
+     * @return Epoch.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+}
@@ -0,0 +1,196 @@
+package algorithms;
+
+import graph.Criterion;
+import graph.GraphView;
+import graph.TransportMode;
+
+/**
+ * Cache cây đường đi ngắn nhất của các nguồn "nóng" (ví dụ kho hàng mà phần lớn truy vấn xuất phát),
+ * khóa theo (nguồn, tiêu chí, bộ lọc phương tiện). Truy vấn đầu tiên từ một nguồn chạy Dijkstra
+ * đến hết đồ thị; các truy vấn sau từ nguồn đó đến bất kỳ đích nào chỉ truy vết trên cây.
+ * Mỗi cây tốn O(V) bộ nhớ nên số cây được giới hạn; khi đầy, cây ít được dùng gần đây nhất bị loại.
+ * Giống {@link RouteCache}, cache gắn với một đồ thị nguồn tại một epoch: truy vấn trên đồ thị khác hoặc
+ * epoch mới hơn làm xóa toàn bộ cây; truy vấn trên ảnh chụp cũ hơn được tính mà không lưu.
+ * An toàn luồng; việc xây dựng cây khi trượt cache chạy ngoài khóa.
+ */
+public class ShortestPathTreeCache {
+    private final ShortestPathTree[] trees; // Số cây nhỏ nên tìm tuyến tính
+    private final long[] lastUsed;          // Thời điểm dùng gần nhất (theo bộ đếm tick) của từng ô
+    private long tick;
+    private int size;
+
+    private final EpochBinding binding = new EpochBinding();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Constructor.
+     * @param capacity Số cây tối đa được giữ.
+     * @throws IllegalArgumentException nếu capacity không dương.
+     */
+    public ShortestPathTreeCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+        this.trees = new ShortestPathTree[capacity];
+        this.lastUsed = new long[capacity];
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất dùng mọi phương tiện, qua cây của nguồn.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion) {
+        return findShortestPath(graph, startId, endId, criterion, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Tìm đường đi ngắn nhất chỉ dùng các phương tiện trong bộ lọc, qua cây của nguồn.
+     * @param graph Đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @return Đối tượng DijkstraResult chứa đường đi và tổng giá trị,
+     *         hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public DijkstraResult findShortestPath(GraphView graph, int startId, int endId, Criterion criterion,
+                                           int modeMask) {
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new DijkstraResult();
+        }
+        return getTree(graph, startId, criterion, modeMask).getPath(endId);
+    }
+
+    /**
+     * Lấy cây đường đi ngắn nhất của một nguồn, xây dựng và lưu lại nếu chưa có.
+     * @param graph Đồ thị.
+     * @param sourceId ID đỉnh nguồn.
+     * @param criterion Tiêu chí.
+     * @param modeMask Bitmask phương tiện được phép.
+     * @return Cây đường đi ngắn nhất ứng với epoch hiện tại của đồ thị.
+     * @throws IllegalArgumentException nếu đỉnh nguồn không tồn tại.
+     */
+    public ShortestPathTree getTree(GraphView graph, int sourceId, Criterion criterion, int modeMask) {
+        long epoch = graph.getEpoch();
+        ShortestPathTree cached = lookup(graph, epoch, sourceId, criterion, modeMask);
+        if (cached != null) {
+            return cached;
+        }
+        ShortestPathTree tree = ShortestPathTree.build(graph, sourceId, criterion, modeMask);
+        store(graph, tree);
+        return tree;
+    }
+
+    private synchronized ShortestPathTree lookup(GraphView graph, long epoch, int sourceId, Criterion criterion,
+                                                 int modeMask) {
+        int state = binding.bind(graph, epoch);
+        if (state == EpochBinding.STALE) {
+            misses++; // Ảnh chụp cũ: xây cây riêng, không dùng các cây của epoch mới hơn
+            return null;
+        }
+        if (state == EpochBinding.ADVANCED) {
+            if (size > 0) {
+                invalidations++;
+            }
+            clear();
+        }
+        int slot = find(sourceId, criterion, modeMask);
+        if (slot >= 0) {
+            lastUsed[slot] = ++tick;
+            hits++;
+            return trees[slot];
+        }
+        misses++;
+        return null;
+    }
+
+    private synchronized void store(GraphView graph, ShortestPathTree tree) {
+        if (!binding.isCurrent(graph, tree.getEpoch())) {
+            return; // Ảnh chụp cũ, hoặc đồ thị đã đổi trong lúc xây dựng: cây không thuộc epoch hiện tại
+        }
+        int slot = find(tree.getSourceId(), tree.getCriterion(), tree.getModeMask());
+        if (slot < 0) {
+            if (size < trees.length) {
+                slot = size++;
+            } else {
+                // Loại cây ít được dùng gần đây nhất
+                slot = 0;
+                for (int i = 1; i < size; i++) {
+                    if (lastUsed[i] < lastUsed[slot]) {
+                        slot = i;
+                    }
+                }
+                evictions++;
+            }
+        }
+        trees[slot] = tree;
+        lastUsed[slot] = ++tick;
+    }
+
+    private int find(int sourceId, Criterion criterion, int modeMask) {
+        for (int i = 0; i < size; i++) {
+            ShortestPathTree tree = trees[i];
+            if (tree.getSourceId() == sourceId && tree.getModeMask() == modeMask
+                    && tree.getCriterion().equals(criterion)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void clear() {
+        for (int i = 0; i < size; i++) {
+            trees[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Xóa toàn bộ cây trong cache.
+     */
+    public synchronized void invalidateAll() {
+        if (size > 0) {
+            invalidations++;
+        }
+        clear();
+        binding.reset();
+    }
+
+    public int getCapacity() {
+        return trees.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Lấy số lần toàn bộ cache bị xóa do đồ thị thay đổi hoặc do invalidateAll().
+     * @return Số lần vô hiệu hóa.
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+}
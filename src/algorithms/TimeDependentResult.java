@@ -0,0 +1,51 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import graph.Location;
+
+/**
+ * Kết quả của tìm đường phụ thuộc thời gian: đường đến sớm nhất cùng giờ khởi hành, giờ đến
+ * và giờ đến tại từng điểm dừng. totalValue là tổng thời gian hành trình (kể cả thời gian chờ).
+ */
+public class TimeDependentResult extends DijkstraResult {
+    public final double departureTime;
+    public final double arrivalTime;
+    private final double[] stopArrivalTimes; // Giờ đến tại path.get(i), song song với path
+
+    /**
+     * Constructor cho trường hợp tìm thấy đường đi.
+     * @param path Danh sách địa điểm.
+     * @param departureTime Giờ khởi hành.
+     * @param stopArrivalTimes Giờ đến tại từng địa điểm trên đường đi (phần tử cuối là giờ đến đích).
+     */
+    public TimeDependentResult(CustomLinkedList<Location> path, double departureTime, double[] stopArrivalTimes) {
+        super(path, stopArrivalTimes[stopArrivalTimes.length - 1] - departureTime);
+        this.departureTime = departureTime;
+        this.arrivalTime = stopArrivalTimes[stopArrivalTimes.length - 1];
+        this.stopArrivalTimes = stopArrivalTimes.clone();
+    }
+
+    /**
+     * Constructor cho trường hợp không tìm thấy đường đi.
+     * @param departureTime Giờ khởi hành của truy vấn.
+     */
+    public TimeDependentResult(double departureTime) {
+        super();
+        this.departureTime = departureTime;
+        this.arrivalTime = Double.POSITIVE_INFINITY;
+        this.stopArrivalTimes = new double[0];
+    }
+
+    /**
+     * Lấy giờ đến tại một điểm dừng trên đường đi.
+     * @param stopIndex Vị trí điểm dừng trong path (0 là điểm xuất phát).
+     * @return Giờ đến tại điểm dừng.
+     * @throws IndexOutOfBoundsException nếu vị trí không hợp lệ.
+     */
+    public double getArrivalTimeAt(int stopIndex) {
+        if (stopIndex < 0 || stopIndex >= stopArrivalTimes.length) {
+            throw new IndexOutOfBoundsException("Index: " + stopIndex + ", Size: " + stopArrivalTimes.length);
+        }
+        return stopArrivalTimes[stopIndex];
+    }
+}
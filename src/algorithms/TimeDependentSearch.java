@@ -0,0 +1,101 @@
+package algorithms;
+
+import datastructure.CustomLinkedList;
+import datastructure.IndexedMinHeap;
+import graph.GraphView;
+import graph.Location;
+import graph.Route;
+import graph.TransportMode;
+import graph.TravelTimeProfiles;
+
+/**
+ * Dijkstra phụ thuộc thời gian: tìm đường đến sớm nhất khi khởi hành tại một thời điểm cho trước.
+ * Nhãn của mỗi đỉnh là giờ đến sớm nhất; thời gian đi qua một cạnh được tính tại giờ đến đỉnh nguồn
+ * ({@link Route#getTravelTime}), nên cạnh lịch chạy tự cộng thời gian chờ chuyến.
+ * Mọi hồ sơ trong {@link TravelTimeProfiles} đều thỏa FIFO, nên đến sớm hơn ở một đỉnh không bao giờ
+ * làm đến muộn hơn ở đỉnh sau và Dijkstra thông thường (trên giờ đến) cho kết quả tối ưu.
+ */
+public class TimeDependentSearch {
+
+    /**
+     * Tìm đường đến sớm nhất dùng mọi phương tiện, sử dụng SearchContext riêng của luồng hiện tại.
+     * @param graph Đồ thị (cạnh tĩnh dùng time, cạnh phụ thuộc thời gian dùng hồ sơ).
+     * @param profiles Kho hồ sơ thời gian của đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param departureTime Giờ khởi hành (giờ, tính từ 0h ngày đầu tiên).
+     * @return TimeDependentResult chứa đường đi và giờ đến, hoặc kết quả báo không tìm thấy đường đi.
+     */
+    public static TimeDependentResult findEarliestArrival(GraphView graph, TravelTimeProfiles profiles,
+                                                          int startId, int endId, double departureTime) {
+        return findEarliestArrival(graph, profiles, startId, endId, departureTime, TransportMode.ALL_MODES,
+                SearchContext.forCurrentThread());
+    }
+
+    /**
+     * Tìm đường đến sớm nhất chỉ dùng các phương tiện trong bộ lọc, dùng lại trạng thái trong context.
+     * @param graph Đồ thị (cạnh tĩnh dùng time, cạnh phụ thuộc thời gian dùng hồ sơ).
+     * @param profiles Kho hồ sơ thời gian của đồ thị.
+     * @param startId ID đỉnh bắt đầu.
+     * @param endId ID đỉnh kết thúc.
+     * @param departureTime Giờ khởi hành (giờ, tính từ 0h ngày đầu tiên).
+     * @param modeMask Bitmask phương tiện được phép.
+     * @param context Trạng thái tìm kiếm dùng lại (không được dùng đồng thời bởi nhiều luồng).
+     * @return TimeDependentResult chứa đường đi và giờ đến, hoặc kết quả báo không tìm thấy đường đi.
+     * @throws IllegalArgumentException nếu giờ khởi hành không hữu hạn.
+     */
+    public static TimeDependentResult findEarliestArrival(GraphView graph, TravelTimeProfiles profiles,
+                                                          int startId, int endId, double departureTime,
+                                                          int modeMask, SearchContext context) {
+        if (Double.isNaN(departureTime) || Double.isInfinite(departureTime)) {
+            throw new IllegalArgumentException("Departure time must be finite.");
+        }
+        if (graph.getLocationById(startId) == null) {
+            System.err.println("Error: Start location with ID " + startId + " does not exist.");
+            return new TimeDependentResult(departureTime);
+        }
+        if (graph.getLocationById(endId) == null) {
+            System.err.println("Error: End location with ID " + endId + " does not exist.");
+            return new TimeDependentResult(departureTime);
+        }
+
+        context.reset(graph.getMaxVertices());
+        context.setDistance(startId, departureTime, -1); // "Khoảng cách" ở đây là giờ đến
+        IndexedMinHeap pq = context.getHeap();
+        pq.insert(startId, departureTime);
+
+        while (!pq.isEmpty()) {
+            int u = pq.extractMin();
+            context.markSettled(u);
+            if (u == endId) {
+                break;
+            }
+            double arrivalU = context.getDistance(u);
+            for (Route route : graph.getNeighbors(u)) {
+                int v = route.destinationId;
+                if (!context.isSettled(v) && route.allows(modeMask)) {
+                    double arrivalV = arrivalU + route.getTravelTime(profiles, arrivalU);
+                    if (arrivalV < context.getDistance(v)) {
+                        context.setDistance(v, arrivalV, u);
+                        pq.insertOrDecrease(v, arrivalV);
+                    }
+                }
+            }
+        }
+
+        if (context.getDistance(endId) == Double.POSITIVE_INFINITY) {
+            return new TimeDependentResult(departureTime);
+        }
+        CustomLinkedList<Location> path = ShortestPathAlgorithm.tracePath(graph::getLocationById,
+                graph.getMaxVertices(), context::getPreviousVertex, startId, endId);
+        if (path.isEmpty()) {
+            return new TimeDependentResult(departureTime);
+        }
+        double[] stopArrivalTimes = new double[path.size()];
+        int index = 0;
+        for (Location stop : path) {
+            stopArrivalTimes[index++] = context.getDistance(stop.id);
+        }
+        return new TimeDependentResult(path, departureTime, stopArrivalTimes);
+    }
+}
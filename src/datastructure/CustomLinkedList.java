@@ -19,6 +19,7 @@ public class CustomLinkedList<T> implements Iterable<T> {
     private Node<T> head;
     private Node<T> tail;
     private int size;
+    private boolean readOnly; // Sau khi khóa, mọi thao tác sửa đổi đều bị từ chối
 
     public CustomLinkedList() {
         this.head = null;
@@ -28,6 +29,7 @@ public class CustomLinkedList<T> implements Iterable<T> {
 
     // --- Các phương thức cơ bản ---
     public void add(T data) { // Thêm vào cuối (O(1))
+        checkWritable();
         Node<T> newNode = new Node<>(data);
         if (isEmpty()) {
             head = newNode;
@@ -55,6 +57,7 @@ public class CustomLinkedList<T> implements Iterable<T> {
      * @param data Dữ liệu cần thêm.
      */
     public void addFirst(T data) {
+        checkWritable();
         Node<T> newNode = new Node<>(data);
         if (isEmpty()) {
             head = newNode;
@@ -73,6 +76,7 @@ public class CustomLinkedList<T> implements Iterable<T> {
      * @throws NoSuchElementException nếu danh sách rỗng.
      */
     public T removeFirst() {
+        checkWritable();
         if (isEmpty()) {
             throw new NoSuchElementException("List is empty");
         }
@@ -98,6 +102,27 @@ public class CustomLinkedList<T> implements Iterable<T> {
         return head.data;
     }
 
+    // --- Chế độ chỉ đọc ---
+
+    /**
+     * Khóa danh sách ở chế độ chỉ đọc; không thể mở khóa lại.
+     * Sau khi khóa, add/addFirst/removeFirst ném UnsupportedOperationException,
+     * nên danh sách có thể được chia sẻ an toàn giữa nhiều luồng.
+     */
+    public void makeReadOnly() {
+        readOnly = true;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("List is read-only");
+        }
+    }
+
     // --- Iterator (vẫn giữ private) ---
     @Override
     public Iterator<T> iterator() {
@@ -0,0 +1,137 @@
+package datastructure;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf để thay đổi kích thước mảng
+import java.util.NoSuchElementException;
+
+/**
+ * Min-Heap các cặp (khóa double, giá trị int) trên hai mảng nguyên thủy song song,
+ * không boxing và không tạo HeapNode cho mỗi phần tử (thay cho MinHeap/CustomPriorityQueue trong vòng lặp nóng).
+ * Khác với {@link IndexedMinHeap}, một giá trị có thể xuất hiện nhiều lần và không có decreaseKey:
+ * đây là heap cho Dijkstra kiểu "xóa lười" (thêm bản mới khi khóa giảm, bỏ qua bản cũ khi lấy ra),
+ * hữu ích khi miền giá trị không bị chặn trước (ví dụ nhãn hoặc trạng thái thay vì ID đỉnh).
+ * Thêm là O(log n) khấu hao nhờ nhân đôi dung lượng. Không an toàn luồng.
+ */
+public class DoubleIntHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] keys;
+    private int[] values;
+    private int size;
+
+    public DoubleIntHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor với dung lượng ban đầu.
+     * @param initialCapacity Dung lượng khởi tạo.
+     */
+    public DoubleIntHeap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must not be negative");
+        }
+        this.keys = new double[initialCapacity];
+        this.values = new int[initialCapacity];
+    }
+
+    /**
+     * Thêm một cặp (khóa, giá trị).
+     * @param key Độ ưu tiên.
+     * @param value Giá trị đi kèm.
+     */
+    public void insert(double key, int value) {
+        if (size == keys.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, keys.length * 2);
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        // Vun đống lên: giữ tạm phần tử mới, dời cha xuống cho đến khi đúng chỗ
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (key >= keys[parent]) {
+                break;
+            }
+            keys[index] = keys[parent];
+            values[index] = values[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * Lấy giá trị có khóa nhỏ nhất mà không xóa.
+     * @throws NoSuchElementException nếu heap rỗng.
+     */
+    public int peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return values[0];
+    }
+
+    /**
+     * Lấy khóa nhỏ nhất mà không xóa.
+     * @throws NoSuchElementException nếu heap rỗng.
+     */
+    public double peekMinKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return keys[0];
+    }
+
+    /**
+     * Lấy và xóa cặp có khóa nhỏ nhất. Đọc khóa bằng {@link #peekMinKey()} trước khi gọi nếu cần.
+     * @return Giá trị của cặp có khóa nhỏ nhất.
+     * @throws NoSuchElementException nếu heap rỗng.
+     */
+    public int extractMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int min = values[0];
+        size--;
+        if (size > 0) {
+            heapifyDown(keys[size], values[size]);
+        }
+        return min;
+    }
+
+    /** Xóa mọi phần tử, giữ lại mảng đã cấp phát để dùng lại (O(1)). */
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Đặt cặp (key, value) vào gốc rồi dời xuống cho đến khi không lớn hơn con nhỏ nhất.
+     */
+    private void heapifyDown(double key, int value) {
+        int index = 0;
+        int half = size >>> 1; // Các vị trí >= half là lá
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[index] = keys[child];
+            values[index] = values[child];
+            index = child;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+}
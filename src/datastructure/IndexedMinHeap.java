@@ -0,0 +1,275 @@
+package datastructure;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf/fill để thao tác mảng cơ bản
+import java.util.NoSuchElementException;
+
+/**
+ * Min-Heap có chỉ mục (indexed binary heap) dành cho Dijkstra.
+ * Mỗi đỉnh (vertexId trong [0, capacity)) xuất hiện tối đa một lần trong heap,
+ * nên kích thước heap bị chặn bởi số đỉnh thay vì số lần nới lỏng cạnh.
+ * Dữ liệu được lưu trong các mảng nguyên thủy song song (không tạo HeapNode),
+ * cùng với mảng position để tìm vị trí của một đỉnh trong heap trong O(1),
+ * cho phép cài đặt decreaseKey thực sự.
+ */
+public class IndexedMinHeap {
+
+    private int[] heapIds;      // heapIds[i]: ID đỉnh tại vị trí i trong heap
+    private double[] heapKeys;  // heapKeys[i]: độ ưu tiên của đỉnh tại vị trí i (song song với heapIds)
+    private int[] position;     // position[v]: vị trí của đỉnh v trong heap, -1 nếu không có
+    private int size;           // Số lượng phần tử hiện tại trong heap
+
+    /**
+     * Constructor.
+     * @param capacity Số lượng ID đỉnh tối đa (ID hợp lệ nằm trong [0, capacity)).
+     */
+    public IndexedMinHeap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.heapIds = new int[capacity];
+        this.heapKeys = new double[capacity];
+        this.position = new int[capacity];
+        Arrays.fill(this.position, -1);
+        this.size = 0;
+    }
+
+    /**
+     * Đảm bảo heap chấp nhận được các ID đỉnh trong [0, capacity).
+     * Nội dung hiện tại của heap được giữ nguyên.
+     * @param capacity Số lượng ID đỉnh tối đa mới.
+     */
+    public void ensureCapacity(int capacity) {
+        int oldCapacity = position.length;
+        if (capacity <= oldCapacity) {
+            return;
+        }
+        heapIds = Arrays.copyOf(heapIds, capacity);
+        heapKeys = Arrays.copyOf(heapKeys, capacity);
+        position = Arrays.copyOf(position, capacity);
+        Arrays.fill(position, oldCapacity, capacity, -1);
+    }
+
+    /**
+     * Lấy số lượng ID đỉnh tối đa mà heap chấp nhận.
+     * @return Dung lượng theo ID.
+     */
+    public int capacity() {
+        return position.length;
+    }
+
+    /**
+     * Kiểm tra một đỉnh có đang nằm trong heap không.
+     * @param vertexId ID của đỉnh.
+     * @return true nếu đỉnh đang nằm trong heap.
+     */
+    public boolean contains(int vertexId) {
+        return position[vertexId] >= 0;
+    }
+
+    /**
+     * Lấy độ ưu tiên hiện tại của một đỉnh trong heap.
+     * @param vertexId ID của đỉnh.
+     * @return Độ ưu tiên.
+     * @throws NoSuchElementException nếu đỉnh không nằm trong heap.
+     */
+    public double getKey(int vertexId) {
+        int pos = position[vertexId];
+        if (pos < 0) {
+            throw new NoSuchElementException("Vertex " + vertexId + " is not in the heap");
+        }
+        return heapKeys[pos];
+    }
+
+    /**
+     * Thêm một đỉnh mới vào heap.
+     * @param vertexId ID của đỉnh.
+     * @param key Độ ưu tiên.
+     * @throws IllegalArgumentException nếu đỉnh đã nằm trong heap.
+     */
+    public void insert(int vertexId, double key) {
+        if (position[vertexId] >= 0) {
+            throw new IllegalArgumentException("Vertex " + vertexId + " is already in the heap");
+        }
+        heapIds[size] = vertexId;
+        heapKeys[size] = key;
+        position[vertexId] = size;
+        size++;
+        heapifyUp(size - 1);
+    }
+
+    /**
+     * Giảm độ ưu tiên của một đỉnh đã có trong heap.
+     * @param vertexId ID của đỉnh.
+     * @param newKey Độ ưu tiên mới (không lớn hơn độ ưu tiên hiện tại).
+     * @throws NoSuchElementException nếu đỉnh không nằm trong heap.
+     * @throws IllegalArgumentException nếu newKey lớn hơn độ ưu tiên hiện tại.
+     */
+    public void decreaseKey(int vertexId, double newKey) {
+        int pos = position[vertexId];
+        if (pos < 0) {
+            throw new NoSuchElementException("Vertex " + vertexId + " is not in the heap");
+        }
+        if (newKey > heapKeys[pos]) {
+            throw new IllegalArgumentException("New key is greater than current key");
+        }
+        heapKeys[pos] = newKey;
+        heapifyUp(pos);
+    }
+
+    /**
+     * Thêm đỉnh nếu chưa có, hoặc giảm độ ưu tiên nếu key mới nhỏ hơn.
+     * Đây là thao tác dùng trong bước nới lỏng cạnh của Dijkstra.
+     * @param vertexId ID của đỉnh.
+     * @param key Độ ưu tiên.
+     */
+    public void insertOrDecrease(int vertexId, double key) {
+        int pos = position[vertexId];
+        if (pos < 0) {
+            insert(vertexId, key);
+        } else if (key < heapKeys[pos]) {
+            heapKeys[pos] = key;
+            heapifyUp(pos);
+        }
+    }
+
+    /**
+     * Thay đổi độ ưu tiên của một đỉnh đã có trong heap (tăng hoặc giảm).
+     * @param vertexId ID của đỉnh.
+     * @param newKey Độ ưu tiên mới.
+     * @throws NoSuchElementException nếu đỉnh không nằm trong heap.
+     */
+    public void updateKey(int vertexId, double newKey) {
+        int pos = position[vertexId];
+        if (pos < 0) {
+            throw new NoSuchElementException("Vertex " + vertexId + " is not in the heap");
+        }
+        double oldKey = heapKeys[pos];
+        heapKeys[pos] = newKey;
+        if (newKey < oldKey) {
+            heapifyUp(pos);
+        } else {
+            heapifyDown(pos);
+        }
+    }
+
+    /**
+     * Lấy ID đỉnh có độ ưu tiên nhỏ nhất mà không xóa.
+     * @return ID đỉnh ở gốc.
+     * @throws NoSuchElementException nếu heap rỗng.
+     */
+    public int peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heapIds[0];
+    }
+
+    /**
+     * Lấy độ ưu tiên nhỏ nhất mà không xóa.
+     * @return Độ ưu tiên ở gốc.
+     * @throws NoSuchElementException nếu heap rỗng.
+     */
+    public double peekMinKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heapKeys[0];
+    }
+
+    /**
+     * Lấy và xóa đỉnh có độ ưu tiên nhỏ nhất.
+     * @return ID đỉnh có độ ưu tiên nhỏ nhất.
+     * @throws NoSuchElementException nếu heap rỗng.
+     */
+    public int extractMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int min = heapIds[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            // Đưa phần tử cuối lên gốc rồi vun đống xuống
+            heapIds[0] = heapIds[size];
+            heapKeys[0] = heapKeys[size];
+            position[heapIds[0]] = 0;
+            heapifyDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Xóa toàn bộ heap. Chỉ reset vị trí của các đỉnh còn trong heap,
+     * nên chi phí là O(size) chứ không phải O(capacity).
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heapIds[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Kiểm tra heap có rỗng không.
+     * @return true nếu rỗng.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Lấy số lượng phần tử hiện tại.
+     * @return Số lượng phần tử.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Di chuyển phần tử tại index lên trên cho đến khi không nhỏ hơn cha.
+     * Phần tử được giữ tạm và chỉ ghi một lần ở vị trí cuối cùng (không swap từng bước).
+     */
+    private void heapifyUp(int index) {
+        int id = heapIds[index];
+        double key = heapKeys[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (key >= heapKeys[parent]) {
+                break;
+            }
+            heapIds[index] = heapIds[parent];
+            heapKeys[index] = heapKeys[parent];
+            position[heapIds[index]] = index;
+            index = parent;
+        }
+        heapIds[index] = id;
+        heapKeys[index] = key;
+        position[id] = index;
+    }
+
+    /**
+     * Di chuyển phần tử tại index xuống dưới cho đến khi không lớn hơn con nhỏ nhất.
+     */
+    private void heapifyDown(int index) {
+        int id = heapIds[index];
+        double key = heapKeys[index];
+        int half = size >>> 1; // Các vị trí >= half là lá
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heapKeys[right] < heapKeys[child]) {
+                child = right;
+            }
+            if (key <= heapKeys[child]) {
+                break;
+            }
+            heapIds[index] = heapIds[child];
+            heapKeys[index] = heapKeys[child];
+            position[heapIds[index]] = index;
+            index = child;
+        }
+        heapIds[index] = id;
+        heapKeys[index] = key;
+        position[id] = index;
+    }
+}
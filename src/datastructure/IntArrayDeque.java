@@ -0,0 +1,120 @@
+package datastructure;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Hàng đợi hai đầu số nguyên dựa trên mảng vòng (ring buffer), không boxing và không tạo Node cho mỗi phần tử.
+ * Dùng được như hàng đợi FIFO (addLast/removeFirst, ví dụ cho BFS) hoặc ngăn xếp (addLast/removeLast).
+ * Mọi thao tác là O(1); dung lượng là lũy thừa của 2 và được nhân đôi khi đầy. Không an toàn luồng.
+ */
+public class IntArrayDeque {
+    private static final int MIN_CAPACITY = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] elements;
+    private int head; // Vị trí phần tử đầu
+    private int size;
+
+    public IntArrayDeque() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor với dung lượng ban đầu (làm tròn lên lũy thừa của 2).
+     * @param initialCapacity Dung lượng khởi tạo.
+     */
+    public IntArrayDeque(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must not be negative");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < initialCapacity && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        this.elements = new int[capacity];
+    }
+
+    /** Thêm vào đầu hàng đợi (O(1) khấu hao) */
+    public void addFirst(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+    }
+
+    /** Thêm vào cuối hàng đợi (O(1) khấu hao) */
+    public void addLast(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    /** Lấy và xóa phần tử đầu (O(1)) */
+    public int removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    /** Lấy và xóa phần tử cuối (O(1)) */
+    public int removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        size--;
+        return elements[(head + size) & (elements.length - 1)];
+    }
+
+    /** Xem phần tử đầu (O(1)) */
+    public int peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        return elements[head];
+    }
+
+    /** Xem phần tử cuối (O(1)) */
+    public int peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        return elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    /** Xóa mọi phần tử, giữ lại mảng đã cấp phát để dùng lại (O(1)). */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Nhân đôi dung lượng, đồng thời trải phẳng mảng vòng để phần tử đầu nằm ở vị trí 0.
+     */
+    private void grow() {
+        if (elements.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Deque is full");
+        }
+        int[] bigger = new int[elements.length << 1];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, bigger, 0, firstPart);
+        System.arraycopy(elements, 0, bigger, firstPart, size - firstPart);
+        elements = bigger;
+        head = 0;
+    }
+}
@@ -0,0 +1,108 @@
+package datastructure;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf để thay đổi kích thước mảng
+
+/**
+ * Danh sách số nguyên dựa trên mảng int, không boxing và không tạo Node cho mỗi phần tử.
+ * get/set là O(1) (khác với CustomLinkedList.get là O(n)), add là O(1) khấu hao nhờ nhân đôi dung lượng.
+ * Không an toàn luồng.
+ */
+public class IntArrayList {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor với dung lượng ban đầu.
+     * @param initialCapacity Dung lượng khởi tạo.
+     */
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity must not be negative");
+        }
+        this.elements = new int[initialCapacity];
+        this.size = 0;
+    }
+
+    /** Thêm vào cuối danh sách (O(1) khấu hao) */
+    public void add(int value) {
+        if (size == elements.length) {
+            ensureCapacity(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Lấy phần tử tại vị trí index (O(1)).
+     * @throws IndexOutOfBoundsException nếu index nằm ngoài [0, size).
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Ghi đè phần tử tại vị trí index (O(1)).
+     * @return Giá trị cũ.
+     * @throws IndexOutOfBoundsException nếu index nằm ngoài [0, size).
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int old = elements[index];
+        elements[index] = value;
+        return old;
+    }
+
+    /**
+     * Lấy và xóa phần tử cuối (O(1)); cho phép dùng danh sách như một ngăn xếp.
+     * @throws IndexOutOfBoundsException nếu danh sách rỗng.
+     */
+    public int removeLast() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("List is empty");
+        }
+        return elements[--size];
+    }
+
+    /**
+     * Đảm bảo danh sách chứa được capacity phần tử mà không cần cấp phát lại.
+     * @param capacity Dung lượng tối thiểu.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, Math.max(DEFAULT_CAPACITY, elements.length * 2)));
+        }
+    }
+
+    /** Xóa mọi phần tử, giữ lại mảng đã cấp phát để dùng lại (O(1)). */
+    public void clear() {
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sao chép các phần tử ra mảng mới có độ dài đúng bằng size.
+     * @return Mảng các phần tử theo thứ tự.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package datastructure;
+
+/**
+ * Bảng băm ánh xạ khóa long sang giá trị int, không boxing và không tạo đối tượng cho mỗi phần tử.
+ * Dùng địa chỉ mở (open addressing) với dò tuyến tính trên các mảng nguyên thủy song song;
+ * dung lượng là lũy thừa của 2 và được nhân đôi khi hệ số tải vượt 0.75.
+ * Không hỗ trợ xóa (các khóa chỉ được thêm hoặc ghi đè). Không an toàn luồng.
+ */
+public class LongIntHashMap {
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used; // used[i]: ô i đang chứa một khóa
+    private int size;
+    private int resizeThreshold;
+
+    public LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor cấp phát trước chỗ cho số phần tử dự kiến, tránh băm lại khi thêm.
+     * @param expectedSize Số phần tử dự kiến.
+     */
+    public LongIntHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Thêm hoặc ghi đè giá trị của một khóa (O(1) trung bình).
+     * @param key Khóa.
+     * @param value Giá trị.
+     */
+    public void put(long key, int value) {
+        int slot = findSlot(key);
+        if (used[slot]) {
+            values[slot] = value;
+            return;
+        }
+        if (size == resizeThreshold) {
+            rehash(keys.length << 1);
+            slot = findSlot(key);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Lấy giá trị của một khóa.
+     * @param key Khóa.
+     * @param defaultValue Giá trị trả về khi khóa không tồn tại.
+     * @return Giá trị của khóa, hoặc defaultValue.
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        int slot = findSlot(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return used[findSlot(key)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Tìm ô chứa khóa, hoặc ô trống đầu tiên trên dãy dò nếu khóa chưa có.
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Trộn bit của khóa (nhân Fibonacci) để các khóa liên tiếp hoặc có cùng bit thấp vẫn phân tán đều.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        resizeThreshold = capacity / 4 * 3;
+    }
+
+    private void rehash(int capacity) {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Hash map is full");
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = findSlot(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Phần chung của các đồ thị CSR lưu ngoài heap trong ByteBuffer ({@link MappedGraph}, {@link OffHeapGraph}):
+ * các cột cạnh là IntBuffer/DoubleBuffer, thông tin đỉnh là bảng bản ghi cố định VERTEX_RECORD_SIZE byte
+ * (int vị trí tên, -1 nếu đỉnh không tồn tại; int độ dài tên; double vĩ độ; double kinh độ) cùng vùng tên UTF-8.
+ * Trên heap chỉ còn các đối tượng buffer nhỏ trỏ tới vùng nhớ, nên kích thước đồ thị không ảnh hưởng
+ * đến thời gian dừng của bộ thu gom rác.
+ */
+abstract class BufferGraph implements CsrGraph {
+
+    static final int VERTEX_RECORD_SIZE = 24;
+
+    private final int maxVertices;
+    private final int numVertices;
+    private final int numEdges;
+    // Không final để release() bỏ được tham chiếu đến vùng nhớ; volatile để luồng khác thấy được việc giải phóng
+    private volatile IntBuffer offsets;
+    private volatile IntBuffer destinations;
+    private volatile IntBuffer modes;
+    private volatile DoubleBuffer distances;
+    private volatile DoubleBuffer times;
+    private volatile DoubleBuffer costs;
+    private volatile ByteBuffer vertices;
+    private volatile ByteBuffer names;
+
+    BufferGraph(int maxVertices, int numVertices, int numEdges, IntBuffer offsets, IntBuffer destinations,
+                IntBuffer modes, DoubleBuffer distances, DoubleBuffer times, DoubleBuffer costs,
+                ByteBuffer vertices, ByteBuffer names) {
+        this.maxVertices = maxVertices;
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.offsets = offsets;
+        this.destinations = destinations;
+        this.modes = modes;
+        this.distances = distances;
+        this.times = times;
+        this.costs = costs;
+        this.vertices = vertices;
+        this.names = names;
+    }
+
+    /**
+     * Cấp phát vùng nhớ ngoài heap (direct ByteBuffer, thứ tự byte của máy).
+     * @param bytes Kích thước (byte).
+     * @return Buffer mới, toàn số 0.
+     * @throws IllegalArgumentException nếu kích thước vượt giới hạn 2 GB của một buffer.
+     */
+    static ByteBuffer allocateDirect(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Column of " + bytes + " bytes exceeds the 2 GB buffer limit.");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Bỏ mọi tham chiếu đến vùng nhớ; vùng nhớ được trả lại khi bộ thu gom rác thu hồi các buffer
+     * (không giải phóng ngay). Sau đó mọi lần đọc đồ thị đều ném IllegalStateException,
+     * kể cả lần đọc kế tiếp của truy vấn đang chạy dở.
+     */
+    void release() {
+        offsets = null;
+        destinations = null;
+        modes = null;
+        distances = null;
+        times = null;
+        costs = null;
+        vertices = null;
+        names = null;
+    }
+
+    boolean isReleased() {
+        return vertices == null;
+    }
+
+    @Override
+    public int getMaxVertices() {
+        return maxVertices;
+    }
+
+    @Override
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Lấy thông tin địa điểm dựa trên ID; đối tượng Location được tạo mới từ bảng đỉnh ở mỗi lần gọi.
+     * @param vertexId ID của đỉnh.
+     * @return Đối tượng Location, hoặc null nếu không tồn tại.
+     * @throws IllegalStateException nếu vùng nhớ của đồ thị đã được giải phóng.
+     */
+    @Override
+    public Location getLocationById(int vertexId) {
+        ByteBuffer vertexTable = vertices;
+        ByteBuffer nameTable = names;
+        if (vertexTable == null || nameTable == null) {
+            throw released();
+        }
+        if (vertexId < 0 || vertexId >= maxVertices) {
+            return null; // ID không hợp lệ
+        }
+        int record = vertexId * VERTEX_RECORD_SIZE;
+        int nameOffset = vertexTable.getInt(record);
+        if (nameOffset < 0) {
+            return null;
+        }
+        byte[] name = new byte[vertexTable.getInt(record + 4)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = nameTable.get(nameOffset + i);
+        }
+        return new Location(vertexId, new String(name, StandardCharsets.UTF_8),
+                vertexTable.getDouble(record + 8), vertexTable.getDouble(record + 16));
+    }
+
+    // Các accessor đọc cột vào biến cục bộ rồi kiểm tra null: một lần đọc trường cho mỗi lời gọi,
+    // và release() ở luồng khác không gây NullPointerException giữa chừng.
+
+    @Override
+    public int getEdgeStart(int vertexId) {
+        IntBuffer column = offsets;
+        if (column == null) {
+            throw released();
+        }
+        return column.get(vertexId);
+    }
+
+    @Override
+    public int getEdgeEnd(int vertexId) {
+        IntBuffer column = offsets;
+        if (column == null) {
+            throw released();
+        }
+        return column.get(vertexId + 1);
+    }
+
+    @Override
+    public int getDestination(int edgeIndex) {
+        IntBuffer column = destinations;
+        if (column == null) {
+            throw released();
+        }
+        return column.get(edgeIndex);
+    }
+
+    @Override
+    public double getDistance(int edgeIndex) {
+        DoubleBuffer column = distances;
+        if (column == null) {
+            throw released();
+        }
+        return column.get(edgeIndex);
+    }
+
+    @Override
+    public double getTime(int edgeIndex) {
+        DoubleBuffer column = times;
+        if (column == null) {
+            throw released();
+        }
+        return column.get(edgeIndex);
+    }
+
+    @Override
+    public double getCost(int edgeIndex) {
+        DoubleBuffer column = costs;
+        if (column == null) {
+            throw released();
+        }
+        return column.get(edgeIndex);
+    }
+
+    @Override
+    public int getModes(int edgeIndex) {
+        IntBuffer column = modes;
+        if (column == null) {
+            throw released();
+        }
+        return column.get(edgeIndex);
+    }
+
+    /**
+     * Lấy trọng số cạnh theo tiêu chí. Ba tiêu chí cơ bản đọc thẳng cột ngoài heap;
+     * tiêu chí kết hợp được tính từ ba cột ở mỗi lần đọc, không tạo cột phụ trên heap.
+     * Đối tượng trả về giữ các cột đã đọc, nên vẫn đọc được sau release() cho đến khi bị thu gom.
+     * @param criterion Tiêu chí.
+     * @return Trọng số theo chỉ số cạnh.
+     * @throws IllegalStateException nếu vùng nhớ của đồ thị đã được giải phóng.
+     */
+    @Override
+    public EdgeWeights getEdgeWeights(Criterion criterion) {
+        DoubleBuffer distanceColumn = distances;
+        DoubleBuffer timeColumn = times;
+        DoubleBuffer costColumn = costs;
+        if (distanceColumn == null || timeColumn == null || costColumn == null) {
+            throw released();
+        }
+        if (criterion.equals(Criterion.DISTANCE)) {
+            return distanceColumn::get;
+        }
+        if (criterion.equals(Criterion.TIME)) {
+            return timeColumn::get;
+        }
+        if (criterion.equals(Criterion.COST)) {
+            return costColumn::get;
+        }
+        return edgeIndex -> criterion.weightOf(distanceColumn.get(edgeIndex), timeColumn.get(edgeIndex),
+                costColumn.get(edgeIndex));
+    }
+
+    private static IllegalStateException released() {
+        return new IllegalStateException("Graph storage has been released.");
+    }
+}
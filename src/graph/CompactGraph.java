@@ -0,0 +1,194 @@
+package graph;
+
+/**
+ * Biểu diễn đồ thị có hướng, bất biến, theo định dạng CSR (Compressed Sparse Row).
+ * Các cạnh ra của đỉnh u nằm trong đoạn chỉ số [getEdgeStart(u), getEdgeEnd(u))
+ * của các mảng song song destinations, distances, times, costs và modes.
+ * Không có đối tượng nào được cấp phát cho mỗi cạnh, nên vòng lặp duyệt cạnh
+ * chỉ đọc các mảng nguyên thủy liên tục trong bộ nhớ.
+ * Đối tượng được tạo bằng {@link Graph#freeze()}.
+ */
+public final class CompactGraph implements CsrGraph {
+    private final int maxVertices;      // Số lượng đỉnh tối đa (giống Graph gốc)
+    private final int numVertices;      // Số lượng đỉnh thực sự tồn tại
+    private final Location[] locations; // Thông tin các đỉnh, chỉ số theo ID
+    private final int[] offsets;        // Độ dài maxVertices + 1, offsets[u]..offsets[u+1] là cạnh của u
+    private final int[] destinations;   // ID đỉnh đích của mỗi cạnh
+    private final double[] distances;   // Khoảng cách của mỗi cạnh
+    private final double[] times;       // Thời gian của mỗi cạnh
+    private final double[] costs;       // Chi phí của mỗi cạnh
+    private final int[] modes;          // Bitmask phương tiện của mỗi cạnh
+    private volatile WeightColumn weightedColumn; // Cột trọng số của tiêu chí kết hợp gần nhất
+
+    /**
+     * Constructor nội bộ, chỉ được gọi từ Graph.freeze().
+     * Các mảng được giữ nguyên (không sao chép), nên phía gọi không được sửa đổi chúng sau đó.
+     */
+    CompactGraph(Location[] locations, int numVertices, int[] offsets, int[] destinations,
+                 double[] distances, double[] times, double[] costs, int[] modes) {
+        this.maxVertices = locations.length;
+        this.numVertices = numVertices;
+        this.locations = locations;
+        this.offsets = offsets;
+        this.destinations = destinations;
+        this.distances = distances;
+        this.times = times;
+        this.costs = costs;
+        this.modes = modes;
+    }
+
+    /**
+     * Lấy tổng số đỉnh tối đa của đồ thị.
+     * @return Số đỉnh tối đa.
+     */
+    @Override
+    public int getMaxVertices() {
+        return maxVertices;
+    }
+
+    /**
+     * Lấy số lượng đỉnh hiện có trong đồ thị.
+     * @return Số lượng đỉnh.
+     */
+    @Override
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Lấy tổng số cạnh của đồ thị.
+     * @return Số lượng cạnh.
+     */
+    @Override
+    public int getNumEdges() {
+        return destinations.length;
+    }
+
+    /**
+     * Lấy thông tin địa điểm dựa trên ID.
+     * @param vertexId ID của đỉnh.
+     * @return Đối tượng Location, hoặc null nếu không tồn tại.
+     */
+    @Override
+    public Location getLocationById(int vertexId) {
+        if (vertexId < 0 || vertexId >= maxVertices) {
+            return null; // ID không hợp lệ
+        }
+        return locations[vertexId];
+    }
+
+    /**
+     * Chỉ số cạnh đầu tiên của đỉnh (bao gồm).
+     * @param vertexId ID của đỉnh.
+     * @return Chỉ số cạnh đầu tiên.
+     */
+    @Override
+    public int getEdgeStart(int vertexId) {
+        return offsets[vertexId];
+    }
+
+    /**
+     * Chỉ số sau cạnh cuối cùng của đỉnh (không bao gồm).
+     * @param vertexId ID của đỉnh.
+     * @return Chỉ số kết thúc của đoạn cạnh.
+     */
+    @Override
+    public int getEdgeEnd(int vertexId) {
+        return offsets[vertexId + 1];
+    }
+
+    /**
+     * Số cạnh ra của một đỉnh.
+     * @param vertexId ID của đỉnh.
+     * @return Bậc ra của đỉnh.
+     */
+    @Override
+    public int getOutDegree(int vertexId) {
+        return offsets[vertexId + 1] - offsets[vertexId];
+    }
+
+    @Override
+    public int getDestination(int edgeIndex) {
+        return destinations[edgeIndex];
+    }
+
+    @Override
+    public double getDistance(int edgeIndex) {
+        return distances[edgeIndex];
+    }
+
+    @Override
+    public double getTime(int edgeIndex) {
+        return times[edgeIndex];
+    }
+
+    @Override
+    public double getCost(int edgeIndex) {
+        return costs[edgeIndex];
+    }
+
+    @Override
+    public int getModes(int edgeIndex) {
+        return modes[edgeIndex];
+    }
+
+    /**
+     * Lấy cột trọng số tương ứng với tiêu chí dạng chuỗi.
+     * @param criteria Chuỗi "distance", "time", hoặc "cost".
+     * @return Mảng trọng số theo chỉ số cạnh.
+     * @throws IllegalArgumentException nếu tiêu chí không hợp lệ.
+     */
+    public double[] getWeightColumn(String criteria) {
+        return getWeightColumn(Criterion.parse(criteria));
+    }
+
+    /**
+     * Lấy cột trọng số tương ứng với tiêu chí, để thuật toán chọn cột một lần
+     * thay vì tính trọng số ở mỗi cạnh.
+     * Với ba tiêu chí cơ bản, mảng trả về là mảng nội bộ (không sao chép).
+     * Với tiêu chí kết hợp, cột được tính một lần (O(E)) và giữ lại cho lần gọi sau
+     * với cùng tiêu chí. Mảng trả về chỉ được đọc.
+     * @param criterion Tiêu chí.
+     * @return Mảng trọng số theo chỉ số cạnh.
+     */
+    public double[] getWeightColumn(Criterion criterion) {
+        if (criterion.equals(Criterion.DISTANCE)) {
+            return distances;
+        }
+        if (criterion.equals(Criterion.TIME)) {
+            return times;
+        }
+        if (criterion.equals(Criterion.COST)) {
+            return costs;
+        }
+        WeightColumn cached = weightedColumn;
+        if (cached != null && cached.criterion.equals(criterion)) {
+            return cached.weights;
+        }
+        double[] weights = new double[destinations.length];
+        for (int e = 0; e < weights.length; e++) {
+            weights[e] = criterion.weightOf(distances[e], times[e], costs[e]);
+        }
+        weightedColumn = new WeightColumn(criterion, weights);
+        return weights;
+    }
+
+    @Override
+    public EdgeWeights getEdgeWeights(Criterion criterion) {
+        double[] weights = getWeightColumn(criterion);
+        return edgeIndex -> weights[edgeIndex];
+    }
+
+    /**
+     * Cột trọng số đã tính cho một tiêu chí kết hợp (bất biến, công bố qua trường volatile).
+     */
+    private static final class WeightColumn {
+        final Criterion criterion;
+        final double[] weights;
+
+        WeightColumn(Criterion criterion, double[] weights) {
+            this.criterion = criterion;
+            this.weights = weights;
+        }
+    }
+}
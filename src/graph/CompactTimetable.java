@@ -0,0 +1,105 @@
+package graph;
+
+/**
+ * Lịch chạy bất biến: các chuyến nối được sắp theo giờ khởi hành tăng dần và lưu trong các mảng
+ * nguyên thủy song song (điểm khởi hành, điểm đến, giờ khởi hành, giờ đến, ID chuyến, phương tiện).
+ * Thuật toán Connection Scan chỉ duyệt tuần tự các mảng này, không cấp phát đối tượng cho mỗi chuyến nối.
+ * ID điểm dừng là ID địa điểm của đồ thị gốc. Đối tượng được tạo bằng {@link Timetable#freeze()}.
+ */
+public final class CompactTimetable {
+    private final Location[] locations;   // Thông tin các điểm dừng, chỉ số theo ID
+    private final int numTrips;           // ID chuyến nằm trong [0, numTrips)
+    private final int[] departureStops;
+    private final int[] arrivalStops;
+    private final double[] departureTimes; // Tăng dần
+    private final double[] arrivalTimes;
+    private final int[] tripIds;
+    private final int[] modes;             // Bitmask (một bit) phương tiện của mỗi chuyến nối
+
+    /**
+     * Constructor nội bộ, chỉ được gọi từ Timetable.freeze().
+     * Các mảng được giữ nguyên (không sao chép), nên phía gọi không được sửa đổi chúng sau đó.
+     */
+    CompactTimetable(Location[] locations, int numTrips, int[] departureStops, int[] arrivalStops,
+                     double[] departureTimes, double[] arrivalTimes, int[] tripIds, int[] modes) {
+        this.locations = locations;
+        this.numTrips = numTrips;
+        this.departureStops = departureStops;
+        this.arrivalStops = arrivalStops;
+        this.departureTimes = departureTimes;
+        this.arrivalTimes = arrivalTimes;
+        this.tripIds = tripIds;
+        this.modes = modes;
+    }
+
+    /**
+     * Lấy số ID điểm dừng tối đa (bằng số đỉnh tối đa của đồ thị gốc).
+     * @return Số điểm dừng tối đa.
+     */
+    public int getMaxStops() {
+        return locations.length;
+    }
+
+    public int getNumConnections() {
+        return departureStops.length;
+    }
+
+    public int getNumTrips() {
+        return numTrips;
+    }
+
+    /**
+     * Lấy thông tin địa điểm dựa trên ID.
+     * @param stopId ID của điểm dừng.
+     * @return Đối tượng Location, hoặc null nếu không tồn tại.
+     */
+    public Location getLocationById(int stopId) {
+        if (stopId < 0 || stopId >= locations.length) {
+            return null; // ID không hợp lệ
+        }
+        return locations[stopId];
+    }
+
+    public int getDepartureStop(int connection) {
+        return departureStops[connection];
+    }
+
+    public int getArrivalStop(int connection) {
+        return arrivalStops[connection];
+    }
+
+    public double getDepartureTime(int connection) {
+        return departureTimes[connection];
+    }
+
+    public double getArrivalTime(int connection) {
+        return arrivalTimes[connection];
+    }
+
+    public int getTripId(int connection) {
+        return tripIds[connection];
+    }
+
+    public int getModes(int connection) {
+        return modes[connection];
+    }
+
+    /**
+     * Tìm chuyến nối đầu tiên khởi hành không sớm hơn một thời điểm (tìm kiếm nhị phân).
+     * @param time Thời điểm.
+     * @return Chỉ số chuyến nối, hoặc getNumConnections() nếu mọi chuyến nối đều khởi hành sớm hơn.
+     */
+    public int firstConnectionAtOrAfter(double time) {
+        int low = 0;
+        int high = departureTimes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (departureTimes[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,456 @@
+package graph;
+
+/**
+ * Đồ thị an toàn luồng cho cập nhật trực tiếp trong khi đang có nhiều truy vấn.
+ * Trạng thái hiện tại là một {@link GraphSnapshot} bất biến, công bố qua trường volatile.
+ * - Bên đọc gọi {@link #snapshot()} một lần cho mỗi truy vấn và chạy thuật toán trên ảnh chụp đó:
+ *   không khóa, không bao giờ bị chặn và không thấy trạng thái dở dang.
+ * - Bên ghi được tuần tự hóa bằng một khóa; mỗi thay đổi chỉ sao chép bảng trang,
+ *   các trang bị chạm tới và mảng Route[] của đỉnh liên quan (copy-on-write),
+ *   rồi công bố ảnh chụp mới với epoch tăng thêm 1.
+ * Route là bất biến, nên thay đổi trọng số được thực hiện bằng cách thay Route mới.
+ * Vì mỗi lần công bố sao chép bảng trang, nạp số lượng lớn không nên đi qua addVertex/addEdge từng cái:
+ * dựng {@link Graph} trước rồi dùng {@link #ConcurrentGraph(GraphView)}, hoặc gom thay đổi bằng
+ * {@link #addVertices(Iterable)} và {@link #apply(EdgeUpdateBatch)} để cả nhóm dùng chung một lần sao chép.
+ */
+public class ConcurrentGraph {
+    private final int maxVertices;
+    private final Object writeLock = new Object();
+    private volatile GraphSnapshot current;
+
+    /**
+     * Constructor.
+     * @param maxVertices Số lượng đỉnh tối đa mà đồ thị có thể chứa.
+     */
+    public ConcurrentGraph(int maxVertices) {
+        if (maxVertices <= 0) {
+            throw new IllegalArgumentException("Maximum vertices must be positive.");
+        }
+        this.maxVertices = maxVertices;
+        int numPages = (maxVertices + GraphSnapshot.PAGE_SIZE - 1) >>> GraphSnapshot.PAGE_SHIFT;
+        GraphSnapshot.Page[] pages = new GraphSnapshot.Page[numPages];
+        for (int p = 0; p < numPages; p++) {
+            pages[p] = new GraphSnapshot.Page(Math.min(GraphSnapshot.PAGE_SIZE, maxVertices - (p << GraphSnapshot.PAGE_SHIFT)));
+        }
+        this.current = new GraphSnapshot(this, pages, maxVertices, 0, 0, 0L);
+    }
+
+    /**
+     * Constructor nạp hàng loạt: dựng trực tiếp các trang từ một đồ thị có sẵn (ví dụ Graph vừa nạp
+     * bằng GraphLoader) trong O(V + E), thay vì công bố một ảnh chụp cho mỗi đỉnh và mỗi cạnh.
+     * Route là bất biến nên được dùng chung với đồ thị gốc; thay đổi sau đó không ảnh hưởng lẫn nhau.
+     * Số đỉnh tối đa bằng của đồ thị nguồn (ít nhất 1).
+     * @param graph Đồ thị nguồn (không bị sửa đổi).
+     */
+    public ConcurrentGraph(GraphView graph) {
+        this(Math.max(1, graph.getMaxVertices()));
+        GraphSnapshot.Page[] pages = current.pages;
+        int numVertices = 0;
+        int numEdges = 0;
+        for (int id = 0; id < graph.getMaxVertices(); id++) {
+            Location location = graph.getLocationById(id);
+            if (location == null) {
+                continue;
+            }
+            GraphSnapshot.Page page = pages[id >>> GraphSnapshot.PAGE_SHIFT];
+            int slot = id & GraphSnapshot.PAGE_MASK;
+            page.locations[slot] = location;
+            page.outgoing[slot] = toArray(graph.getNeighbors(id));
+            page.incoming[slot] = toArray(graph.getIncomingRoutes(id));
+            numVertices++;
+            numEdges += page.outgoing[slot].length;
+        }
+        // Ảnh chụp rỗng ban đầu chưa được ai đọc, nên các trang có thể điền tại chỗ
+        this.current = new GraphSnapshot(this, pages, maxVertices, numVertices, numEdges, 0L);
+    }
+
+    /**
+     * Lấy ảnh chụp hiện tại. Truy vấn nên giữ một ảnh chụp trong suốt quá trình tìm kiếm.
+     * @return Ảnh chụp bất biến mới nhất.
+     */
+    public GraphSnapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Lấy epoch của ảnh chụp mới nhất.
+     * @return Epoch hiện tại.
+     */
+    public long getEpoch() {
+        return current.getEpoch();
+    }
+
+    public int getMaxVertices() {
+        return maxVertices;
+    }
+
+    /**
+     * Thêm một đỉnh (địa điểm) vào đồ thị.
+     * @param location Địa điểm cần thêm.
+     * @throws IllegalArgumentException nếu ID đã tồn tại hoặc không hợp lệ.
+     */
+    public void addVertex(Location location) {
+        synchronized (writeLock) {
+            Mutation mutation = new Mutation(current);
+            mutation.addVertex(location);
+            current = mutation.publish();
+        }
+    }
+
+    /**
+     * Thêm nhiều đỉnh và công bố chúng trong một ảnh chụp mới duy nhất (mỗi trang bị chạm tới
+     * chỉ được sao chép một lần). Nếu có đỉnh không hợp lệ, không đỉnh nào được thêm.
+     * @param locations Các địa điểm cần thêm.
+     * @return Số đỉnh đã thêm (0 thì không công bố ảnh chụp mới).
+     * @throws IllegalArgumentException nếu có ID đã tồn tại hoặc không hợp lệ.
+     */
+    public int addVertices(Iterable<Location> locations) {
+        synchronized (writeLock) {
+            Mutation mutation = new Mutation(current);
+            for (Location location : locations) {
+                mutation.addVertex(location);
+            }
+            if (mutation.changes > 0) {
+                current = mutation.publish();
+            }
+            return mutation.changes;
+        }
+    }
+
+    /**
+     * Thêm một cạnh có hướng dùng được với mọi phương tiện.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public void addEdge(int sourceId, int destId, double distance, double time, double cost) {
+        addEdge(sourceId, destId, distance, time, cost, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Thêm một cạnh có hướng chỉ dành cho một phương tiện.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public void addEdge(int sourceId, int destId, double distance, double time, double cost, TransportMode mode) {
+        addEdge(sourceId, destId, distance, time, cost, mode.mask());
+    }
+
+    /**
+     * Thêm một cạnh có hướng dành cho một tập phương tiện.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param distance Khoảng cách.
+     * @param time Thời gian.
+     * @param cost Chi phí.
+     * @param modes Bitmask phương tiện (khác 0).
+     * @throws IllegalArgumentException nếu ID không hợp lệ, đỉnh không tồn tại hoặc bitmask rỗng.
+     */
+    public void addEdge(int sourceId, int destId, double distance, double time, double cost, int modes) {
+        synchronized (writeLock) {
+            Mutation mutation = new Mutation(current);
+            mutation.addEdge(sourceId, destId, distance, time, cost, modes);
+            current = mutation.publish();
+        }
+    }
+
+    /**
+     * Xóa tất cả các cạnh sourceId -> destId.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @return Số cạnh đã xóa (0 thì không công bố ảnh chụp mới).
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public int removeEdge(int sourceId, int destId) {
+        return removeEdge(sourceId, destId, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Gỡ các phương tiện trong modes khỏi các cạnh sourceId -> destId. Giống {@link Graph#removeEdge},
+     * cạnh dùng chung cho nhiều phương tiện chỉ mất các phương tiện trong modes;
+     * cạnh bị xóa hẳn khi không còn phương tiện nào.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param modes Bitmask phương tiện.
+     * @return Số cạnh đã bị xóa hoặc bị gỡ phương tiện (0 thì không công bố ảnh chụp mới).
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public int removeEdge(int sourceId, int destId, int modes) {
+        synchronized (writeLock) {
+            Mutation mutation = new Mutation(current);
+            int removed = mutation.removeEdge(sourceId, destId, modes);
+            if (removed > 0) {
+                current = mutation.publish();
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * Thay đổi trọng số của các cạnh sourceId -> destId dùng được với phương tiện mode.
+     * Hồ sơ thời gian (nếu có) của cạnh được giữ nguyên. Giống {@link Graph#updateEdgeWeights}, cạnh dùng
+     * chung cho nhiều phương tiện được tách: các phương tiện khác giữ trọng số cũ.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param mode Phương tiện.
+     * @param distance Khoảng cách mới.
+     * @param time Thời gian mới.
+     * @param cost Chi phí mới.
+     * @return Số cạnh đã thay đổi (0 thì không công bố ảnh chụp mới).
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public int updateEdgeWeights(int sourceId, int destId, TransportMode mode,
+                                 double distance, double time, double cost) {
+        synchronized (writeLock) {
+            Mutation mutation = new Mutation(current);
+            int updated = mutation.updateEdgeWeights(sourceId, destId, mode.mask(), distance, time, cost);
+            if (updated > 0) {
+                current = mutation.publish();
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * Áp dụng một lô thay đổi và công bố nguyên tử thành một epoch mới; cả lô dùng chung
+     * một lần sao chép bảng trang. Nếu có thao tác không hợp lệ, không thay đổi nào được công bố.
+     * Nếu không thao tác nào thay đổi đồ thị (lô rỗng, hoặc chỉ xóa/cập nhật cạnh không tồn tại),
+     * không có epoch mới, nên cache gắn với đồ thị không bị xóa vô ích.
+     * @param batch Lô thay đổi.
+     * @return Ảnh chụp vừa công bố, hoặc ảnh chụp hiện tại nếu không có gì thay đổi.
+     * @throws IllegalArgumentException nếu lô tham chiếu đỉnh không tồn tại.
+     */
+    public GraphSnapshot apply(EdgeUpdateBatch batch) {
+        synchronized (writeLock) {
+            if (batch.isEmpty()) {
+                return current;
+            }
+            Mutation mutation = new Mutation(current);
+            for (EdgeUpdateBatch.Operation op : batch.getOperations()) {
+                switch (op.type) {
+                    case EdgeUpdateBatch.ADD:
+                        mutation.addEdge(op.sourceId, op.destId, op.distance, op.time, op.cost, op.modes);
+                        break;
+                    case EdgeUpdateBatch.REMOVE:
+                        mutation.removeEdge(op.sourceId, op.destId, op.modes);
+                        break;
+                    default:
+                        mutation.updateEdgeWeights(op.sourceId, op.destId, op.modes, op.distance, op.time, op.cost);
+                        break;
+                }
+            }
+            // Chỉ công bố sau khi mọi thao tác thành công, và chỉ khi có thay đổi thật sự
+            if (mutation.changes > 0) {
+                current = mutation.publish();
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Một lượt thay đổi trên một ảnh chụp gốc. Mỗi trang chỉ được sao chép một lần
+     * cho dù có nhiều thay đổi chạm tới nó, và chỉ khi thật sự có thay đổi; ảnh chụp gốc không bị sửa đổi.
+     * Chỉ dùng khi đang giữ writeLock.
+     */
+    private final class Mutation {
+        private final GraphSnapshot base;
+        private final GraphSnapshot.Page[] pages;
+        private final boolean[] copied;
+        private int numVertices;
+        private int numEdges;
+        int changes; // Số đỉnh/cạnh đã thêm, xóa hoặc cập nhật
+
+        Mutation(GraphSnapshot base) {
+            this.base = base;
+            this.pages = base.pages.clone();
+            this.copied = new boolean[pages.length];
+            this.numVertices = base.getNumVertices();
+            this.numEdges = base.getNumEdges();
+        }
+
+        private GraphSnapshot.Page pageForWrite(int vertexId) {
+            int p = vertexId >>> GraphSnapshot.PAGE_SHIFT;
+            if (!copied[p]) {
+                pages[p] = pages[p].copy();
+                copied[p] = true;
+            }
+            return pages[p];
+        }
+
+        private Location location(int vertexId) {
+            return pages[vertexId >>> GraphSnapshot.PAGE_SHIFT].locations[vertexId & GraphSnapshot.PAGE_MASK];
+        }
+
+        private void validateExisting(int vertexId, String role) {
+            if (vertexId < 0 || vertexId >= maxVertices) {
+                throw new IllegalArgumentException("Invalid vertex ID: " + vertexId + ". Must be between 0 and " + (maxVertices - 1));
+            }
+            if (location(vertexId) == null) {
+                throw new IllegalArgumentException(role + " vertex " + vertexId + " does not exist.");
+            }
+        }
+
+        void addVertex(Location location) {
+            int id = location.id;
+            if (id < 0 || id >= maxVertices) {
+                throw new IllegalArgumentException("Invalid Location ID: " + id + ". Must be between 0 and " + (maxVertices - 1));
+            }
+            if (location(id) != null) {
+                throw new IllegalArgumentException("Location with ID " + id + " already exists.");
+            }
+            pageForWrite(id).locations[id & GraphSnapshot.PAGE_MASK] = location;
+            numVertices++;
+            changes++;
+        }
+
+        void addEdge(int sourceId, int destId, double distance, double time, double cost, int modes) {
+            if ((modes & TransportMode.ALL_MODES) == 0) {
+                throw new IllegalArgumentException("Transport mode mask must contain at least one mode.");
+            }
+            validateExisting(sourceId, "Source");
+            validateExisting(destId, "Destination");
+            GraphSnapshot.Page sourcePage = pageForWrite(sourceId);
+            int s = sourceId & GraphSnapshot.PAGE_MASK;
+            sourcePage.outgoing[s] = append(sourcePage.outgoing[s], new Route(destId, distance, time, cost, modes));
+            GraphSnapshot.Page destPage = pageForWrite(destId);
+            int d = destId & GraphSnapshot.PAGE_MASK;
+            destPage.incoming[d] = append(destPage.incoming[d], new Route(sourceId, distance, time, cost, modes));
+            numEdges++;
+            changes++;
+        }
+
+        int removeEdge(int sourceId, int destId, int modes) {
+            validateExisting(sourceId, "Source");
+            validateExisting(destId, "Destination");
+            int s = sourceId & GraphSnapshot.PAGE_MASK;
+            Route[] outgoing = pages[sourceId >>> GraphSnapshot.PAGE_SHIFT].outgoing[s];
+            int removed = countMatches(outgoing, destId, modes);
+            if (removed == 0) {
+                return 0;
+            }
+            GraphSnapshot.Page sourcePage = pageForWrite(sourceId);
+            int splits = countSplits(outgoing, destId, modes);
+            sourcePage.outgoing[s] = without(outgoing, destId, modes, removed - splits);
+            GraphSnapshot.Page destPage = pageForWrite(destId);
+            int d = destId & GraphSnapshot.PAGE_MASK;
+            Route[] incoming = destPage.incoming[d];
+            destPage.incoming[d] = without(incoming, sourceId, modes,
+                    countMatches(incoming, sourceId, modes) - countSplits(incoming, sourceId, modes));
+            numEdges -= removed - splits; // Cạnh bị tách vẫn còn (với ít phương tiện hơn)
+            changes += removed;
+            return removed;
+        }
+
+        int updateEdgeWeights(int sourceId, int destId, int modes, double distance, double time, double cost) {
+            validateExisting(sourceId, "Source");
+            validateExisting(destId, "Destination");
+            int s = sourceId & GraphSnapshot.PAGE_MASK;
+            Route[] outgoing = pages[sourceId >>> GraphSnapshot.PAGE_SHIFT].outgoing[s];
+            int updated = countMatches(outgoing, destId, modes);
+            if (updated == 0) {
+                return 0;
+            }
+            GraphSnapshot.Page sourcePage = pageForWrite(sourceId);
+            int splits = countSplits(outgoing, destId, modes);
+            sourcePage.outgoing[s] = updated(outgoing, destId, modes, splits, distance, time, cost);
+            GraphSnapshot.Page destPage = pageForWrite(destId);
+            int d = destId & GraphSnapshot.PAGE_MASK;
+            Route[] incoming = destPage.incoming[d];
+            destPage.incoming[d] = updated(incoming, sourceId, modes, countSplits(incoming, sourceId, modes),
+                    distance, time, cost);
+            numEdges += splits;
+            changes += updated;
+            return updated;
+        }
+
+        GraphSnapshot publish() {
+            return new GraphSnapshot(ConcurrentGraph.this, pages, maxVertices, numVertices, numEdges, base.getEpoch() + 1);
+        }
+    }
+
+    private static Route[] toArray(Iterable<Route> routes) {
+        int size = 0;
+        for (Route ignored : routes) {
+            size++;
+        }
+        if (size == 0) {
+            return GraphSnapshot.NO_ROUTES;
+        }
+        Route[] result = new Route[size];
+        int i = 0;
+        for (Route route : routes) {
+            result[i++] = route;
+        }
+        return result;
+    }
+
+    private static Route[] append(Route[] routes, Route route) {
+        Route[] result = new Route[routes.length + 1];
+        System.arraycopy(routes, 0, result, 0, routes.length);
+        result[routes.length] = route;
+        return result;
+    }
+
+    private static int countMatches(Route[] routes, int targetId, int modes) {
+        int count = 0;
+        for (Route route : routes) {
+            if (route.destinationId == targetId && route.allows(modes)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Đếm các cạnh khớp có thêm phương tiện ngoài modes (bị tách khi cập nhật trọng số,
+     * hoặc còn lại với ít phương tiện hơn khi gỡ modes).
+     */
+    private static int countSplits(Route[] routes, int targetId, int modes) {
+        int count = 0;
+        for (Route route : routes) {
+            if (route.destinationId == targetId && route.allows(modes) && (route.modes & ~modes) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Mảng mới trong đó mỗi cạnh khớp được thay bằng cạnh trọng số mới của modes, theo sau là
+     * phần còn lại giữ trọng số cũ nếu cạnh bị tách.
+     */
+    private static Route[] updated(Route[] routes, int targetId, int modes, int splits,
+                                   double distance, double time, double cost) {
+        Route[] result = new Route[routes.length + splits];
+        int size = 0;
+        for (Route route : routes) {
+            if (route.destinationId == targetId && route.allows(modes)) {
+                result[size++] = Graph.updatedRoute(route, modes, distance, time, cost);
+                if ((route.modes & ~modes) != 0) {
+                    result[size++] = Graph.remainderRoute(route, modes);
+                }
+            } else {
+                result[size++] = route;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mảng mới trong đó modes bị gỡ khỏi mỗi cạnh khớp: cạnh còn phương tiện khác được thay bằng
+     * phần còn lại, cạnh không còn phương tiện nào bị bỏ.
+     * @param dropped Số cạnh khớp không còn phương tiện nào.
+     */
+    private static Route[] without(Route[] routes, int targetId, int modes, int dropped) {
+        if (dropped == routes.length) {
+            return GraphSnapshot.NO_ROUTES;
+        }
+        Route[] result = new Route[routes.length - dropped];
+        int size = 0;
+        for (Route route : routes) {
+            if (!(route.destinationId == targetId && route.allows(modes))) {
+                result[size++] = route;
+            } else if ((route.modes & ~modes) != 0) {
+                result[size++] = Graph.remainderRoute(route, modes);
+            }
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package graph;
+
+import java.io.Serializable;
+
+/**
+ * Tiêu chí tối ưu của một truy vấn tìm đường.
+ * Mỗi tiêu chí là một tổ hợp tuyến tính không âm của (distance, time, cost):
+ *     weight = distanceFactor * distance + timeFactor * time + costFactor * cost.
+ * Ba tiêu chí cơ bản DISTANCE, TIME, COST là hằng số; tiêu chí kết hợp do người dùng
+ * định nghĩa được tạo bằng {@link #weighted(double, double, double)}.
+ * Tiêu chí được kiểm tra một lần khi tạo (hoặc khi parse chuỗi), sau đó
+ * {@link #weightOf(Route)} chỉ là vài phép nhân/cộng, không tạo đối tượng mới,
+ * nên JIT có thể inline trong vòng lặp nới lỏng cạnh.
+ */
+public final class Criterion implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final Criterion DISTANCE = new Criterion("distance", 1.0, 0.0, 0.0);
+    public static final Criterion TIME = new Criterion("time", 0.0, 1.0, 0.0);
+    public static final Criterion COST = new Criterion("cost", 0.0, 0.0, 1.0);
+
+    private final String name;
+    private final double distanceFactor;
+    private final double timeFactor;
+    private final double costFactor;
+
+    private Criterion(String name, double distanceFactor, double timeFactor, double costFactor) {
+        this.name = name;
+        this.distanceFactor = distanceFactor;
+        this.timeFactor = timeFactor;
+        this.costFactor = costFactor;
+    }
+
+    /**
+     * Tạo tiêu chí kết hợp có trọng số.
+     * @param distanceFactor Hệ số cho khoảng cách.
+     * @param timeFactor Hệ số cho thời gian.
+     * @param costFactor Hệ số cho chi phí.
+     * @return Tiêu chí tương ứng.
+     * @throws IllegalArgumentException nếu có hệ số âm/không hữu hạn hoặc tất cả bằng 0.
+     */
+    public static Criterion weighted(double distanceFactor, double timeFactor, double costFactor) {
+        if (!isValidFactor(distanceFactor) || !isValidFactor(timeFactor) || !isValidFactor(costFactor)) {
+            throw new IllegalArgumentException("Criterion factors must be finite and non-negative.");
+        }
+        if (distanceFactor == 0.0 && timeFactor == 0.0 && costFactor == 0.0) {
+            throw new IllegalArgumentException("At least one criterion factor must be positive.");
+        }
+        String name = "weighted(" + distanceFactor + "*distance + " + timeFactor + "*time + " + costFactor + "*cost)";
+        return new Criterion(name, distanceFactor, timeFactor, costFactor);
+    }
+
+    private static boolean isValidFactor(double factor) {
+        return factor >= 0.0 && !Double.isInfinite(factor);
+    }
+
+    /**
+     * Chuyển chuỗi tiêu chí ("distance", "time", "cost", không phân biệt hoa thường) thành Criterion.
+     * @param criteria Chuỗi tiêu chí.
+     * @return Hằng số Criterion tương ứng.
+     * @throws IllegalArgumentException nếu tiêu chí không hợp lệ.
+     */
+    public static Criterion parse(String criteria) {
+        if (criteria != null) {
+            if (criteria.equalsIgnoreCase("distance")) {
+                return DISTANCE;
+            }
+            if (criteria.equalsIgnoreCase("time")) {
+                return TIME;
+            }
+            if (criteria.equalsIgnoreCase("cost")) {
+                return COST;
+            }
+        }
+        throw new IllegalArgumentException("Invalid criteria: " + criteria + ". Use 'distance', 'time', or 'cost'.");
+    }
+
+    /**
+     * Tính trọng số từ ba thuộc tính của cạnh.
+     * @param distance Khoảng cách.
+     * @param time Thời gian.
+     * @param cost Chi phí.
+     * @return Trọng số theo tiêu chí này.
+     */
+    public double weightOf(double distance, double time, double cost) {
+        return distanceFactor * distance + timeFactor * time + costFactor * cost;
+    }
+
+    /**
+     * Tính trọng số của một tuyến đường.
+     * @param route Tuyến đường.
+     * @return Trọng số theo tiêu chí này.
+     */
+    public double weightOf(Route route) {
+        return distanceFactor * route.distance + timeFactor * route.time + costFactor * route.cost;
+    }
+
+    public double getDistanceFactor() {
+        return distanceFactor;
+    }
+
+    public double getTimeFactor() {
+        return timeFactor;
+    }
+
+    public double getCostFactor() {
+        return costFactor;
+    }
+
+    /**
+     * Lấy tên tiêu chí ("distance", "time", "cost" hoặc mô tả tổ hợp).
+     * @return Tên tiêu chí.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Criterion other = (Criterion) o;
+        return Double.compare(distanceFactor, other.distanceFactor) == 0
+                && Double.compare(timeFactor, other.timeFactor) == 0
+                && Double.compare(costFactor, other.costFactor) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(distanceFactor);
+        result = 31 * result + Double.hashCode(timeFactor);
+        result = 31 * result + Double.hashCode(costFactor);
+        return result;
+    }
+}
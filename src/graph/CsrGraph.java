@@ -0,0 +1,78 @@
+package graph;
+
+/**
+ * Giao diện chỉ đọc của một đồ thị có hướng theo định dạng CSR (Compressed Sparse Row):
+ * các cạnh ra của đỉnh u nằm trong đoạn chỉ số [getEdgeStart(u), getEdgeEnd(u)) của các cột
+ * đích, khoảng cách, thời gian, chi phí và phương tiện. Các thuật toán CSR duyệt cạnh theo chỉ số,
+ * không tạo đối tượng Route.
+ * Được cài đặt bởi {@link CompactGraph} (mảng trên heap), {@link MappedGraph}
+ * (file nhị phân ánh xạ vào bộ nhớ) và {@link OffHeapGraph} (vùng nhớ ngoài heap).
+ */
+public interface CsrGraph {
+
+    /**
+     * Lấy tổng số đỉnh tối đa (ID hợp lệ nằm trong [0, getMaxVertices())).
+     * @return Số đỉnh tối đa.
+     */
+    int getMaxVertices();
+
+    /**
+     * Lấy số lượng đỉnh hiện có.
+     * @return Số lượng đỉnh.
+     */
+    int getNumVertices();
+
+    /**
+     * Lấy tổng số cạnh.
+     * @return Số lượng cạnh.
+     */
+    int getNumEdges();
+
+    /**
+     * Lấy thông tin địa điểm dựa trên ID.
+     * @param vertexId ID của đỉnh.
+     * @return Đối tượng Location, hoặc null nếu không tồn tại.
+     */
+    Location getLocationById(int vertexId);
+
+    /**
+     * Chỉ số cạnh đầu tiên của đỉnh (bao gồm).
+     * @param vertexId ID của đỉnh.
+     * @return Chỉ số cạnh đầu tiên.
+     */
+    int getEdgeStart(int vertexId);
+
+    /**
+     * Chỉ số sau cạnh cuối cùng của đỉnh (không bao gồm).
+     * @param vertexId ID của đỉnh.
+     * @return Chỉ số kết thúc của đoạn cạnh.
+     */
+    int getEdgeEnd(int vertexId);
+
+    /**
+     * Số cạnh ra của một đỉnh.
+     * @param vertexId ID của đỉnh.
+     * @return Bậc ra của đỉnh.
+     */
+    default int getOutDegree(int vertexId) {
+        return getEdgeEnd(vertexId) - getEdgeStart(vertexId);
+    }
+
+    int getDestination(int edgeIndex);
+
+    double getDistance(int edgeIndex);
+
+    double getTime(int edgeIndex);
+
+    double getCost(int edgeIndex);
+
+    int getModes(int edgeIndex);
+
+    /**
+     * Lấy trọng số cạnh theo tiêu chí, để thuật toán chọn cột một lần trước khi tìm kiếm
+     * thay vì xét tiêu chí ở mỗi cạnh.
+     * @param criterion Tiêu chí.
+     * @return Trọng số theo chỉ số cạnh.
+     */
+    EdgeWeights getEdgeWeights(Criterion criterion);
+}
@@ -0,0 +1,126 @@
+package graph;
+
+import datastructure.CustomLinkedList;
+
+/**
+ * Một lô thay đổi cạnh (thêm, xóa, đổi trọng số) được áp dụng cùng lúc.
+ * Với {@link ConcurrentGraph#apply(EdgeUpdateBatch)}, cả lô được công bố nguyên tử
+ * thành một epoch mới: truy vấn đang chạy vẫn dùng epoch cũ, truy vấn sau đó thấy
+ * toàn bộ lô, không bao giờ thấy một phần. Mỗi trang bị chạm tới chỉ được sao chép
+ * một lần cho cả lô, nên áp dụng hàng nghìn thay đổi một lúc rẻ hơn nhiều so với từng thay đổi.
+ * Các thao tác được áp dụng theo đúng thứ tự thêm vào lô.
+ */
+public class EdgeUpdateBatch {
+
+    static final int ADD = 0;
+    static final int REMOVE = 1;
+    static final int UPDATE = 2;
+
+    /**
+     * Một thao tác trong lô.
+     */
+    static final class Operation {
+        final int type;
+        final int sourceId;
+        final int destId;
+        final int modes;
+        final double distance;
+        final double time;
+        final double cost;
+
+        Operation(int type, int sourceId, int destId, int modes, double distance, double time, double cost) {
+            this.type = type;
+            this.sourceId = sourceId;
+            this.destId = destId;
+            this.modes = modes;
+            this.distance = distance;
+            this.time = time;
+            this.cost = cost;
+        }
+    }
+
+    private final CustomLinkedList<Operation> operations = new CustomLinkedList<>();
+
+    /**
+     * Thêm thao tác thêm cạnh dành cho một phương tiện.
+     * @return Chính lô này (để gọi nối tiếp).
+     */
+    public EdgeUpdateBatch addEdge(int sourceId, int destId, double distance, double time, double cost,
+                                   TransportMode mode) {
+        return addEdge(sourceId, destId, distance, time, cost, mode.mask());
+    }
+
+    /**
+     * Thêm thao tác thêm cạnh dành cho một tập phương tiện.
+     * @return Chính lô này (để gọi nối tiếp).
+     * @throws IllegalArgumentException nếu bitmask rỗng.
+     */
+    public EdgeUpdateBatch addEdge(int sourceId, int destId, double distance, double time, double cost, int modes) {
+        if ((modes & TransportMode.ALL_MODES) == 0) {
+            throw new IllegalArgumentException("Transport mode mask must contain at least one mode.");
+        }
+        operations.add(new Operation(ADD, sourceId, destId, modes, distance, time, cost));
+        return this;
+    }
+
+    /**
+     * Thêm thao tác xóa tất cả các cạnh sourceId -> destId.
+     * @return Chính lô này (để gọi nối tiếp).
+     */
+    public EdgeUpdateBatch removeEdge(int sourceId, int destId) {
+        return removeEdge(sourceId, destId, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Thêm thao tác gỡ các phương tiện trong modes khỏi các cạnh sourceId -> destId
+     * (cạnh dùng chung giữ các phương tiện khác, cạnh không còn phương tiện nào bị xóa).
+     * @return Chính lô này (để gọi nối tiếp).
+     */
+    public EdgeUpdateBatch removeEdge(int sourceId, int destId, int modes) {
+        operations.add(new Operation(REMOVE, sourceId, destId, modes, 0.0, 0.0, 0.0));
+        return this;
+    }
+
+    /**
+     * Thêm thao tác đổi trọng số các cạnh sourceId -> destId dùng được với phương tiện mode
+     * (cạnh dùng chung cho nhiều phương tiện được tách, các phương tiện khác giữ trọng số cũ).
+     * @return Chính lô này (để gọi nối tiếp).
+     */
+    public EdgeUpdateBatch updateEdgeWeights(int sourceId, int destId, TransportMode mode,
+                                             double distance, double time, double cost) {
+        operations.add(new Operation(UPDATE, sourceId, destId, mode.mask(), distance, time, cost));
+        return this;
+    }
+
+    /**
+     * Lấy số thao tác trong lô.
+     * @return Số thao tác.
+     */
+    public int size() {
+        return operations.size();
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    CustomLinkedList<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Kiểm tra mọi thao tác chỉ tham chiếu các đỉnh đang tồn tại, trước khi áp dụng bất kỳ thao tác nào.
+     * @param graph Đồ thị sẽ được áp dụng lô.
+     * @throws IllegalArgumentException nếu có ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    void validate(GraphView graph) {
+        for (Operation operation : operations) {
+            if (graph.getLocationById(operation.sourceId) == null) {
+                throw new IllegalArgumentException("Source vertex " + operation.sourceId + " does not exist.");
+            }
+            if (graph.getLocationById(operation.destId) == null) {
+                throw new IllegalArgumentException("Destination vertex " + operation.destId + " does not exist.");
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package graph;
+
+/**
+ * Cột trọng số cạnh của một {@link CsrGraph} theo một tiêu chí, đọc theo chỉ số cạnh.
+ */
+@FunctionalInterface
+public interface EdgeWeights {
+
+    /**
+     * Lấy trọng số của một cạnh.
+     * @param edgeIndex Chỉ số cạnh.
+     * @return Trọng số.
+     */
+    double get(int edgeIndex);
+}
@@ -1,54 +1,159 @@
 package graph;
 
 import datastructure.CustomLinkedList; // Sử dụng LinkedList tự cài đặt
+import datastructure.LongIntHashMap;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf/fill để thay đổi kích thước mảng
 
 /**
  * Biểu diễn đồ thị có hướng, có trọng số sử dụng danh sách kề.
+ * Các mảng theo ID tự mở rộng (nhân đôi) khi thêm đỉnh có ID lớn hơn dung lượng hiện tại, nên không cần
+ * biết trước số đỉnh. ID đỉnh là chỉ số mảng, vì vậy với ID ngoài thưa hoặc 64-bit (ví dụ ID nút
+ * OpenStreetMap) hãy dùng {@link #addVertex(long, String, double, double)}: đỉnh nhận ID trong dày đặc
+ * tiếp theo và ánh xạ ID ngoài -> ID trong được giữ trong bảng băm long -> int.
+ * Không đồng bộ hóa: khi cần cập nhật trong lúc đang truy vấn, dùng {@link ConcurrentGraph}.
  */
-public class Graph {
-    private final int maxVertices; // Số lượng đỉnh tối đa (cần biết trước hoặc dùng cấu trúc động hơn)
-    private Location[] locations; // Mảng lưu thông tin các đỉnh (Location)
-    private CustomLinkedList<Route>[] adjList; // Mảng các danh sách kề (Route)
+public class Graph implements GraphView {
+    /** Giá trị {@link #getExternalId} trả về cho đỉnh không có ID ngoài. */
+    public static final long NO_EXTERNAL_ID = Long.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8; // Giới hạn kích thước mảng của JVM
+
+    private int idBound; // ID lớn nhất đang có + 1; mọi ID đỉnh hợp lệ nằm trong [0, idBound)
+    private Location[] locations; // Mảng lưu thông tin các đỉnh (Location), chỉ số theo ID
+    private CustomLinkedList<Route>[] adjList; // Mảng các danh sách kề (Route), null nếu đỉnh chưa tồn tại
+    private CustomLinkedList<Route>[] reverseAdjList; // Danh sách kề ngược: cạnh đi vào mỗi đỉnh
     private int numVertices; // Số lượng đỉnh hiện tại
+    private long[] externalIds; // ID ngoài theo ID trong (null cho đến khi dùng ID ngoài lần đầu)
+    private LongIntHashMap externalIndex; // ID ngoài -> ID trong
+    private long epoch; // Tăng mỗi khi đồ thị thay đổi
+
+    /**
+     * Constructor với dung lượng mặc định; đồ thị tự mở rộng khi thêm đỉnh.
+     */
+    public Graph() {
+        this(DEFAULT_CAPACITY);
+    }
 
     /**
      * Constructor.
-     * @param maxVertices Số lượng đỉnh tối đa mà đồ thị có thể chứa.
+     * @param initialCapacity Dung lượng ban đầu theo ID (số đỉnh dự kiến); đồ thị tự mở rộng khi cần.
      */
-    @SuppressWarnings("unchecked") // Cần thiết vì Java không cho tạo mảng generic trực tiếp
-    public Graph(int maxVertices) {
-        if (maxVertices <= 0) {
-            throw new IllegalArgumentException("Maximum vertices must be positive.");
-        }
-        this.maxVertices = maxVertices;
-        this.locations = new Location[maxVertices];
-        // Khởi tạo mảng danh sách kề, mỗi phần tử là một CustomLinkedList mới
-        this.adjList = (CustomLinkedList<Route>[]) new CustomLinkedList[maxVertices];
-        for (int i = 0; i < maxVertices; i++) {
-            this.adjList[i] = new CustomLinkedList<>();
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Cần thiết vì Java không cho tạo mảng generic trực tiếp
+    public Graph(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity must be positive.");
         }
+        this.locations = new Location[initialCapacity];
+        // Danh sách kề được tạo khi thêm đỉnh, nên ô của ID chưa dùng không tốn bộ nhớ
+        this.adjList = (CustomLinkedList<Route>[]) new CustomLinkedList[initialCapacity];
+        this.reverseAdjList = (CustomLinkedList<Route>[]) new CustomLinkedList[initialCapacity];
         this.numVertices = 0;
     }
 
     /**
-     * Thêm một đỉnh (địa điểm) vào đồ thị.
+     * Thêm một đỉnh (địa điểm) vào đồ thị, mở rộng các mảng nếu ID vượt dung lượng hiện tại.
      * @param location Địa điểm cần thêm.
-     * @throws IllegalStateException nếu đồ thị đã đầy.
      * @throws IllegalArgumentException nếu ID đã tồn tại hoặc không hợp lệ.
      */
     public void addVertex(Location location) {
-        if (numVertices >= maxVertices) {
-            throw new IllegalStateException("Graph is full. Cannot add more vertices.");
-        }
         int id = location.id;
-        if (id < 0 || id >= maxVertices) {
-            throw new IllegalArgumentException("Invalid Location ID: " + id + ". Must be between 0 and " + (maxVertices - 1));
+        if (id < 0 || id >= MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid Location ID: " + id + ". Must be between 0 and " + (MAX_CAPACITY - 1));
         }
+        ensureCapacity(id + 1);
         if (locations[id] != null) {
             throw new IllegalArgumentException("Location with ID " + id + " already exists.");
         }
         locations[id] = location;
+        adjList[id] = new CustomLinkedList<>();
+        reverseAdjList[id] = new CustomLinkedList<>();
+        if (id >= idBound) {
+            idBound = id + 1;
+        }
         numVertices++; // Chỉ tăng khi thêm thành công và ID hợp lệ
+        epoch++;
+    }
+
+    /**
+     * Thêm một đỉnh xác định bởi ID ngoài (không có tọa độ).
+     * @see #addVertex(long, String, double, double)
+     */
+    public int addVertex(long externalId, String name) {
+        return addVertex(externalId, name, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Thêm một đỉnh xác định bởi ID ngoài (ví dụ ID nút OpenStreetMap 64-bit).
+     * Đỉnh nhận ID trong kế tiếp (getMaxVertices() hiện tại), nên một đồ thị chỉ dùng ID ngoài
+     * có các ID trong dày đặc 0, 1, 2, ... theo thứ tự thêm. Các thuật toán làm việc với ID trong;
+     * dùng {@link #getVertexId} và {@link #getExternalId} để chuyển đổi.
+     * @param externalId ID ngoài (khác {@link #NO_EXTERNAL_ID}).
+     * @param name Tên địa điểm.
+     * @param latitude Vĩ độ (độ), Double.NaN nếu không có.
+     * @param longitude Kinh độ (độ), Double.NaN nếu không có.
+     * @return ID trong của đỉnh mới.
+     * @throws IllegalArgumentException nếu ID ngoài đã tồn tại hoặc không hợp lệ.
+     */
+    public int addVertex(long externalId, String name, double latitude, double longitude) {
+        if (externalId == NO_EXTERNAL_ID) {
+            throw new IllegalArgumentException("Invalid external ID: " + externalId);
+        }
+        if (externalIndex == null) {
+            externalIndex = new LongIntHashMap();
+            externalIds = new long[locations.length];
+            Arrays.fill(externalIds, NO_EXTERNAL_ID);
+        }
+        if (externalIndex.containsKey(externalId)) {
+            throw new IllegalArgumentException("Location with external ID " + externalId + " already exists.");
+        }
+        int id = idBound;
+        addVertex(new Location(id, name, latitude, longitude));
+        externalIds[id] = externalId;
+        externalIndex.put(externalId, id);
+        return id;
+    }
+
+    /**
+     * Tìm ID trong của đỉnh theo ID ngoài (O(1) trung bình).
+     * @param externalId ID ngoài.
+     * @return ID trong, hoặc -1 nếu không có đỉnh nào mang ID ngoài này.
+     */
+    public int getVertexId(long externalId) {
+        return externalIndex == null ? -1 : externalIndex.getOrDefault(externalId, -1);
+    }
+
+    /**
+     * Lấy ID ngoài của một đỉnh.
+     * @param vertexId ID trong của đỉnh.
+     * @return ID ngoài, hoặc {@link #NO_EXTERNAL_ID} nếu đỉnh không tồn tại hoặc được thêm bằng
+     *         {@link #addVertex(Location)}.
+     */
+    public long getExternalId(int vertexId) {
+        if (externalIds == null || vertexId < 0 || vertexId >= idBound) {
+            return NO_EXTERNAL_ID;
+        }
+        return externalIds[vertexId];
+    }
+
+    /**
+     * Mở rộng các mảng theo ID để chứa được các ID trong [0, capacity).
+     * Dung lượng được nhân đôi nên chi phí thêm đỉnh là O(1) khấu hao.
+     */
+    private void ensureCapacity(int capacity) {
+        int oldCapacity = locations.length;
+        if (capacity <= oldCapacity) {
+            return;
+        }
+        int newCapacity = (int) Math.min(MAX_CAPACITY, Math.max(capacity, 2L * oldCapacity));
+        locations = Arrays.copyOf(locations, newCapacity);
+        adjList = Arrays.copyOf(adjList, newCapacity);
+        reverseAdjList = Arrays.copyOf(reverseAdjList, newCapacity);
+        if (externalIds != null) {
+            externalIds = Arrays.copyOf(externalIds, newCapacity);
+            Arrays.fill(externalIds, oldCapacity, newCapacity, NO_EXTERNAL_ID);
+        }
     }
 
 
@@ -62,13 +167,268 @@ public class Graph {
      * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
      */
     public void addEdge(int sourceId, int destId, double distance, double time, double cost) {
+        addEdge(sourceId, destId, distance, time, cost, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Thêm một cạnh có hướng chỉ dành cho một phương tiện.
+     * Giữa hai đỉnh có thể có nhiều cạnh song song, mỗi cạnh một phương tiện với trọng số riêng.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param distance Khoảng cách.
+     * @param time Thời gian.
+     * @param cost Chi phí.
+     * @param mode Phương tiện.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public void addEdge(int sourceId, int destId, double distance, double time, double cost, TransportMode mode) {
+        addEdge(sourceId, destId, distance, time, cost, mode.mask());
+    }
+
+    /**
+     * Thêm một cạnh có hướng dành cho một tập phương tiện.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param distance Khoảng cách.
+     * @param time Thời gian.
+     * @param cost Chi phí.
+     * @param modes Bitmask phương tiện (khác 0).
+     * @throws IllegalArgumentException nếu ID không hợp lệ, đỉnh không tồn tại hoặc bitmask rỗng.
+     */
+    public void addEdge(int sourceId, int destId, double distance, double time, double cost, int modes) {
+        addRoute(sourceId, destId, distance, time, cost, modes, -1);
+    }
+
+    /**
+     * Thêm một cạnh có hướng có thời gian đi phụ thuộc giờ khởi hành (đường bộ theo giờ trong ngày,
+     * hoặc tàu/máy bay theo lịch chạy). Trọng số time tĩnh của cạnh là thời gian đi nhỏ nhất của hồ sơ,
+     * nên các thuật toán không phụ thuộc thời gian vẫn dùng được cạnh này (như một cận dưới).
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param distance Khoảng cách.
+     * @param cost Chi phí.
+     * @param mode Phương tiện.
+     * @param profiles Kho hồ sơ chứa hồ sơ của cạnh.
+     * @param profileId ID hồ sơ trong profiles.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public void addTimeDependentEdge(int sourceId, int destId, double distance, double cost, TransportMode mode,
+                                     TravelTimeProfiles profiles, int profileId) {
+        addRoute(sourceId, destId, distance, profiles.getMinTravelTime(profileId), cost, mode.mask(), profileId);
+    }
+
+    private void addRoute(int sourceId, int destId, double distance, double time, double cost, int modes,
+                          int profileId) {
+        if ((modes & TransportMode.ALL_MODES) == 0) {
+            throw new IllegalArgumentException("Transport mode mask must contain at least one mode.");
+        }
         validateVertexId(sourceId);
         validateVertexId(destId);
         if (locations[sourceId] == null) throw new IllegalArgumentException("Source vertex " + sourceId + " does not exist.");
         if (locations[destId] == null) throw new IllegalArgumentException("Destination vertex " + destId + " does not exist.");
 
-        Route newRoute = new Route(destId, distance, time, cost);
+        Route newRoute = new Route(destId, distance, time, cost, modes, profileId);
         adjList[sourceId].add(newRoute);
+        // Chỉ mục ngược: destinationId của Route ngược là đỉnh nguồn của cạnh gốc
+        reverseAdjList[destId].add(new Route(sourceId, distance, time, cost, modes, profileId));
+        epoch++;
+    }
+
+    /**
+     * Xóa tất cả các cạnh sourceId -> destId.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @return Số cạnh đã xóa.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public int removeEdge(int sourceId, int destId) {
+        return removeEdge(sourceId, destId, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Gỡ các phương tiện trong modes khỏi các cạnh sourceId -> destId. Cạnh dùng chung cho nhiều
+     * phương tiện chỉ mất các phương tiện trong modes (phần còn lại giữ nguyên trọng số);
+     * cạnh bị xóa hẳn khi không còn phương tiện nào.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param modes Bitmask phương tiện.
+     * @return Số cạnh đã bị xóa hoặc bị gỡ phương tiện.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public int removeEdge(int sourceId, int destId, int modes) {
+        validateEdgeEndpoints(sourceId, destId);
+        int removed = removeRoutes(sourceId, destId, modes);
+        if (removed > 0) {
+            epoch++;
+        }
+        return removed;
+    }
+
+    /**
+     * Thay đổi trọng số của các cạnh sourceId -> destId dùng được với phương tiện mode.
+     * Route là bất biến nên mỗi cạnh khớp được thay bằng một Route mới giữ nguyên hồ sơ thời gian (nếu có).
+     * Chỉ phương tiện mode nhận trọng số mới: cạnh dùng chung cho nhiều phương tiện được tách thành
+     * cạnh của mode (trọng số mới) và cạnh của các phương tiện còn lại (giữ trọng số cũ),
+     * nên số cạnh của đồ thị có thể tăng.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param mode Phương tiện.
+     * @param distance Khoảng cách mới.
+     * @param time Thời gian mới.
+     * @param cost Chi phí mới.
+     * @return Số cạnh đã thay đổi.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public int updateEdgeWeights(int sourceId, int destId, TransportMode mode,
+                                 double distance, double time, double cost) {
+        validateEdgeEndpoints(sourceId, destId);
+        int updated = updateRoutes(sourceId, destId, mode.mask(), distance, time, cost);
+        if (updated > 0) {
+            epoch++;
+        }
+        return updated;
+    }
+
+    /**
+     * Áp dụng một lô thay đổi theo thứ tự. Mọi thao tác được kiểm tra trước,
+     * nên lô không hợp lệ không để lại thay đổi nào. Epoch chỉ tăng một lần cho cả lô.
+     * Không đồng bộ hóa: không gọi trong khi có truy vấn đang chạy trên đồ thị này.
+     * @param batch Lô thay đổi.
+     * @return Số cạnh đã bị thêm, xóa, gỡ phương tiện hoặc thay đổi trọng số.
+     * @throws IllegalArgumentException nếu lô tham chiếu đỉnh không tồn tại.
+     */
+    public int apply(EdgeUpdateBatch batch) {
+        batch.validate(this);
+        int changed = 0;
+        for (EdgeUpdateBatch.Operation op : batch.getOperations()) {
+            switch (op.type) {
+                case EdgeUpdateBatch.ADD:
+                    adjList[op.sourceId].add(new Route(op.destId, op.distance, op.time, op.cost, op.modes));
+                    reverseAdjList[op.destId].add(new Route(op.sourceId, op.distance, op.time, op.cost, op.modes));
+                    changed++;
+                    break;
+                case EdgeUpdateBatch.REMOVE:
+                    changed += removeRoutes(op.sourceId, op.destId, op.modes);
+                    break;
+                default:
+                    changed += updateRoutes(op.sourceId, op.destId, op.modes, op.distance, op.time, op.cost);
+                    break;
+            }
+        }
+        if (changed > 0) {
+            epoch++;
+        }
+        return changed;
+    }
+
+    /**
+     * Lấy phiên bản của đồ thị (tăng sau mỗi thay đổi, hoặc một lần cho mỗi lô).
+     * @return Epoch hiện tại.
+     */
+    @Override
+    public long getEpoch() {
+        return epoch;
+    }
+
+    private void validateEdgeEndpoints(int sourceId, int destId) {
+        validateVertexId(sourceId);
+        validateVertexId(destId);
+        if (locations[sourceId] == null) throw new IllegalArgumentException("Source vertex " + sourceId + " does not exist.");
+        if (locations[destId] == null) throw new IllegalArgumentException("Destination vertex " + destId + " does not exist.");
+    }
+
+    /**
+     * Gỡ modes khỏi các cạnh khớp trong cả danh sách kề và danh sách kề ngược: cạnh còn phương tiện khác
+     * được thay bằng {@link #remainderRoute}, cạnh không còn phương tiện nào bị bỏ.
+     * CustomLinkedList không hỗ trợ xóa giữa danh sách nên dựng lại danh sách mới.
+     */
+    private int removeRoutes(int sourceId, int destId, int modes) {
+        int removed = 0;
+        CustomLinkedList<Route> outgoing = new CustomLinkedList<>();
+        for (Route route : adjList[sourceId]) {
+            if (route.destinationId == destId && route.allows(modes)) {
+                if ((route.modes & ~modes) != 0) {
+                    outgoing.add(remainderRoute(route, modes));
+                }
+                removed++;
+            } else {
+                outgoing.add(route);
+            }
+        }
+        if (removed == 0) {
+            return 0;
+        }
+        adjList[sourceId] = outgoing;
+
+        CustomLinkedList<Route> incoming = new CustomLinkedList<>();
+        for (Route route : reverseAdjList[destId]) {
+            if (route.destinationId == sourceId && route.allows(modes)) {
+                if ((route.modes & ~modes) != 0) {
+                    incoming.add(remainderRoute(route, modes));
+                }
+            } else {
+                incoming.add(route);
+            }
+        }
+        reverseAdjList[destId] = incoming;
+        return removed;
+    }
+
+    /**
+     * Thay các cạnh khớp bằng Route mới trong cả danh sách kề và danh sách kề ngược.
+     * Cạnh có thêm phương tiện ngoài modes được tách: phần giao với modes nhận trọng số mới,
+     * phần còn lại giữ trọng số cũ (xem {@link #updatedRoute} và {@link #remainderRoute}).
+     */
+    private int updateRoutes(int sourceId, int destId, int modes, double distance, double time, double cost) {
+        int updated = 0;
+        CustomLinkedList<Route> outgoing = new CustomLinkedList<>();
+        for (Route route : adjList[sourceId]) {
+            if (route.destinationId == destId && route.allows(modes)) {
+                outgoing.add(updatedRoute(route, modes, distance, time, cost));
+                if ((route.modes & ~modes) != 0) {
+                    outgoing.add(remainderRoute(route, modes));
+                }
+                updated++;
+            } else {
+                outgoing.add(route);
+            }
+        }
+        if (updated == 0) {
+            return 0;
+        }
+        adjList[sourceId] = outgoing;
+
+        CustomLinkedList<Route> incoming = new CustomLinkedList<>();
+        for (Route route : reverseAdjList[destId]) {
+            if (route.destinationId == sourceId && route.allows(modes)) {
+                incoming.add(updatedRoute(route, modes, distance, time, cost));
+                if ((route.modes & ~modes) != 0) {
+                    incoming.add(remainderRoute(route, modes));
+                }
+            } else {
+                incoming.add(route);
+            }
+        }
+        reverseAdjList[destId] = incoming;
+        return updated;
+    }
+
+    /**
+     * Route thay cho route sau khi cập nhật trọng số của các phương tiện trong modes:
+     * cùng đích và hồ sơ thời gian, chỉ dành cho các phương tiện chung của route và modes.
+     */
+    static Route updatedRoute(Route route, int modes, double distance, double time, double cost) {
+        return new Route(route.destinationId, distance, time, cost, route.modes & modes, route.profileId);
+    }
+
+    /**
+     * Phần còn lại của route khi tách khỏi modes: giữ trọng số cũ cho các phương tiện không bị cập nhật
+     * hoặc không bị gỡ.
+     * Chỉ gọi khi route.modes có phương tiện ngoài modes.
+     */
+    static Route remainderRoute(Route route, int modes) {
+        return new Route(route.destinationId, route.distance, route.time, route.cost, route.modes & ~modes,
+                route.profileId);
     }
 
     /**
@@ -83,40 +443,47 @@ public class Graph {
         return adjList[vertexId];
     }
 
+    /**
+     * Lấy danh sách các cạnh đi vào một đỉnh (chỉ mục ngược, dùng cho tìm kiếm hai chiều).
+     * Với mỗi Route trả về, destinationId là ID đỉnh nguồn của cạnh gốc,
+     * các trọng số giữ nguyên như cạnh gốc.
+     * @param vertexId ID của đỉnh.
+     * @return Danh sách liên kết các Route đi vào.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public CustomLinkedList<Route> getIncomingRoutes(int vertexId) {
+        validateVertexId(vertexId);
+        if (locations[vertexId] == null) throw new IllegalArgumentException("Vertex " + vertexId + " does not exist.");
+        return reverseAdjList[vertexId];
+    }
+
     /**
      * Lấy thông tin địa điểm dựa trên ID.
      * @param vertexId ID của đỉnh.
      * @return Đối tượng Location, hoặc null nếu không tồn tại.
      */
     public Location getLocationById(int vertexId) {
-        if (vertexId < 0 || vertexId >= maxVertices) {
+        if (vertexId < 0 || vertexId >= idBound) {
             return null; // ID không hợp lệ
         }
         return locations[vertexId];
     }
 
     /**
-     * Lấy tổng số đỉnh tối đa của đồ thị.
-     * @return Số đỉnh tối đa.
+     * Lấy cận trên của ID đỉnh (ID lớn nhất đang có + 1); các thuật toán cấp phát mảng theo giá trị này.
+     * Tăng khi thêm đỉnh có ID lớn hơn mọi ID hiện có.
+     * @return Cận trên của ID đỉnh.
      */
     public int getMaxVertices() {
-        return maxVertices;
+        return idBound;
     }
 
     /**
-     * Lấy số lượng đỉnh hiện tại trong đồ thị.
+     * Lấy số lượng đỉnh hiện tại trong đồ thị (O(1)).
      * @return Số lượng đỉnh hiện tại.
      */
     public int getNumVertices() {
-        // Đếm số lượng location khác null để chính xác hơn
-        int count = 0;
-        for(Location loc : locations) {
-            if (loc != null) {
-                count++;
-            }
-        }
-        return count;
-        // return numVertices; // Cách cũ có thể không chính xác nếu addVertex bị lỗi giữa chừng
+        return numVertices;
     }
 
 
@@ -126,7 +493,8 @@ public class Graph {
      */
     public CustomLinkedList<Location> getAllLocations() {
         CustomLinkedList<Location> allLocs = new CustomLinkedList<>();
-        for (Location loc : locations) {
+        for (int i = 0; i < idBound; i++) {
+            Location loc = locations[i];
             if (loc != null) {
                 allLocs.add(loc);
             }
@@ -135,14 +503,51 @@ public class Graph {
     }
 
 
+    /**
+     * Tạo một bản sao bất biến của đồ thị theo định dạng CSR.
+     * Các thay đổi sau đó trên Graph này không ảnh hưởng đến bản CompactGraph đã tạo.
+     * @return Đồ thị CompactGraph tương ứng.
+     */
+    public CompactGraph freeze() {
+        int[] offsets = new int[idBound + 1];
+        for (int i = 0; i < idBound; i++) {
+            offsets[i + 1] = offsets[i] + (adjList[i] == null ? 0 : adjList[i].size());
+        }
+
+        int numEdges = offsets[idBound];
+        int[] destinations = new int[numEdges];
+        double[] distances = new double[numEdges];
+        double[] times = new double[numEdges];
+        double[] costs = new double[numEdges];
+        int[] modes = new int[numEdges];
+
+        for (int i = 0; i < idBound; i++) {
+            if (adjList[i] == null) {
+                continue;
+            }
+            int edge = offsets[i];
+            for (Route route : adjList[i]) {
+                destinations[edge] = route.destinationId;
+                distances[edge] = route.distance;
+                times[edge] = route.time;
+                costs[edge] = route.cost;
+                modes[edge] = route.modes;
+                edge++;
+            }
+        }
+
+        return new CompactGraph(Arrays.copyOf(locations, idBound), numVertices, offsets, destinations, distances,
+                times, costs, modes);
+    }
+
     /**
      * Kiểm tra tính hợp lệ của ID đỉnh.
      * @param vertexId ID cần kiểm tra.
-     * @throws IllegalArgumentException nếu ID nằm ngoài phạm vi [0, maxVertices-1].
+     * @throws IllegalArgumentException nếu ID nằm ngoài phạm vi [0, getMaxVertices()-1].
      */
     private void validateVertexId(int vertexId) {
-        if (vertexId < 0 || vertexId >= maxVertices) {
-            throw new IllegalArgumentException("Invalid vertex ID: " + vertexId + ". Must be between 0 and " + (maxVertices - 1));
+        if (vertexId < 0 || vertexId >= idBound) {
+            throw new IllegalArgumentException("Invalid vertex ID: " + vertexId + ". Must be between 0 and " + (idBound - 1));
         }
     }
 
@@ -151,7 +556,7 @@ public class Graph {
      */
     public void printGraph() {
         System.out.println("Graph Representation (Adjacency List):");
-        for (int i = 0; i < maxVertices; i++) {
+        for (int i = 0; i < idBound; i++) {
             Location loc = locations[i];
             if (loc != null) {
                 System.out.print("Vertex " + loc.name + " (ID:" + i + "): ");
@@ -0,0 +1,426 @@
+package graph;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf để thay đổi kích thước mảng
+
+/**
+ * Nạp đồ thị đa phương tiện từ file văn bản dạng CSV (ví dụ dữ liệu xuất từ OpenStreetMap),
+ * đọc tuần tự một lần qua một bộ đệm byte cố định, nên bộ nhớ phụ không phụ thuộc kích thước file.
+ * Các trường được tách và số được phân tích trực tiếp trên bộ đệm byte, không tạo String cho mỗi dòng
+ * hay mỗi trường (chỉ tạo String cho tên địa điểm).
+ * Định dạng (UTF-8, mỗi dòng một bản ghi, các trường phân cách bởi dấu phẩy):
+ * <pre>
+ * # Dòng trống và dòng bắt đầu bằng '#' được bỏ qua
+ * vertices,&lt;số đỉnh dự kiến&gt;                                 (bắt buộc, trước mọi bản ghi khác)
+ * v,&lt;id&gt;,&lt;tên&gt;[,&lt;vĩ độ&gt;,&lt;kinh độ&gt;]
+ * e,&lt;nguồn&gt;,&lt;đích&gt;,&lt;distance&gt;,&lt;time&gt;,&lt;cost&gt;[,&lt;phương tiện&gt;]   (cạnh một chiều)
+ * b,&lt;nguồn&gt;,&lt;đích&gt;,&lt;distance&gt;,&lt;time&gt;,&lt;cost&gt;[,&lt;phương tiện&gt;]   (hai cạnh ngược chiều)
+ * </pre>
+ * Dòng tiêu đề cho biết số đỉnh để tạo Graph đúng kích thước ngay từ đầu (tránh mở rộng mảng khi nạp). Mỗi đỉnh phải được khai báo
+ * trước cạnh đầu tiên dùng nó. ID trong file là ID ngoài 64-bit (ví dụ ID nút OpenStreetMap), được thêm bằng
+ * {@link Graph#addVertex(long, String, double, double)}: đỉnh nhận ID trong 0, 1, 2, ... theo thứ tự khai báo,
+ * và đầu mút của cạnh được chuyển đổi bằng {@link Graph#getVertexId(long)}. Phương tiện là danh sách tên phân cách bởi '|' (ví dụ "car|motorbike"),
+ * hoặc "all"; bỏ trống nghĩa là mọi phương tiện. Tên chứa dấu phẩy được đặt trong dấu nháy kép
+ * (hai dấu nháy liền nhau là một dấu nháy trong tên).
+ * Sau mỗi lần nạp, thống kê (số dòng, số đỉnh, số cạnh, thời gian, thông lượng) được giữ lại trong đối tượng.
+ * Không an toàn luồng; mỗi luồng dùng một GraphLoader riêng.
+ */
+public class GraphLoader {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FIELDS = 8;
+    private static final int MAX_EXACT_DIGITS = 15; // Phần định trị nhỏ hơn 10^15 < 2^53 được biểu diễn chính xác
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final byte[] HEADER = "vertices".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer = new byte[READ_BUFFER_SIZE];
+    // Vị trí các trường của dòng đang đọc trong buffer, dùng lại giữa các dòng
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+    private final boolean[] fieldQuoted = new boolean[MAX_FIELDS];
+    private byte[] lastModeField = new byte[0];
+    private int lastModeMask = TransportMode.ALL_MODES;
+
+    private long linesRead;
+    private int verticesLoaded;
+    private long edgesLoaded;
+    private long elapsedNanos;
+
+    /**
+     * Nạp đồ thị từ file.
+     * @param filePath Đường dẫn file.
+     * @return Đồ thị đã nạp.
+     * @throws IOException nếu đọc file thất bại hoặc nội dung không hợp lệ (kèm số dòng lỗi).
+     */
+    public Graph load(String filePath) throws IOException {
+        try (InputStream input = new FileInputStream(filePath)) {
+            return load(input, filePath);
+        }
+    }
+
+    /**
+     * Nạp đồ thị từ một luồng byte bất kỳ (UTF-8). Luồng không được đóng sau khi nạp.
+     * @param input Nguồn dữ liệu (không cần bọc BufferedInputStream).
+     * @param sourceName Tên nguồn, dùng trong thông báo lỗi.
+     * @return Đồ thị đã nạp.
+     * @throws IOException nếu đọc thất bại hoặc nội dung không hợp lệ (kèm số dòng lỗi).
+     */
+    public Graph load(InputStream input, String sourceName) throws IOException {
+        long startNanos = System.nanoTime();
+        linesRead = 0;
+        verticesLoaded = 0;
+        edgesLoaded = 0;
+        elapsedNanos = 0;
+
+        Graph graph = null;
+        int lineStart = 0; // Đầu dòng chưa xử lý trong buffer
+        int scanned = 0;   // Các byte trước vị trí này (từ lineStart) không chứa '\n'
+        int filled = 0;    // Số byte hợp lệ trong buffer
+        boolean endOfInput = false;
+        while (true) {
+            int lineEnd = scanned;
+            while (lineEnd < filled && buffer[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == filled && !endOfInput) {
+                // Dòng chưa trọn: dồn phần còn lại về đầu buffer (nới rộng nếu dòng dài hơn buffer) rồi đọc tiếp
+                int remaining = filled - lineStart;
+                if (remaining == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                } else {
+                    System.arraycopy(buffer, lineStart, buffer, 0, remaining);
+                }
+                lineStart = 0;
+                scanned = remaining;
+                filled = remaining;
+                int read = input.read(buffer, filled, buffer.length - filled);
+                if (read == -1) {
+                    endOfInput = true;
+                } else {
+                    filled += read;
+                }
+                continue;
+            }
+            if (lineEnd == filled && lineStart == filled) {
+                break; // Hết dữ liệu
+            }
+            linesRead++;
+            int end = lineEnd;
+            if (end > lineStart && buffer[end - 1] == '\r') {
+                end--;
+            }
+            if (end > lineStart && buffer[lineStart] != '#') {
+                try {
+                    graph = processLine(graph, lineStart, end);
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    // NumberFormatException cũng là IllegalArgumentException
+                    throw new IOException("Invalid graph file " + sourceName + " at line " + linesRead + ": "
+                            + e.getMessage(), e);
+                }
+            }
+            lineStart = Math.min(lineEnd + 1, filled);
+            scanned = lineStart;
+        }
+        if (graph == null) {
+            throw new IOException("Invalid graph file " + sourceName + ": missing 'vertices,<count>' header.");
+        }
+        elapsedNanos = System.nanoTime() - startNanos;
+        return graph;
+    }
+
+    /**
+     * Xử lý một dòng dữ liệu (không rỗng, không phải chú thích) nằm trong buffer[start, end).
+     * @return Đồ thị (được tạo khi gặp dòng tiêu đề).
+     */
+    private Graph processLine(Graph graph, int start, int end) {
+        int count = split(start, end);
+        if (graph == null) {
+            if (count != 2 || !fieldEquals(0, HEADER)) {
+                throw new IllegalArgumentException("Expected header 'vertices,<count>' before any record.");
+            }
+            return new Graph(parseInt(1));
+        }
+        byte type = fieldEnd[0] - fieldStart[0] == 1 ? buffer[fieldStart[0]] : 0;
+        if (type == 'v') {
+            loadVertex(graph, count);
+        } else if (type == 'e') {
+            loadEdge(graph, count, false);
+        } else if (type == 'b') {
+            loadEdge(graph, count, true);
+        } else {
+            throw new IllegalArgumentException("Unknown record type: " + fieldString(0));
+        }
+        return graph;
+    }
+
+    private void loadVertex(Graph graph, int count) {
+        if (count != 3 && count != 5) {
+            throw new IllegalArgumentException("Vertex record needs 3 or 5 fields, got " + count + ".");
+        }
+        long externalId = parseLong(1);
+        if (count == 5) {
+            graph.addVertex(externalId, fieldString(2), parseDouble(3), parseDouble(4));
+        } else {
+            graph.addVertex(externalId, fieldString(2));
+        }
+        verticesLoaded++;
+    }
+
+    private void loadEdge(Graph graph, int count, boolean twoWay) {
+        if (count != 6 && count != 7) {
+            throw new IllegalArgumentException("Edge record needs 6 or 7 fields, got " + count + ".");
+        }
+        int sourceId = vertexId(graph, 1, "Source");
+        int destId = vertexId(graph, 2, "Destination");
+        double distance = parseDouble(3);
+        double time = parseDouble(4);
+        double cost = parseDouble(5);
+        int modes = count == 7 ? parseModes(6) : TransportMode.ALL_MODES;
+        graph.addEdge(sourceId, destId, distance, time, cost, modes);
+        edgesLoaded++;
+        if (twoWay) {
+            graph.addEdge(destId, sourceId, distance, time, cost, modes);
+            edgesLoaded++;
+        }
+    }
+
+    /**
+     * Chuyển ID ngoài trong một trường thành ID trong của đỉnh đã khai báo.
+     * @throws IllegalArgumentException nếu chưa có đỉnh nào mang ID đó.
+     */
+    private int vertexId(Graph graph, int field, String role) {
+        long externalId = parseLong(field);
+        int id = graph.getVertexId(externalId);
+        if (id < 0) {
+            throw new IllegalArgumentException(role + " vertex " + externalId + " does not exist.");
+        }
+        return id;
+    }
+
+    /**
+     * Tách buffer[start, end) thành các trường (ghi vị trí vào fieldStart/fieldEnd), bỏ khoảng trắng hai đầu
+     * trường không có nháy kép. Với trường có nháy kép, vị trí ghi lại là phần bên trong cặp nháy.
+     * @return Số trường.
+     */
+    private int split(int start, int end) {
+        int count = 0;
+        int position = start;
+        while (true) {
+            if (count == MAX_FIELDS) {
+                throw new IllegalArgumentException("Too many fields.");
+            }
+            while (position < end && (buffer[position] == ' ' || buffer[position] == '\t')) {
+                position++;
+            }
+            if (position < end && buffer[position] == '"') {
+                int from = ++position;
+                while (true) {
+                    if (position >= end) {
+                        throw new IllegalArgumentException("Unterminated quoted field.");
+                    }
+                    if (buffer[position] == '"') {
+                        if (position + 1 < end && buffer[position + 1] == '"') {
+                            position += 2; // Nháy kép được viết đôi
+                            continue;
+                        }
+                        break;
+                    }
+                    position++;
+                }
+                fieldStart[count] = from;
+                fieldEnd[count] = position++;
+                fieldQuoted[count] = true;
+                while (position < end && (buffer[position] == ' ' || buffer[position] == '\t')) {
+                    position++;
+                }
+                if (position < end && buffer[position] != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field.");
+                }
+            } else {
+                int from = position;
+                while (position < end && buffer[position] != ',') {
+                    position++;
+                }
+                int to = position;
+                while (to > from && (buffer[to - 1] == ' ' || buffer[to - 1] == '\t')) {
+                    to--;
+                }
+                fieldStart[count] = from;
+                fieldEnd[count] = to;
+                fieldQuoted[count] = false;
+            }
+            count++;
+            if (position >= end) {
+                return count;
+            }
+            position++; // Bỏ qua dấu phẩy
+        }
+    }
+
+    private String fieldString(int field) {
+        String value = new String(buffer, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+        return fieldQuoted[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    private boolean fieldEquals(int field, byte[] expected) {
+        int length = fieldEnd[field] - fieldStart[field];
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[fieldStart[field] + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInt(int field) {
+        long value = parseLong(field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Invalid integer: '" + fieldString(field) + "'");
+        }
+        return (int) value;
+    }
+
+    private long parseLong(int field) {
+        int position = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = position < end && buffer[position] == '-';
+        if (negative) {
+            position++;
+        }
+        if (position == end) {
+            throw new NumberFormatException("Invalid integer: '" + fieldString(field) + "'");
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = buffer[position] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw new NumberFormatException("Invalid integer: '" + fieldString(field) + "'");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Phân tích số thực. Dạng thông thường ("-12.345", tối đa 15 chữ số có nghĩa) được tính trực tiếp:
+     * phần định trị và lũy thừa của 10 đều là số double chính xác, nên một phép chia (làm tròn đúng)
+     * cho cùng kết quả với Double.parseDouble. Các dạng khác (số mũ, nhiều chữ số) dùng Double.parseDouble.
+     */
+    private double parseDouble(int field) {
+        int position = fieldStart[field];
+        int end = fieldEnd[field];
+        boolean negative = position < end && buffer[position] == '-';
+        if (negative) {
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;               // Số chữ số có nghĩa (bỏ các số 0 đứng đầu)
+        boolean sawDigit = false;
+        int fractionDigits = -1; // -1 cho đến khi gặp dấu chấm
+        boolean simple = position < end;
+        for (; position < end && simple; position++) {
+            byte b = buffer[position];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                sawDigit = true;
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                simple = digits <= MAX_EXACT_DIGITS;
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                simple = false;
+            }
+        }
+        if (simple && sawDigit && fractionDigits != 0
+                && fractionDigits < POWERS_OF_TEN.length) {
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(fieldString(field));
+    }
+
+    /**
+     * Chuyển trường phương tiện thành bitmask. Các cạnh liên tiếp thường cùng phương tiện,
+     * nên kết quả của trường gần nhất được giữ lại để khỏi phân tích lại.
+     */
+    private int parseModes(int field) {
+        if (fieldEquals(field, lastModeField)) {
+            return lastModeMask;
+        }
+        String value = fieldString(field);
+        int mask = 0;
+        if (value.isEmpty() || value.equalsIgnoreCase("all")) {
+            mask = TransportMode.ALL_MODES;
+        } else {
+            int start = 0;
+            while (start <= value.length()) {
+                int end = value.indexOf('|', start);
+                if (end == -1) {
+                    end = value.length();
+                }
+                mask |= TransportMode.fromName(value.substring(start, end).trim()).mask();
+                start = end + 1;
+            }
+        }
+        lastModeField = Arrays.copyOfRange(buffer, fieldStart[field], fieldEnd[field]);
+        lastModeMask = mask;
+        return mask;
+    }
+
+    /**
+     * Lấy số dòng đã đọc trong lần nạp gần nhất (kể cả dòng chú thích).
+     * @return Số dòng.
+     */
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public int getVerticesLoaded() {
+        return verticesLoaded;
+    }
+
+    /**
+     * Lấy số cạnh có hướng đã thêm (bản ghi hai chiều tính là hai cạnh).
+     * @return Số cạnh.
+     */
+    public long getEdgesLoaded() {
+        return edgesLoaded;
+    }
+
+    /**
+     * Lấy thời gian của lần nạp thành công gần nhất.
+     * @return Thời gian (mili giây).
+     */
+    public double getLoadTimeMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    /**
+     * Thông lượng nạp của lần nạp thành công gần nhất.
+     * @return Số cạnh mỗi giây, 0 nếu chưa nạp.
+     */
+    public double getEdgesPerSecond() {
+        return elapsedNanos > 0 ? edgesLoaded * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Mô tả ngắn kết quả của lần nạp gần nhất, dùng để ghi log.
+     * @return Chuỗi thống kê.
+     */
+    public String getSummary() {
+        return String.format("Loaded %d vertices and %d edges (%d lines) in %.1f ms (%.0f edges/s)",
+                verticesLoaded, edgesLoaded, linesRead, getLoadTimeMillis(), getEdgesPerSecond());
+    }
+}
@@ -0,0 +1,173 @@
+package graph;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Ảnh chụp bất biến của một {@link ConcurrentGraph} tại một phiên bản (epoch).
+ * Các đỉnh được chia thành trang (page) cố định PAGE_SIZE đỉnh; mỗi trang giữ
+ * Location và mảng Route[] cạnh ra/cạnh vào của các đỉnh trong trang.
+ * Không có gì trong ảnh chụp bị sửa đổi sau khi công bố: bên ghi sao chép trang
+ * (copy-on-write) rồi công bố ảnh chụp mới, các trang không đổi được dùng chung.
+ * Vì vậy một truy vấn giữ một ảnh chụp luôn thấy một trạng thái nhất quán,
+ * không cần khóa, dù đồ thị đang được cập nhật.
+ */
+public final class GraphSnapshot implements GraphView {
+    static final int PAGE_SHIFT = 10;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    static final Route[] NO_ROUTES = new Route[0];
+
+    /**
+     * Một trang gồm PAGE_SIZE đỉnh liên tiếp (trang cuối có thể nhỏ hơn).
+     */
+    static final class Page {
+        final Location[] locations;
+        final Route[][] outgoing;
+        final Route[][] incoming;
+
+        Page(int size) {
+            this.locations = new Location[size];
+            this.outgoing = new Route[size][];
+            this.incoming = new Route[size][];
+            for (int i = 0; i < size; i++) {
+                outgoing[i] = NO_ROUTES;
+                incoming[i] = NO_ROUTES;
+            }
+        }
+
+        private Page(Page other) {
+            this.locations = other.locations.clone();
+            this.outgoing = other.outgoing.clone();
+            this.incoming = other.incoming.clone();
+        }
+
+        Page copy() {
+            return new Page(this);
+        }
+    }
+
+    final Page[] pages;
+    private final int maxVertices;
+    private final int numVertices;
+    private final int numEdges;
+    private final long epoch;
+    private final ConcurrentGraph source;
+
+    GraphSnapshot(ConcurrentGraph source, Page[] pages, int maxVertices, int numVertices, int numEdges, long epoch) {
+        this.source = source;
+        this.pages = pages;
+        this.maxVertices = maxVertices;
+        this.numVertices = numVertices;
+        this.numEdges = numEdges;
+        this.epoch = epoch;
+    }
+
+    /**
+     * Lấy phiên bản của ảnh chụp (tăng 1 sau mỗi lần công bố thay đổi).
+     * @return Epoch.
+     */
+    @Override
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Lấy ConcurrentGraph đã công bố ảnh chụp này (chung cho mọi epoch của nó).
+     * @return Đồ thị nguồn.
+     */
+    @Override
+    public Object getSource() {
+        return source;
+    }
+
+    @Override
+    public int getMaxVertices() {
+        return maxVertices;
+    }
+
+    @Override
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Lấy tổng số cạnh trong ảnh chụp.
+     * @return Số lượng cạnh.
+     */
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    @Override
+    public Location getLocationById(int vertexId) {
+        if (vertexId < 0 || vertexId >= maxVertices) {
+            return null; // ID không hợp lệ
+        }
+        return pages[vertexId >>> PAGE_SHIFT].locations[vertexId & PAGE_MASK];
+    }
+
+    @Override
+    public Iterable<Route> getNeighbors(int vertexId) {
+        validateVertex(vertexId);
+        return new RouteArray(pages[vertexId >>> PAGE_SHIFT].outgoing[vertexId & PAGE_MASK]);
+    }
+
+    @Override
+    public Iterable<Route> getIncomingRoutes(int vertexId) {
+        validateVertex(vertexId);
+        return new RouteArray(pages[vertexId >>> PAGE_SHIFT].incoming[vertexId & PAGE_MASK]);
+    }
+
+    /**
+     * Số cạnh ra của một đỉnh.
+     * @param vertexId ID của đỉnh.
+     * @return Bậc ra của đỉnh.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    public int getOutDegree(int vertexId) {
+        validateVertex(vertexId);
+        return pages[vertexId >>> PAGE_SHIFT].outgoing[vertexId & PAGE_MASK].length;
+    }
+
+    private void validateVertex(int vertexId) {
+        if (vertexId < 0 || vertexId >= maxVertices) {
+            throw new IllegalArgumentException("Invalid vertex ID: " + vertexId + ". Must be between 0 and " + (maxVertices - 1));
+        }
+        if (getLocationById(vertexId) == null) {
+            throw new IllegalArgumentException("Vertex " + vertexId + " does not exist.");
+        }
+    }
+
+    /**
+     * Khung nhìn chỉ đọc trên một mảng Route[] của ảnh chụp.
+     */
+    private static final class RouteArray implements Iterable<Route> {
+        private final Route[] routes;
+
+        RouteArray(Route[] routes) {
+            this.routes = routes;
+        }
+
+        @Override
+        public Iterator<Route> iterator() {
+            return new Iterator<Route>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < routes.length;
+                }
+
+                @Override
+                public Route next() {
+                    if (index >= routes.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return routes[index++];
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package graph;
+
+/**
+ * Giao diện chỉ đọc của một đồ thị có hướng, dùng bởi các thuật toán tìm đường.
+ * Được cài đặt bởi {@link Graph} (danh sách kề, không đồng bộ hóa) và
+ * {@link GraphSnapshot} (ảnh chụp bất biến của {@link ConcurrentGraph}).
+ */
+public interface GraphView {
+
+    /**
+     * Lấy tổng số đỉnh tối đa (ID hợp lệ nằm trong [0, getMaxVertices())).
+     * @return Số đỉnh tối đa.
+     */
+    int getMaxVertices();
+
+    /**
+     * Lấy số lượng đỉnh hiện có.
+     * @return Số lượng đỉnh.
+     */
+    int getNumVertices();
+
+    /**
+     * Lấy thông tin địa điểm dựa trên ID.
+     * @param vertexId ID của đỉnh.
+     * @return Đối tượng Location, hoặc null nếu không tồn tại.
+     */
+    Location getLocationById(int vertexId);
+
+    /**
+     * Lấy các cạnh đi ra từ một đỉnh.
+     * @param vertexId ID của đỉnh.
+     * @return Các Route kề.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    Iterable<Route> getNeighbors(int vertexId);
+
+    /**
+     * Lấy các cạnh đi vào một đỉnh; destinationId của mỗi Route là đỉnh nguồn của cạnh gốc.
+     * @param vertexId ID của đỉnh.
+     * @return Các Route đi vào.
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đỉnh không tồn tại.
+     */
+    Iterable<Route> getIncomingRoutes(int vertexId);
+
+    /**
+     * Lấy phiên bản (epoch) của đồ thị; giá trị tăng mỗi khi đồ thị thay đổi,
+     * nên hai lần đọc cùng epoch luôn thấy cùng dữ liệu.
+     * @return Epoch hiện tại.
+     */
+    long getEpoch();
+
+    /**
+     * Lấy đồ thị nguồn mà khung nhìn này là một phiên bản của nó. Mọi ảnh chụp của cùng một
+     * {@link ConcurrentGraph} trả về cùng một nguồn, nên cache nhận ra chúng là các epoch của cùng
+     * một đồ thị (thay vì các đồ thị khác nhau). Mặc định là chính khung nhìn.
+     * @return Đối tượng định danh đồ thị nguồn.
+     */
+    default Object getSource() {
+        return this;
+    }
+}
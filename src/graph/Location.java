@@ -1,16 +1,63 @@
 package graph;
 
+import java.io.Serializable;
 import java.util.Objects; // Cần import Objects nếu dùng trong hashCode
 
-public class Location {
+public class Location implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public final int id; // Nên để final nếu giá trị không đổi sau khi tạo
     public final String name; // Nên để final
+    public final double latitude;  // Vĩ độ (độ), Double.NaN nếu không có tọa độ
+    public final double longitude; // Kinh độ (độ), Double.NaN nếu không có tọa độ
+
+    private static final double EARTH_RADIUS_KM = 6371.0; // Bán kính trung bình của Trái Đất
 
     // Constructor (Cần có để khởi tạo các trường final)
     public Location(int id, String name) {
+        this(id, name, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Constructor có tọa độ địa lý.
+     * @param id ID của địa điểm.
+     * @param name Tên địa điểm.
+     * @param latitude Vĩ độ (độ).
+     * @param longitude Kinh độ (độ).
+     */
+    public Location(int id, String name, double latitude, double longitude) {
         // Thêm kiểm tra đầu vào nếu cần (ví dụ: name không null)
         this.id = id;
         this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    /**
+     * Kiểm tra địa điểm có tọa độ địa lý không.
+     * @return true nếu cả vĩ độ và kinh độ đều được khai báo.
+     */
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    /**
+     * Tính khoảng cách đường tròn lớn (great-circle) đến địa điểm khác theo công thức haversine.
+     * Đây là cận dưới của mọi quãng đường thực tế giữa hai địa điểm.
+     * @param other Địa điểm còn lại.
+     * @return Khoảng cách tính bằng km, hoặc 0 nếu một trong hai địa điểm không có tọa độ.
+     */
+    public double greatCircleDistanceTo(Location other) {
+        if (!hasCoordinates() || !other.hasCoordinates()) {
+            return 0.0;
+        }
+        double lat1 = Math.toRadians(latitude);
+        double lat2 = Math.toRadians(other.latitude);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(other.longitude - longitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
     }
 
     @Override
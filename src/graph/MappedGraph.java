@@ -0,0 +1,242 @@
+package graph;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Đồ thị CSR đọc trực tiếp từ file nhị phân được ánh xạ vào bộ nhớ ({@link FileChannel#map}).
+ * Mở file chỉ đọc phần đầu và ánh xạ các cột; không có bước giải tuần tự hóa và không sao chép lên heap,
+ * nên khởi động gần như tức thì với mọi kích thước đồ thị. Các trang của file nằm trong page cache của
+ * hệ điều hành, nên nhiều JVM trên cùng máy mở cùng một file sẽ dùng chung một bản trong bộ nhớ.
+ * Định dạng (phiên bản {@value #FORMAT_VERSION}, little-endian):
+ * <pre>
+ * Phần đầu (HEADER_SIZE byte):
+ *   int magic "TPGR", int version, int maxVertices, int numVertices, int numEdges, int (dự trữ, 0),
+ *   long vị trí của từng phần bên dưới (theo đúng thứ tự), long độ dài file
+ * offsets       int[maxVertices + 1]
+ * destinations  int[numEdges]
+ * modes         int[numEdges]
+ * distances     double[numEdges]
+ * times         double[numEdges]
+ * costs         double[numEdges]
+ * vertices      maxVertices bản ghi VERTEX_RECORD_SIZE byte (int vị trí tên, -1 nếu đỉnh không tồn tại;
+ *               int độ dài tên; double vĩ độ; double kinh độ)
+ * names         tên các địa điểm, UTF-8 nối tiếp nhau
+ * </pre>
+ * Mỗi phần bắt đầu tại vị trí chia hết cho 8. Đối tượng Location chỉ được tạo khi gọi
+ * {@link #getLocationById}. Đối tượng bất biến, dùng chung được giữa các luồng.
+ * Vùng ánh xạ được giải phóng khi đối tượng bị thu gom; file không được sửa trong khi đang mở.
+ */
+public final class MappedGraph extends BufferGraph {
+
+    /** Phiên bản định dạng hiện tại; file có phiên bản khác bị từ chối. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x54504752; // "TPGR"
+    private static final int NUM_SECTIONS = 8;
+    private static final int HEADER_SIZE = 24 + NUM_SECTIONS * 8 + 8;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private MappedGraph(int maxVertices, int numVertices, int numEdges, IntBuffer offsets, IntBuffer destinations,
+                        IntBuffer modes, DoubleBuffer distances, DoubleBuffer times, DoubleBuffer costs,
+                        ByteBuffer vertices, ByteBuffer names) {
+        super(maxVertices, numVertices, numEdges, offsets, destinations, modes, distances, times, costs,
+                vertices, names);
+    }
+
+    /**
+     * Ghi một đồ thị CSR ra file theo định dạng nhị phân (ghi đè nếu file đã tồn tại).
+     * @param graph Đồ thị cần ghi (ví dụ kết quả của {@link Graph#freeze()}).
+     * @param filePath Đường dẫn file.
+     * @throws IOException nếu ghi file thất bại.
+     */
+    public static void write(CsrGraph graph, String filePath) throws IOException {
+        int n = graph.getMaxVertices();
+        int m = graph.getNumEdges();
+        byte[][] encodedNames = new byte[n][];
+        long namesLength = 0;
+        for (int v = 0; v < n; v++) {
+            Location location = graph.getLocationById(v);
+            if (location != null) {
+                encodedNames[v] = location.name.getBytes(StandardCharsets.UTF_8);
+                namesLength += encodedNames[v].length;
+            }
+        }
+        if (namesLength > Integer.MAX_VALUE) {
+            throw new IOException("Location names exceed the format limit of 2 GB.");
+        }
+
+        long[] sizes = {4L * (n + 1), 4L * m, 4L * m, 8L * m, 8L * m, 8L * m,
+                (long) VERTEX_RECORD_SIZE * n, namesLength};
+        long[] positions = new long[NUM_SECTIONS];
+        long position = HEADER_SIZE;
+        for (int i = 0; i < NUM_SECTIONS; i++) {
+            position = align(position);
+            positions[i] = position;
+            position += sizes[i];
+        }
+        long fileLength = position;
+
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "rw");
+             FileChannel channel = file.getChannel()) {
+            file.setLength(0);
+            ByteBuffer out = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(n).putInt(graph.getNumVertices()).putInt(m).putInt(0);
+            for (long p : positions) {
+                out.putLong(p);
+            }
+            out.putLong(fileLength);
+
+            padTo(channel, out, positions[0]);
+            for (int v = 0; v < n; v++) {
+                ensureSpace(channel, out, 8);
+                out.putInt(graph.getEdgeStart(v));
+            }
+            ensureSpace(channel, out, 4);
+            out.putInt(m);
+            padTo(channel, out, positions[1]);
+            for (int e = 0; e < m; e++) {
+                ensureSpace(channel, out, 4);
+                out.putInt(graph.getDestination(e));
+            }
+            padTo(channel, out, positions[2]);
+            for (int e = 0; e < m; e++) {
+                ensureSpace(channel, out, 4);
+                out.putInt(graph.getModes(e));
+            }
+            padTo(channel, out, positions[3]);
+            for (int e = 0; e < m; e++) {
+                ensureSpace(channel, out, 8);
+                out.putDouble(graph.getDistance(e));
+            }
+            padTo(channel, out, positions[4]);
+            for (int e = 0; e < m; e++) {
+                ensureSpace(channel, out, 8);
+                out.putDouble(graph.getTime(e));
+            }
+            padTo(channel, out, positions[5]);
+            for (int e = 0; e < m; e++) {
+                ensureSpace(channel, out, 8);
+                out.putDouble(graph.getCost(e));
+            }
+            padTo(channel, out, positions[6]);
+            int nameOffset = 0;
+            for (int v = 0; v < n; v++) {
+                ensureSpace(channel, out, VERTEX_RECORD_SIZE);
+                Location location = graph.getLocationById(v);
+                if (location == null) {
+                    out.putInt(-1).putInt(0).putDouble(Double.NaN).putDouble(Double.NaN);
+                } else {
+                    out.putInt(nameOffset).putInt(encodedNames[v].length)
+                            .putDouble(location.latitude).putDouble(location.longitude);
+                    nameOffset += encodedNames[v].length;
+                }
+            }
+            padTo(channel, out, positions[7]);
+            for (int v = 0; v < n; v++) {
+                byte[] name = encodedNames[v];
+                if (name == null) {
+                    continue;
+                }
+                for (int written = 0; written < name.length; ) {
+                    ensureSpace(channel, out, 1);
+                    int chunk = Math.min(out.remaining(), name.length - written);
+                    out.put(name, written, chunk);
+                    written += chunk;
+                }
+            }
+            flush(channel, out);
+        }
+    }
+
+    /**
+     * Mở file đồ thị nhị phân ở chế độ chỉ đọc và ánh xạ các cột vào bộ nhớ.
+     * @param filePath Đường dẫn file được tạo bởi {@link #write}.
+     * @return Đồ thị đọc trực tiếp từ file.
+     * @throws IOException nếu đọc file thất bại, sai phiên bản hoặc nội dung không hợp lệ.
+     */
+    public static MappedGraph open(String filePath) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r");
+             FileChannel channel = file.getChannel()) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Invalid graph file: " + filePath + " (truncated header)");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Invalid graph file: " + filePath + " (bad magic number)");
+            }
+            int version = header.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported graph file version " + version + " in " + filePath
+                        + ". Expected " + FORMAT_VERSION + ".");
+            }
+            int n = header.getInt();
+            int numVertices = header.getInt();
+            int m = header.getInt();
+            header.getInt(); // Dự trữ
+            long[] positions = new long[NUM_SECTIONS];
+            for (int i = 0; i < NUM_SECTIONS; i++) {
+                positions[i] = header.getLong();
+            }
+            long fileLength = header.getLong();
+            if (n < 0 || numVertices < 0 || numVertices > n || m < 0 || fileLength != fileSize) {
+                throw new IOException("Invalid graph file: " + filePath + " (inconsistent header)");
+            }
+
+            long[] sizes = {4L * (n + 1), 4L * m, 4L * m, 8L * m, 8L * m, 8L * m,
+                    (long) VERTEX_RECORD_SIZE * n, fileLength - positions[7]};
+            ByteBuffer[] sections = new ByteBuffer[NUM_SECTIONS];
+            for (int i = 0; i < NUM_SECTIONS; i++) {
+                if (positions[i] < HEADER_SIZE || positions[i] % 8 != 0 || sizes[i] < 0
+                        || positions[i] + sizes[i] > fileLength || sizes[i] > Integer.MAX_VALUE) {
+                    throw new IOException("Invalid graph file: " + filePath + " (bad section " + i + ")");
+                }
+                sections[i] = channel.map(FileChannel.MapMode.READ_ONLY, positions[i], sizes[i])
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            IntBuffer offsets = sections[0].asIntBuffer();
+            if (offsets.get(0) != 0 || offsets.get(n) != m) {
+                throw new IOException("Invalid graph file: " + filePath + " (bad edge offsets)");
+            }
+            // Vùng ánh xạ vẫn hợp lệ sau khi đóng kênh
+            return new MappedGraph(n, numVertices, m, offsets, sections[1].asIntBuffer(), sections[2].asIntBuffer(),
+                    sections[3].asDoubleBuffer(), sections[4].asDoubleBuffer(), sections[5].asDoubleBuffer(),
+                    sections[6], sections[7]);
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void ensureSpace(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            flush(channel, out);
+        }
+    }
+
+    private static void padTo(FileChannel channel, ByteBuffer out, long position) throws IOException {
+        long current = channel.position() + out.position();
+        while (current < position) {
+            ensureSpace(channel, out, 1);
+            out.put((byte) 0);
+            current++;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+}
@@ -0,0 +1,83 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Đồ thị CSR bất biến lưu hoàn toàn ngoài heap (direct ByteBuffer): offsets, đích, phương tiện, ba cột
+ * trọng số, bảng đỉnh và tên địa điểm. Trên heap chỉ còn vài đối tượng buffer nhỏ, nên đồ thị hàng chục GB
+ * không làm tăng thời gian dừng của bộ thu gom rác (GC không phải duyệt Location, Route hay Node nào).
+ * Các thuật toán CSR ({@link CsrGraph}) chạy trực tiếp trên đồ thị này.
+ * Tạo bằng {@link OffHeapGraphBuilder#build()} (không cần dựng Graph trên heap trước) hoặc {@link #copyOf}.
+ * Sau {@link #close()} mọi lần đọc đồ thị ném IllegalStateException (truy vấn đang chạy dở cũng dừng ở
+ * lần đọc kế tiếp), nhưng vùng nhớ ngoài heap chỉ được trả lại khi bộ thu gom rác thu hồi các direct
+ * buffer: close() không giải phóng bộ nhớ ngay. JDK 17 không có API chuẩn để giải phóng direct buffer
+ * một cách an toàn trong khi luồng khác có thể còn đọc.
+ * Tổng bộ nhớ direct bị giới hạn bởi tùy chọn JVM -XX:MaxDirectMemorySize (mặc định bằng -Xmx).
+ * Mỗi cột tối đa 2 GB (khoảng 268 triệu cạnh). Đọc đồng thời từ nhiều luồng an toàn.
+ */
+public final class OffHeapGraph extends BufferGraph implements AutoCloseable {
+    private final long offHeapBytes;
+
+    /**
+     * Constructor nội bộ, chỉ được gọi từ OffHeapGraphBuilder.build() và copyOf().
+     * Các buffer được giữ nguyên (không sao chép), nên phía gọi không được sửa đổi chúng sau đó.
+     */
+    OffHeapGraph(int maxVertices, int numVertices, int numEdges, IntBuffer offsets, IntBuffer destinations,
+                 IntBuffer modes, DoubleBuffer distances, DoubleBuffer times, DoubleBuffer costs,
+                 ByteBuffer vertices, ByteBuffer names) {
+        super(maxVertices, numVertices, numEdges, offsets, destinations, modes, distances, times, costs,
+                vertices, names);
+        this.offHeapBytes = 4L * (offsets.capacity() + destinations.capacity() + modes.capacity())
+                + 8L * (distances.capacity() + times.capacity() + costs.capacity())
+                + vertices.capacity() + names.capacity();
+    }
+
+    /**
+     * Sao chép một đồ thị CSR (ví dụ CompactGraph hoặc MappedGraph) ra vùng nhớ ngoài heap.
+     * @param graph Đồ thị nguồn.
+     * @return Đồ thị ngoài heap có cùng đỉnh, cạnh và thứ tự cạnh.
+     */
+    public static OffHeapGraph copyOf(CsrGraph graph) {
+        int n = graph.getMaxVertices();
+        int m = graph.getNumEdges();
+        OffHeapGraphBuilder builder = new OffHeapGraphBuilder(n, m);
+        for (int v = 0; v < n; v++) {
+            Location location = graph.getLocationById(v);
+            if (location != null) {
+                builder.addVertex(location);
+            }
+        }
+        // Cạnh được thêm theo thứ tự nguồn, nên build() giữ nguyên thứ tự cạnh của đồ thị gốc
+        for (int v = 0; v < n; v++) {
+            int end = graph.getEdgeEnd(v);
+            for (int e = graph.getEdgeStart(v); e < end; e++) {
+                builder.addEdge(v, graph.getDestination(e), graph.getDistance(e), graph.getTime(e),
+                        graph.getCost(e), graph.getModes(e));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Lấy tổng dung lượng vùng nhớ ngoài heap của đồ thị.
+     * @return Số byte.
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    public boolean isClosed() {
+        return isReleased();
+    }
+
+    /**
+     * Đóng đồ thị: bỏ tham chiếu đến vùng nhớ ngoài heap, để vùng nhớ được trả lại ở lần thu gom rác kế tiếp.
+     * Gọi nhiều lần không có tác dụng thêm.
+     */
+    @Override
+    public void close() {
+        release();
+    }
+}
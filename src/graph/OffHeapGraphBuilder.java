@@ -0,0 +1,250 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dựng {@link OffHeapGraph} trực tiếp từ danh sách đỉnh và cạnh, không tạo Location, Route hay Node nào
+ * được giữ lại trên heap: đỉnh được ghi ngay vào bảng đỉnh ngoài heap, cạnh được ghi tuần tự vào các cột
+ * tạm ngoài heap (nới rộng gấp đôi khi đầy), rồi {@link #build()} xếp chúng về dạng CSR bằng sắp xếp đếm
+ * theo đỉnh nguồn (O(V + E), giữ thứ tự thêm của các cạnh cùng nguồn).
+ * Sau build() builder bỏ tham chiếu đến các cột tạm, nhưng vùng nhớ của chúng chỉ được trả lại khi bộ thu gom
+ * rác thu hồi các buffer, nên bộ nhớ direct lúc cao điểm khoảng gấp đôi kích thước đồ thị; hãy đặt
+ * -XX:MaxDirectMemorySize theo mức này. Builder không dùng lại được. Không an toàn luồng.
+ */
+public class OffHeapGraphBuilder {
+    private static final int MAX_EDGES = Integer.MAX_VALUE / 8; // Cột double tối đa 2 GB
+
+    private final int maxVertices;
+    private int numVertices;
+    private ByteBuffer vertices; // Bảng đỉnh, bản ghi BufferGraph.VERTEX_RECORD_SIZE byte
+    private ByteBuffer names;
+    private int namesLength;
+
+    private ByteBuffer sources;
+    private ByteBuffer destinations;
+    private ByteBuffer modes;
+    private ByteBuffer distances;
+    private ByteBuffer times;
+    private ByteBuffer costs;
+    private int numEdges;
+    private int edgeCapacity;
+
+    /**
+     * Constructor.
+     * @param maxVertices Số đỉnh tối đa (ID hợp lệ nằm trong [0, maxVertices)).
+     * @throws IllegalArgumentException nếu maxVertices âm hoặc quá lớn.
+     */
+    public OffHeapGraphBuilder(int maxVertices) {
+        this(maxVertices, 1024);
+    }
+
+    /**
+     * Constructor cấp phát trước chỗ cho số cạnh dự kiến, tránh sao chép khi nới rộng.
+     * @param maxVertices Số đỉnh tối đa (ID hợp lệ nằm trong [0, maxVertices)).
+     * @param expectedEdges Số cạnh dự kiến.
+     * @throws IllegalArgumentException nếu maxVertices âm hoặc quá lớn, hoặc expectedEdges âm.
+     */
+    public OffHeapGraphBuilder(int maxVertices, int expectedEdges) {
+        if (maxVertices < 0) {
+            throw new IllegalArgumentException("Maximum vertices must not be negative.");
+        }
+        if (expectedEdges < 0) {
+            throw new IllegalArgumentException("Expected edges must not be negative.");
+        }
+        this.maxVertices = maxVertices;
+        this.vertices = BufferGraph.allocateDirect((long) BufferGraph.VERTEX_RECORD_SIZE * maxVertices);
+        for (int v = 0; v < maxVertices; v++) {
+            vertices.putInt(v * BufferGraph.VERTEX_RECORD_SIZE, -1); // Chưa có đỉnh
+        }
+        this.names = BufferGraph.allocateDirect(16L * Math.min(maxVertices, 1 << 16));
+        allocateEdgeColumns(Math.max(expectedEdges, 16));
+    }
+
+    /**
+     * Thêm một đỉnh (địa điểm).
+     * @param location Địa điểm với ID trong [0, maxVertices).
+     * @throws IllegalArgumentException nếu ID không hợp lệ hoặc đã tồn tại.
+     * @throws IllegalStateException nếu builder đã được dùng để build().
+     */
+    public void addVertex(Location location) {
+        ensureBuilding();
+        int id = location.id;
+        if (id < 0 || id >= maxVertices) {
+            throw new IllegalArgumentException("Invalid Location ID: " + id + ". Must be between 0 and " + (maxVertices - 1));
+        }
+        int record = id * BufferGraph.VERTEX_RECORD_SIZE;
+        if (vertices.getInt(record) >= 0) {
+            throw new IllegalArgumentException("Location with ID " + id + " already exists.");
+        }
+        byte[] name = location.name.getBytes(StandardCharsets.UTF_8);
+        if ((long) namesLength + name.length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Location names exceed the 2 GB buffer limit.");
+        }
+        if (namesLength + name.length > names.capacity()) {
+            names = copyInto(names, namesLength,
+                    BufferGraph.allocateDirect(Math.max(namesLength + name.length, 2L * names.capacity())));
+        }
+        for (int i = 0; i < name.length; i++) {
+            names.put(namesLength + i, name[i]);
+        }
+        vertices.putInt(record, namesLength);
+        vertices.putInt(record + 4, name.length);
+        vertices.putDouble(record + 8, location.latitude);
+        vertices.putDouble(record + 16, location.longitude);
+        namesLength += name.length;
+        numVertices++;
+    }
+
+    /**
+     * Thêm một cạnh có hướng chỉ dành cho một phương tiện.
+     * @throws IllegalArgumentException nếu đỉnh không tồn tại.
+     * @throws IllegalStateException nếu đã đạt số cạnh tối đa hoặc builder đã được dùng để build().
+     */
+    public void addEdge(int sourceId, int destId, double distance, double time, double cost, TransportMode mode) {
+        addEdge(sourceId, destId, distance, time, cost, mode.mask());
+    }
+
+    /**
+     * Thêm một cạnh có hướng dành cho một tập phương tiện.
+     * @param sourceId ID đỉnh nguồn.
+     * @param destId ID đỉnh đích.
+     * @param distance Khoảng cách.
+     * @param time Thời gian.
+     * @param cost Chi phí.
+     * @param modeMask Bitmask phương tiện (khác 0).
+     * @throws IllegalArgumentException nếu đỉnh không tồn tại hoặc bitmask rỗng.
+     * @throws IllegalStateException nếu đã đạt số cạnh tối đa hoặc builder đã được dùng để build().
+     */
+    public void addEdge(int sourceId, int destId, double distance, double time, double cost, int modeMask) {
+        ensureBuilding();
+        if ((modeMask & TransportMode.ALL_MODES) == 0) {
+            throw new IllegalArgumentException("Transport mode mask must contain at least one mode.");
+        }
+        if (!hasVertex(sourceId)) throw new IllegalArgumentException("Source vertex " + sourceId + " does not exist.");
+        if (!hasVertex(destId)) throw new IllegalArgumentException("Destination vertex " + destId + " does not exist.");
+        if (numEdges == edgeCapacity) {
+            if (numEdges == MAX_EDGES) {
+                throw new IllegalStateException("Graph exceeds the maximum of " + MAX_EDGES + " edges.");
+            }
+            growEdgeColumns((int) Math.min(MAX_EDGES, 2L * edgeCapacity));
+        }
+        int e = numEdges++;
+        sources.putInt(4 * e, sourceId);
+        destinations.putInt(4 * e, destId);
+        modes.putInt(4 * e, modeMask);
+        distances.putDouble(8 * e, distance);
+        times.putDouble(8 * e, time);
+        costs.putDouble(8 * e, cost);
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /**
+     * Xếp các cạnh đã thêm về dạng CSR và tạo đồ thị ngoài heap. Các cột tạm được bỏ tham chiếu
+     * (trả lại khi bị thu gom).
+     * @return OffHeapGraph chứa mọi đỉnh và cạnh đã thêm.
+     * @throws IllegalStateException nếu builder đã được dùng để build().
+     */
+    public OffHeapGraph build() {
+        ensureBuilding();
+        int n = maxVertices;
+        int m = numEdges;
+
+        // Sắp xếp đếm: bậc ra của mỗi đỉnh, cộng dồn thành offsets
+        ByteBuffer offsets = BufferGraph.allocateDirect(4L * (n + 1));
+        for (int e = 0; e < m; e++) {
+            int index = 4 * (sources.getInt(4 * e) + 1);
+            offsets.putInt(index, offsets.getInt(index) + 1);
+        }
+        for (int v = 0; v < n; v++) {
+            offsets.putInt(4 * (v + 1), offsets.getInt(4 * (v + 1)) + offsets.getInt(4 * v));
+        }
+
+        // Đặt từng cạnh vào vị trí kế tiếp trong đoạn của đỉnh nguồn
+        ByteBuffer cursor = BufferGraph.allocateDirect(4L * n);
+        for (int v = 0; v < n; v++) {
+            cursor.putInt(4 * v, offsets.getInt(4 * v));
+        }
+        ByteBuffer csrDestinations = BufferGraph.allocateDirect(4L * m);
+        ByteBuffer csrModes = BufferGraph.allocateDirect(4L * m);
+        ByteBuffer csrDistances = BufferGraph.allocateDirect(8L * m);
+        ByteBuffer csrTimes = BufferGraph.allocateDirect(8L * m);
+        ByteBuffer csrCosts = BufferGraph.allocateDirect(8L * m);
+        for (int e = 0; e < m; e++) {
+            int source = sources.getInt(4 * e);
+            int slot = cursor.getInt(4 * source);
+            cursor.putInt(4 * source, slot + 1);
+            csrDestinations.putInt(4 * slot, destinations.getInt(4 * e));
+            csrModes.putInt(4 * slot, modes.getInt(4 * e));
+            csrDistances.putDouble(8 * slot, distances.getDouble(8 * e));
+            csrTimes.putDouble(8 * slot, times.getDouble(8 * e));
+            csrCosts.putDouble(8 * slot, costs.getDouble(8 * e));
+        }
+
+        ByteBuffer exactNames = copyInto(names, namesLength, BufferGraph.allocateDirect(namesLength));
+        OffHeapGraph graph = new OffHeapGraph(n, numVertices, m, offsets.asIntBuffer(), csrDestinations.asIntBuffer(),
+                csrModes.asIntBuffer(), csrDistances.asDoubleBuffer(), csrTimes.asDoubleBuffer(),
+                csrCosts.asDoubleBuffer(), vertices, exactNames);
+
+        // Bỏ tham chiếu đến các cột tạm để GC thu hồi được; bảng đỉnh đã thuộc về đồ thị
+        vertices = null;
+        names = null;
+        sources = null;
+        destinations = null;
+        modes = null;
+        distances = null;
+        times = null;
+        costs = null;
+        return graph;
+    }
+
+    private boolean hasVertex(int vertexId) {
+        return vertexId >= 0 && vertexId < maxVertices
+                && vertices.getInt(vertexId * BufferGraph.VERTEX_RECORD_SIZE) >= 0;
+    }
+
+    private void ensureBuilding() {
+        if (vertices == null) {
+            throw new IllegalStateException("Builder has already been used to build a graph.");
+        }
+    }
+
+    private void allocateEdgeColumns(int capacity) {
+        sources = BufferGraph.allocateDirect(4L * capacity);
+        destinations = BufferGraph.allocateDirect(4L * capacity);
+        modes = BufferGraph.allocateDirect(4L * capacity);
+        distances = BufferGraph.allocateDirect(8L * capacity);
+        times = BufferGraph.allocateDirect(8L * capacity);
+        costs = BufferGraph.allocateDirect(8L * capacity);
+        edgeCapacity = capacity;
+    }
+
+    private void growEdgeColumns(int capacity) {
+        sources = copyInto(sources, 4 * numEdges, BufferGraph.allocateDirect(4L * capacity));
+        destinations = copyInto(destinations, 4 * numEdges, BufferGraph.allocateDirect(4L * capacity));
+        modes = copyInto(modes, 4 * numEdges, BufferGraph.allocateDirect(4L * capacity));
+        distances = copyInto(distances, 8 * numEdges, BufferGraph.allocateDirect(8L * capacity));
+        times = copyInto(times, 8 * numEdges, BufferGraph.allocateDirect(8L * capacity));
+        costs = copyInto(costs, 8 * numEdges, BufferGraph.allocateDirect(8L * capacity));
+        edgeCapacity = capacity;
+    }
+
+    /**
+     * Sao chép length byte đầu của from vào đầu to.
+     * @return Buffer đích.
+     */
+    private static ByteBuffer copyInto(ByteBuffer from, int length, ByteBuffer to) {
+        ByteBuffer source = from.duplicate();
+        source.position(0).limit(length);
+        to.put(source);
+        to.clear();
+        return to;
+    }
+}
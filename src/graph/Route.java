@@ -8,31 +8,83 @@ public class Route {
     public final double distance;
     public final double time;
     public final double cost;
+    public final int modes; // Bitmask các phương tiện được phép (xem TransportMode)
+    public final int profileId; // ID hồ sơ thời gian trong TravelTimeProfiles, -1 nếu thời gian tĩnh
 
+    /**
+     * Constructor cho tuyến đường dùng được với mọi phương tiện.
+     */
     public Route(int destinationId, double distance, double time, double cost) {
+        this(destinationId, distance, time, cost, TransportMode.ALL_MODES);
+    }
+
+    /**
+     * Constructor cho tuyến đường chỉ dành cho một số phương tiện.
+     * @param modes Bitmask phương tiện (xem {@link TransportMode#mask()}).
+     */
+    public Route(int destinationId, double distance, double time, double cost, int modes) {
+        this(destinationId, distance, time, cost, modes, -1);
+    }
+
+    /**
+     * Constructor cho tuyến đường phụ thuộc thời gian.
+     * @param time Thời gian đi nhỏ nhất của hồ sơ (dùng bởi các thuật toán không phụ thuộc thời gian).
+     * @param profileId ID hồ sơ trong {@link TravelTimeProfiles}, -1 nếu thời gian tĩnh.
+     */
+    public Route(int destinationId, double distance, double time, double cost, int modes, int profileId) {
         this.destinationId = destinationId;
         this.distance = distance;
         this.time = time;
         this.cost = cost;
+        this.modes = modes;
+        this.profileId = profileId;
+    }
+
+    /**
+     * Kiểm tra thời gian đi của tuyến đường có phụ thuộc giờ khởi hành không.
+     * @return true nếu tuyến đường gắn với một hồ sơ thời gian.
+     */
+    public boolean isTimeDependent() {
+        return profileId >= 0;
     }
 
     /**
-     * Lấy trọng số dựa trên tiêu chí.
+     * Thời gian đi khi khởi hành tại một thời điểm.
+     * @param profiles Kho hồ sơ chứa hồ sơ của tuyến đường.
+     * @param departureTime Thời điểm khởi hành (giờ).
+     * @return Thời gian đi (giờ); với tuyến đường tĩnh là time.
+     */
+    public double getTravelTime(TravelTimeProfiles profiles, double departureTime) {
+        return profileId >= 0 ? profiles.getTravelTime(profileId, departureTime) : time;
+    }
+
+    /**
+     * Kiểm tra tuyến đường có dùng được với ít nhất một phương tiện trong bộ lọc.
+     * @param modeMask Bitmask phương tiện của truy vấn.
+     * @return true nếu tuyến đường được phép.
+     */
+    public boolean allows(int modeMask) {
+        return (modes & modeMask) != 0;
+    }
+
+    /**
+     * Lấy trọng số dựa trên tiêu chí dạng chuỗi.
+     * Trong vòng lặp nóng nên dùng {@link #getWeight(Criterion)} với tiêu chí đã parse sẵn.
      * @param criteria Chuỗi "distance", "time", hoặc "cost".
      * @return Trọng số tương ứng.
      * @throws IllegalArgumentException nếu tiêu chí không hợp lệ.
      */
     public double getWeight(String criteria) {
-        switch (criteria.toLowerCase()) {
-            case "distance":
-                return distance;
-            case "time":
-                return time;
-            case "cost":
-                return cost;
-            default:
-                throw new IllegalArgumentException("Invalid criteria: " + criteria + ". Use 'distance', 'time', or 'cost'.");
-        }
+        return Criterion.parse(criteria).weightOf(this);
+    }
+
+    /**
+     * Lấy trọng số theo tiêu chí đã được kiểm tra trước.
+     * @param criterion Tiêu chí.
+     * @return Trọng số tương ứng.
+     */
+    public double getWeight(Criterion criterion) {
+        return criterion.weightOf(this);
     }
 
     @Override
@@ -0,0 +1,189 @@
+package graph;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf để thay đổi kích thước mảng
+
+/**
+ * Lịch chạy dạng danh sách chuyến nối (connection) giữa các địa điểm của một đồ thị, dùng cho
+ * phương tiện theo lịch (tàu, máy bay). Mỗi chuyến nối là một đoạn chạy không dừng của một chuyến
+ * (trip): từ điểm dừng A lúc t1 đến điểm dừng B lúc t2. Các chuyến nối được thêm theo thứ tự bất kỳ
+ * vào các mảng nguyên thủy, rồi {@link #freeze()} sắp xếp chúng theo giờ khởi hành thành
+ * {@link CompactTimetable} bất biến cho thuật toán Connection Scan.
+ * Giờ được tính bằng giờ kể từ 0h ngày đầu tiên của lịch (không lặp theo chu kỳ ngày).
+ */
+public class Timetable {
+    private final Location[] locations; // Địa điểm của đồ thị tại thời điểm tạo lịch, chỉ số theo ID
+
+    private int[] departureStops = new int[64];
+    private int[] arrivalStops = new int[64];
+    private double[] departureTimes = new double[64];
+    private double[] arrivalTimes = new double[64];
+    private int[] tripIds = new int[64];
+    private int[] modes = new int[64];
+    private int numConnections;
+    private int maxTripId = -1;
+    private int[] tripModes = new int[16]; // Bitmask phương tiện của mỗi chuyến, 0 nếu chưa dùng
+
+    /**
+     * Tạo lịch chạy rỗng trên các địa điểm hiện có của đồ thị.
+     * @param graph Đồ thị cung cấp ID và thông tin địa điểm (điểm dừng).
+     */
+    public Timetable(GraphView graph) {
+        this.locations = new Location[graph.getMaxVertices()];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = graph.getLocationById(i);
+        }
+    }
+
+    /**
+     * Thêm một chuyến nối không thuộc chuyến nào khác (hành khách luôn phải lên tàu/máy bay mới).
+     * @param departureStop ID điểm khởi hành.
+     * @param arrivalStop ID điểm đến.
+     * @param departureTime Giờ khởi hành.
+     * @param arrivalTime Giờ đến (không sớm hơn giờ khởi hành).
+     * @param mode Phương tiện.
+     * @throws IllegalArgumentException nếu điểm dừng không tồn tại hoặc giờ không hợp lệ.
+     */
+    public void addConnection(int departureStop, int arrivalStop, double departureTime, double arrivalTime,
+                              TransportMode mode) {
+        addConnection(departureStop, arrivalStop, departureTime, arrivalTime, -1, mode);
+    }
+
+    /**
+     * Thêm một chuyến nối thuộc một chuyến; hành khách ngồi tiếp trên cùng chuyến không phải đổi tàu.
+     * Các chuyến nối của cùng một chuyến phải nối tiếp nhau (điểm đến của đoạn trước là điểm khởi hành
+     * của đoạn sau, không sớm hơn).
+     * @param departureStop ID điểm khởi hành.
+     * @param arrivalStop ID điểm đến.
+     * @param departureTime Giờ khởi hành.
+     * @param arrivalTime Giờ đến (không sớm hơn giờ khởi hành).
+     * @param tripId ID chuyến (không âm), hoặc -1 nếu chuyến nối đứng riêng.
+     * @param mode Phương tiện (mọi chuyến nối của một chuyến phải cùng phương tiện).
+     * @throws IllegalArgumentException nếu điểm dừng không tồn tại, giờ hoặc ID chuyến không hợp lệ,
+     *         hoặc chuyến đã dùng phương tiện khác.
+     */
+    public void addConnection(int departureStop, int arrivalStop, double departureTime, double arrivalTime,
+                              int tripId, TransportMode mode) {
+        validateStop(departureStop);
+        validateStop(arrivalStop);
+        if (Double.isNaN(departureTime) || Double.isInfinite(departureTime)
+                || Double.isNaN(arrivalTime) || Double.isInfinite(arrivalTime)) {
+            throw new IllegalArgumentException("Connection times must be finite.");
+        }
+        if (arrivalTime < departureTime) {
+            throw new IllegalArgumentException("Connection arrives before it departs.");
+        }
+        if (tripId < -1) {
+            throw new IllegalArgumentException("Invalid trip ID: " + tripId + ". Use -1 for a standalone connection.");
+        }
+        if (tripId >= 0) {
+            // Một chuyến chỉ chạy bằng một phương tiện, để bộ lọc phương tiện không cắt đôi chuyến
+            if (tripId >= tripModes.length) {
+                tripModes = Arrays.copyOf(tripModes, Math.max(tripId + 1, tripModes.length * 2));
+            }
+            if (tripModes[tripId] != 0 && tripModes[tripId] != mode.mask()) {
+                throw new IllegalArgumentException("Trip " + tripId + " already uses a different transport mode.");
+            }
+            tripModes[tripId] = mode.mask();
+        }
+        if (numConnections == departureStops.length) {
+            grow();
+        }
+        int c = numConnections++;
+        departureStops[c] = departureStop;
+        arrivalStops[c] = arrivalStop;
+        departureTimes[c] = departureTime;
+        arrivalTimes[c] = arrivalTime;
+        tripIds[c] = tripId;
+        modes[c] = mode.mask();
+        maxTripId = Math.max(maxTripId, tripId);
+    }
+
+    /**
+     * Lấy số chuyến nối đã thêm.
+     * @return Số chuyến nối.
+     */
+    public int getNumConnections() {
+        return numConnections;
+    }
+
+    /**
+     * Tạo lịch chạy bất biến với các chuyến nối sắp theo giờ khởi hành (rồi giờ đến).
+     * Chuyến nối đứng riêng được cấp ID chuyến riêng (lớn hơn mọi ID chuyến đã dùng), để thuật toán
+     * không phải xử lý trường hợp -1.
+     * @return CompactTimetable tương ứng với lịch chạy hiện tại.
+     */
+    public CompactTimetable freeze() {
+        int n = numConnections;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        sort(order, new int[n], 0, n);
+
+        int[] sortedDepartureStops = new int[n];
+        int[] sortedArrivalStops = new int[n];
+        double[] sortedDepartureTimes = new double[n];
+        double[] sortedArrivalTimes = new double[n];
+        int[] sortedTripIds = new int[n];
+        int[] sortedModes = new int[n];
+        int numTrips = maxTripId + 1;
+        for (int k = 0; k < n; k++) {
+            int c = order[k];
+            sortedDepartureStops[k] = departureStops[c];
+            sortedArrivalStops[k] = arrivalStops[c];
+            sortedDepartureTimes[k] = departureTimes[c];
+            sortedArrivalTimes[k] = arrivalTimes[c];
+            sortedTripIds[k] = tripIds[c] >= 0 ? tripIds[c] : numTrips++;
+            sortedModes[k] = modes[c];
+        }
+        return new CompactTimetable(locations.clone(), numTrips, sortedDepartureStops, sortedArrivalStops,
+                sortedDepartureTimes, sortedArrivalTimes, sortedTripIds, sortedModes);
+    }
+
+    /**
+     * Sắp xếp trộn (ổn định) các chỉ số chuyến nối trong đoạn [from, to) theo giờ khởi hành, rồi giờ đến.
+     * Chuyến nối 0 phút của cùng chuyến giữ nguyên thứ tự thêm vào.
+     */
+    private void sort(int[] order, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(order, buffer, from, middle);
+        sort(order, buffer, middle, to);
+        int i = from;
+        int j = middle;
+        int k = from;
+        while (i < middle && j < to) {
+            buffer[k++] = compare(order[j], order[i]) < 0 ? order[j++] : order[i++];
+        }
+        while (i < middle) {
+            buffer[k++] = order[i++];
+        }
+        while (j < to) {
+            buffer[k++] = order[j++];
+        }
+        System.arraycopy(buffer, from, order, from, to - from);
+    }
+
+    private int compare(int a, int b) {
+        int result = Double.compare(departureTimes[a], departureTimes[b]);
+        return result != 0 ? result : Double.compare(arrivalTimes[a], arrivalTimes[b]);
+    }
+
+    private void validateStop(int stopId) {
+        if (stopId < 0 || stopId >= locations.length || locations[stopId] == null) {
+            throw new IllegalArgumentException("Stop with ID " + stopId + " does not exist.");
+        }
+    }
+
+    private void grow() {
+        int newCapacity = departureStops.length * 2;
+        departureStops = Arrays.copyOf(departureStops, newCapacity);
+        arrivalStops = Arrays.copyOf(arrivalStops, newCapacity);
+        departureTimes = Arrays.copyOf(departureTimes, newCapacity);
+        arrivalTimes = Arrays.copyOf(arrivalTimes, newCapacity);
+        tripIds = Arrays.copyOf(tripIds, newCapacity);
+        modes = Arrays.copyOf(modes, newCapacity);
+    }
+}
@@ -0,0 +1,80 @@
+package graph;
+
+/**
+ * Phương tiện di chuyển trên một tuyến đường.
+ * Mỗi phương tiện ứng với một bit, nên một tập phương tiện (bộ lọc truy vấn,
+ * hoặc các phương tiện được phép trên một Route) là một số nguyên bitmask.
+ */
+public enum TransportMode {
+    CAR("car"),
+    MOTORBIKE("motorbike"),
+    TRAIN("train"),
+    PLANE("plane");
+
+    /** Bitmask chứa tất cả phương tiện. */
+    public static final int ALL_MODES = (1 << values().length) - 1;
+
+    private final String name;
+
+    TransportMode(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Lấy bit tương ứng với phương tiện.
+     * @return Bitmask chỉ chứa phương tiện này.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Kiểm tra phương tiện có nằm trong một bitmask hay không.
+     * @param modeMask Bitmask phương tiện.
+     * @return true nếu bit của phương tiện được bật.
+     */
+    public boolean isIn(int modeMask) {
+        return (modeMask & mask()) != 0;
+    }
+
+    /**
+     * Lấy tên phương tiện ("car", "motorbike", "train", "plane").
+     * @return Tên phương tiện.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tạo bitmask từ danh sách phương tiện.
+     * @param modes Các phương tiện.
+     * @return Bitmask tương ứng.
+     */
+    public static int maskOf(TransportMode... modes) {
+        int mask = 0;
+        for (TransportMode mode : modes) {
+            mask |= mode.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Chuyển tên phương tiện (không phân biệt hoa thường) thành TransportMode.
+     * @param name Tên phương tiện.
+     * @return Phương tiện tương ứng.
+     * @throws IllegalArgumentException nếu tên không hợp lệ.
+     */
+    public static TransportMode fromName(String name) {
+        for (TransportMode mode : values()) {
+            if (mode.name.equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid transport mode: " + name + ". Use 'car', 'motorbike', 'train', or 'plane'.");
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,245 @@
+package graph;
+
+import java.util.Arrays; // Chỉ dùng Arrays.copyOf để thay đổi kích thước mảng
+
+/**
+ * Kho các hồ sơ thời gian di chuyển phụ thuộc giờ khởi hành, dùng cho cạnh phụ thuộc thời gian
+ * (xem {@link Graph#addTimeDependentEdge}). Có hai loại hồ sơ, đều lặp lại theo chu kỳ một ngày (PERIOD giờ):
+ * <ul>
+ *   <li>Tuyến tính từng đoạn (đường bộ): các điểm gãy (giờ trong ngày, thời gian đi); thời gian đi
+ *       tại một giờ bất kỳ được nội suy tuyến tính, đoạn cuối nối vòng về điểm đầu của ngày hôm sau.</li>
+ *   <li>Lịch chạy (tàu, máy bay): các chuyến (giờ khởi hành, thời lượng); thời gian đi gồm cả thời gian
+ *       chờ đến chuyến khởi hành sớm nhất có thể.</li>
+ * </ul>
+ * Mọi hồ sơ được lưu nối tiếp trong hai mảng float dùng chung (8 byte mỗi điểm gãy, không có đối tượng
+ * cho từng điểm) cùng mảng vị trí bắt đầu của từng hồ sơ, nên chứa được hàng chục triệu điểm gãy.
+ * Độ chính xác float trên một ngày (khoảng vài mili giây) là đủ cho lịch trình.
+ * Mọi hồ sơ đều thỏa FIFO (khởi hành muộn hơn không bao giờ đến sớm hơn), điều kiện để
+ * Dijkstra phụ thuộc thời gian cho kết quả đúng. Không an toàn luồng khi đang thêm hồ sơ;
+ * chỉ đọc thì dùng chung được giữa các luồng.
+ */
+public class TravelTimeProfiles {
+
+    /** Chu kỳ của mọi hồ sơ: một ngày, tính bằng giờ. */
+    public static final double PERIOD = 24.0;
+
+    private static final byte PIECEWISE_LINEAR = 0;
+    private static final byte TIMETABLE = 1;
+
+    private float[] times = new float[64];  // Giờ của điểm gãy / giờ khởi hành của chuyến, trong [0, PERIOD)
+    private float[] values = new float[64]; // Thời gian đi tại điểm gãy / thời lượng của chuyến
+    private int numPoints;
+
+    private int[] offsets = new int[17];    // Hồ sơ p chiếm các điểm [offsets[p], offsets[p + 1])
+    private byte[] kinds = new byte[16];
+    private float[] minTravelTimes = new float[16];
+    private int numProfiles;
+
+    /**
+     * Thêm hồ sơ tuyến tính từng đoạn.
+     * @param breakpointTimes Giờ trong ngày của các điểm gãy, tăng dần nghiêm ngặt trong [0, PERIOD).
+     * @param travelTimes Thời gian đi (giờ, không âm) khi khởi hành đúng tại mỗi điểm gãy.
+     * @return ID của hồ sơ.
+     * @throws IllegalArgumentException nếu dữ liệu rỗng, không hợp lệ hoặc vi phạm FIFO
+     *         (thời gian đi giảm nhanh hơn thời gian trôi).
+     */
+    public int addPiecewiseLinear(double[] breakpointTimes, double[] travelTimes) {
+        int n = breakpointTimes.length;
+        if (n == 0 || travelTimes.length != n) {
+            throw new IllegalArgumentException("Profile needs the same, non-zero number of breakpoint times and travel times.");
+        }
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            validateTimeOfDay(breakpointTimes[i]);
+            if (!(travelTimes[i] >= 0.0) || Double.isInfinite(travelTimes[i])) {
+                throw new IllegalArgumentException("Travel times must be finite and non-negative.");
+            }
+            if (i > 0 && breakpointTimes[i] <= breakpointTimes[i - 1]) {
+                throw new IllegalArgumentException("Breakpoint times must be strictly increasing.");
+            }
+            // FIFO: đến nơi tại điểm gãy sau không được sớm hơn tại điểm gãy trước (kể cả đoạn nối vòng)
+            int next = (i + 1) % n;
+            double nextTime = next == 0 ? breakpointTimes[0] + PERIOD : breakpointTimes[next];
+            if (n > 1 && nextTime + travelTimes[next] < breakpointTimes[i] + travelTimes[i]) {
+                throw new IllegalArgumentException("Profile violates FIFO between breakpoints " + i + " and " + next + ".");
+            }
+            min = Math.min(min, travelTimes[i]);
+        }
+        int profileId = beginProfile(PIECEWISE_LINEAR, n);
+        for (int i = 0; i < n; i++) {
+            times[numPoints] = (float) breakpointTimes[i];
+            values[numPoints] = (float) travelTimes[i];
+            numPoints++;
+        }
+        return endProfile(profileId, min);
+    }
+
+    /**
+     * Thêm hồ sơ lịch chạy. Các chuyến bị trội (có chuyến khởi hành muộn hơn mà đến sớm hơn hoặc cùng lúc,
+     * kể cả chuyến của ngày hôm sau) bị loại ngay khi thêm, nên giờ đến tăng theo giờ khởi hành
+     * và chuyến tốt nhất luôn là chuyến khởi hành sớm nhất chưa bị lỡ.
+     * @param departureTimes Giờ khởi hành trong ngày của các chuyến, trong [0, PERIOD) (không cần sắp xếp).
+     * @param durations Thời lượng của từng chuyến (giờ, không âm).
+     * @return ID của hồ sơ.
+     * @throws IllegalArgumentException nếu dữ liệu rỗng hoặc không hợp lệ.
+     */
+    public int addTimetable(double[] departureTimes, double[] durations) {
+        int n = departureTimes.length;
+        if (n == 0 || durations.length != n) {
+            throw new IllegalArgumentException("Timetable needs the same, non-zero number of departures and durations.");
+        }
+        for (int i = 0; i < n; i++) {
+            validateTimeOfDay(departureTimes[i]);
+            if (!(durations[i] >= 0.0) || Double.isInfinite(durations[i])) {
+                throw new IllegalArgumentException("Durations must be finite and non-negative.");
+            }
+        }
+        // Sắp xếp chỉ số theo giờ khởi hành (rồi theo thời lượng), sắp xếp chèn vì lịch mỗi cạnh nhỏ
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = i;
+            while (j > 0 && (departureTimes[order[j - 1]] > departureTimes[i]
+                    || (departureTimes[order[j - 1]] == departureTimes[i] && durations[order[j - 1]] > durations[i]))) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        // Duyệt ngược, giữ các chuyến đến sớm hơn mọi chuyến khởi hành sau nó (kể cả sang ngày hôm sau)
+        double bestLaterArrival = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            bestLaterArrival = Math.min(bestLaterArrival, departureTimes[i] + durations[i] + PERIOD);
+        }
+        boolean[] keep = new boolean[n];
+        int kept = 0;
+        double min = Double.POSITIVE_INFINITY;
+        for (int k = n - 1; k >= 0; k--) {
+            int i = order[k];
+            double arrival = departureTimes[i] + durations[i];
+            if (arrival < bestLaterArrival) {
+                keep[k] = true;
+                kept++;
+                bestLaterArrival = arrival;
+                min = Math.min(min, durations[i]);
+            }
+        }
+        int profileId = beginProfile(TIMETABLE, kept);
+        for (int k = 0; k < n; k++) {
+            if (keep[k]) {
+                times[numPoints] = (float) departureTimes[order[k]];
+                values[numPoints] = (float) durations[order[k]];
+                numPoints++;
+            }
+        }
+        return endProfile(profileId, min);
+    }
+
+    /**
+     * Thời gian đi (kể cả thời gian chờ với lịch chạy) khi khởi hành tại một thời điểm.
+     * @param profileId ID của hồ sơ.
+     * @param departureTime Thời điểm khởi hành (giờ, tính từ 0h ngày đầu tiên; có thể vượt quá PERIOD).
+     * @return Thời gian đi (giờ).
+     * @throws IllegalArgumentException nếu ID không hợp lệ.
+     */
+    public double getTravelTime(int profileId, double departureTime) {
+        validateProfileId(profileId);
+        int from = offsets[profileId];
+        int to = offsets[profileId + 1];
+        double timeOfDay = departureTime - Math.floor(departureTime / PERIOD) * PERIOD;
+
+        // Vị trí của điểm gãy/chuyến đầu tiên có giờ >= timeOfDay (tìm kiếm nhị phân)
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < timeOfDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        if (kinds[profileId] == TIMETABLE) {
+            // Chờ chuyến sớm nhất chưa khởi hành, hoặc chuyến đầu tiên của ngày hôm sau
+            double wait = low < to ? times[low] - timeOfDay : times[from] + PERIOD - timeOfDay;
+            int connection = low < to ? low : from;
+            return Math.max(0.0, wait) + values[connection];
+        }
+
+        if (to - from == 1) {
+            return values[from];
+        }
+        // Nội suy giữa điểm gãy trước (prev) và sau (next), nối vòng qua nửa đêm
+        int next = low < to ? low : from;
+        int prev = low > from ? low - 1 : to - 1;
+        double prevTime = times[prev];
+        double nextTime = times[next];
+        if (low == to) {
+            nextTime += PERIOD;
+        } else if (low == from) {
+            prevTime -= PERIOD;
+        }
+        double span = nextTime - prevTime;
+        double ratio = span > 0.0 ? (timeOfDay - prevTime) / span : 0.0;
+        return values[prev] + (values[next] - values[prev]) * ratio;
+    }
+
+    /**
+     * Thời gian đi nhỏ nhất của hồ sơ (không tính thời gian chờ), dùng làm trọng số tĩnh của cạnh.
+     * @param profileId ID của hồ sơ.
+     * @return Thời gian đi nhỏ nhất (giờ).
+     * @throws IllegalArgumentException nếu ID không hợp lệ.
+     */
+    public double getMinTravelTime(int profileId) {
+        validateProfileId(profileId);
+        return minTravelTimes[profileId];
+    }
+
+    public int getNumProfiles() {
+        return numProfiles;
+    }
+
+    /**
+     * Lấy tổng số điểm gãy/chuyến đã lưu.
+     * @return Số điểm.
+     */
+    public int getNumPoints() {
+        return numPoints;
+    }
+
+    private int beginProfile(byte kind, int points) {
+        if (numProfiles == kinds.length) {
+            int newCapacity = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, newCapacity);
+            minTravelTimes = Arrays.copyOf(minTravelTimes, newCapacity);
+            offsets = Arrays.copyOf(offsets, newCapacity + 1);
+        }
+        if (numPoints + points > times.length) {
+            int newCapacity = Math.max(numPoints + points, times.length * 2);
+            times = Arrays.copyOf(times, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        kinds[numProfiles] = kind;
+        offsets[numProfiles] = numPoints;
+        return numProfiles;
+    }
+
+    private int endProfile(int profileId, double minTravelTime) {
+        minTravelTimes[profileId] = (float) minTravelTime;
+        offsets[profileId + 1] = numPoints;
+        numProfiles++;
+        return profileId;
+    }
+
+    private static void validateTimeOfDay(double time) {
+        if (!(time >= 0.0) || time >= PERIOD) {
+            throw new IllegalArgumentException("Time of day must be in [0, " + PERIOD + "): " + time);
+        }
+    }
+
+    private void validateProfileId(int profileId) {
+        if (profileId < 0 || profileId >= numProfiles) {
+            throw new IllegalArgumentException("Invalid profile ID: " + profileId + ". Must be between 0 and " + (numProfiles - 1));
+        }
+    }
+}
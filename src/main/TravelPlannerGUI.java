@@ -1,16 +1,23 @@
 package main;
 
 import algorithms.DijkstraResult;
-import algorithms.ShortestPathAlgorithm;
+import algorithms.MultiModalResult;
+import algorithms.RouteCache;
 import datastructure.CustomLinkedList;
+import graph.Criterion;
 import graph.Graph;
+import graph.GraphLoader;
 import graph.Location;
+import graph.TransportMode;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 public class TravelPlannerGUI extends JFrame {
@@ -26,19 +33,52 @@ public class TravelPlannerGUI extends JFrame {
     private Map<String, Location> locationMap;
     // Danh sách tất cả các địa điểm được định nghĩa, dùng để khởi tạo combobox và đồ thị
     private CustomLinkedList<Location> allDefinedLocations;
+    // Đồ thị đa phương tiện, xây dựng một lần khi khởi động
+    private final Graph travelGraph;
+    // Cache kết quả tìm đường: các cặp thành phố phổ biến được hỏi lại liên tục
+    private static final int ROUTE_CACHE_CAPACITY = 256;
+    private static final long ROUTE_CACHE_TTL_MILLIS = 10 * 60 * 1000L;
+    private final RouteCache routeCache = new RouteCache(ROUTE_CACHE_CAPACITY, ROUTE_CACHE_TTL_MILLIS);
 
-    private static final String[] TRANSPORT_MODES = {"car", "motorbike", "train", "plane"};
+    // Số phương án thay thế hiển thị thêm, và độ chênh tối đa so với đường tốt nhất (10%)
+    private static final int MAX_ALTERNATIVES = 2;
+    private static final double ALTERNATIVE_MAX_STRETCH = 1.1;
 
-    // Định nghĩa các đối tượng Location một lần để dễ tham chiếu
-    private static final Location HANOI = new Location(0, "Hanoi");
-    private static final Location HAIPHONG = new Location(1, "Hai Phong");
-    private static final Location DANANG = new Location(2, "Da Nang");
-    private static final Location HCMC = new Location(3, "Ho Chi Minh City");
-    private static final Location HUE = new Location(4, "Hue");
-    private static final Location NHATRANG = new Location(5, "Nha Trang");
+    private static final String MIXED_MODE = "mixed";
+    private static final String[] TRANSPORT_MODES = {"car", "motorbike", "train", "plane", MIXED_MODE};
 
+    // Phí mỗi lần đổi phương tiện khi chọn "mixed" (thời gian chờ và chi phí trung chuyển)
+    private static final double TRANSFER_TIME_HOURS = 1.0;
+    private static final double TRANSFER_COST_USD = 5.0;
+
+    // Mạng lưới mẫu đi kèm ứng dụng (định dạng của GraphLoader), nạp từ classpath cạnh lớp này
+    private static final String DEFAULT_NETWORK_RESOURCE = "vietnam_network.csv";
+
+    /**
+     * Tạo giao diện trên mạng lưới mẫu đi kèm ứng dụng.
+     */
     public TravelPlannerGUI() {
-        this.allDefinedLocations = defineStaticLocations(); // Khởi tạo danh sách địa điểm
+        this(loadDefaultGraph());
+    }
+
+    /**
+     * Tạo giao diện trên một đồ thị có sẵn (ví dụ nạp từ file bằng GraphLoader),
+     * với mọi đỉnh của đồ thị là địa điểm để chọn.
+     * @param travelGraph Đồ thị đa phương tiện.
+     */
+    public TravelPlannerGUI(Graph travelGraph) {
+        this.allDefinedLocations = new CustomLinkedList<>();
+        for (int id = 0; id < travelGraph.getMaxVertices(); id++) {
+            Location loc = travelGraph.getLocationById(id);
+            if (loc != null) {
+                this.allDefinedLocations.add(loc);
+            }
+        }
+        this.travelGraph = travelGraph;
+        initWindow();
+    }
+
+    private void initWindow() {
         this.locationMap = new HashMap<>();
         for (Location loc : this.allDefinedLocations) {
             locationMap.put(loc.name + " (ID: " + loc.id + ")", loc);
@@ -55,18 +95,6 @@ public class TravelPlannerGUI extends JFrame {
         setLocationRelativeTo(null);
     }
 
-    // Phương thức để định nghĩa tất cả các địa điểm có thể có
-    private CustomLinkedList<Location> defineStaticLocations() {
-        CustomLinkedList<Location> locations = new CustomLinkedList<>();
-        locations.add(HANOI);
-        locations.add(HAIPHONG);
-        locations.add(DANANG);
-        locations.add(HCMC);
-        locations.add(HUE);
-        locations.add(NHATRANG);
-        return locations;
-    }
-
     private void initComponents() {
         // --- Selection Panel ---
         JPanel selectionPanel = new JPanel(new GridBagLayout());
@@ -182,11 +210,17 @@ public class TravelPlannerGUI extends JFrame {
             return;
         }
 
-        // Xây dựng đồ thị CHỈ với dữ liệu của phương tiện đã chọn
-        Graph graphForCurrentMode = buildGraphForMode(transportMode);
-
-        // Gọi thuật toán tìm đường ngắn nhất.
-        DijkstraResult result = ShortestPathAlgorithm.findShortestPath(graphForCurrentMode, startLoc.id, endLoc.id, criteria);
+        // Gọi thuật toán tìm đường ngắn nhất trên đồ thị chung (qua cache), lọc theo phương tiện đã chọn
+        Criterion criterion = Criterion.parse(criteria);
+        DijkstraResult result;
+        if (transportMode.equals(MIXED_MODE)) {
+            double transferPenalty = criterion.weightOf(0.0, TRANSFER_TIME_HOURS, TRANSFER_COST_USD);
+            result = routeCache.findMultiModalPath(travelGraph, startLoc.id, endLoc.id, criterion,
+                    TransportMode.ALL_MODES, transferPenalty);
+        } else {
+            int modeMask = TransportMode.fromName(transportMode).mask();
+            result = routeCache.findShortestPath(travelGraph, startLoc.id, endLoc.id, criterion, modeMask);
+        }
 
         String descriptiveLabelPrefix = "Total Value";
         String unit = "";
@@ -202,14 +236,21 @@ public class TravelPlannerGUI extends JFrame {
 
         if (result.pathFound) {
             StringBuilder pathText = new StringBuilder("Optimal path using '" + transportMode + "' based on '" + criteria + "':\n");
+            // Với "mixed", ghi kèm phương tiện của từng chặng
+            Iterator<TransportMode> legModes = (result instanceof MultiModalResult)
+                    ? ((MultiModalResult) result).legModes.iterator() : null;
             boolean first = true;
             for (Location locNode : result.path) {
                 if (!first) {
-                    pathText.append(" -> ");
+                    pathText.append(legModes != null ? " -(" + legModes.next() + ")-> " : " -> ");
                 }
                 pathText.append(locNode.name);
                 first = false;
             }
+            if (!transportMode.equals(MIXED_MODE)) {
+                appendAlternatives(pathText, startLoc, endLoc, criterion, TransportMode.fromName(transportMode).mask(),
+                        result.totalValue, unit);
+            }
             resultArea.setText(pathText.toString());
             totalValueLabel.setText(String.format("%s: %.2f %s", descriptiveLabelPrefix, result.totalValue, unit));
 
@@ -221,172 +262,75 @@ public class TravelPlannerGUI extends JFrame {
     }
 
     /**
-     * Xây dựng và trả về một đối tượng Graph chỉ chứa các cạnh và dữ liệu
-     * (distance, time, cost) tương ứng với `transportMode` được chọn.
-     * Giả sử lớp Graph có addVertex(Location) và addEdge(fromId, toId, distance, time, cost).
+     * Ghi thêm các phương án thay thế (k đường ngắn nhất, bỏ đường tốt nhất đã hiển thị)
+     * có tổng giá trị không quá ALTERNATIVE_MAX_STRETCH lần đường tốt nhất.
+     * Danh sách được lưu trong routeCache cùng với đường tốt nhất, nên hỏi lại không chạy lại Yen.
      */
-    private Graph buildGraphForMode(String transportMode) {
-        Graph modeSpecificGraph = new Graph(this.allDefinedLocations.size() + 5); // Cung cấp kích thước khởi tạo
-
-        // Thêm tất cả các đỉnh (địa điểm) đã định nghĩa vào đồ thị này
-        for (Location loc : this.allDefinedLocations) {
-            modeSpecificGraph.addVertex(loc);
-        }
-
-        // Thêm các cạnh với dữ liệu cụ thể cho transportMode đã chọn
-        // Dữ liệu mẫu (distance km, time hours, cost USD)
-
-        // --- Tuyến Hà Nội (HANOI.id) ---
-        // Hà Nội <-> Hải Phòng (HAIPHONG.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(HANOI.id, HAIPHONG.id, 120, 2.0, 15);
-            modeSpecificGraph.addEdge(HAIPHONG.id, HANOI.id, 120, 2.0, 15);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(HANOI.id, HAIPHONG.id, 125, 2.5, 7);
-            modeSpecificGraph.addEdge(HAIPHONG.id, HANOI.id, 125, 2.5, 7);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(HANOI.id, HAIPHONG.id, 105, 2.2, 10);
-            modeSpecificGraph.addEdge(HAIPHONG.id, HANOI.id, 105, 2.2, 10);
-        } // Không có "plane" cho Hà Nội-Hải Phòng
-
-        // Hà Nội <-> Đà Nẵng (DANANG.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(HANOI.id, DANANG.id, 770, 14.0, 70);
-            modeSpecificGraph.addEdge(DANANG.id, HANOI.id, 770, 14.0, 70);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(HANOI.id, DANANG.id, 800, 18.0, 45);
-            modeSpecificGraph.addEdge(DANANG.id, HANOI.id, 800, 18.0, 45);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(HANOI.id, DANANG.id, 790, 16.0, 50);
-            modeSpecificGraph.addEdge(DANANG.id, HANOI.id, 790, 16.0, 50);
-        } else if (transportMode.equals("plane")) {
-            modeSpecificGraph.addEdge(HANOI.id, DANANG.id, 630, 1.25, 65); // Khoảng cách đường bay
-            modeSpecificGraph.addEdge(DANANG.id, HANOI.id, 630, 1.25, 65);
-        }
-
-        // Hà Nội <-> Huế (HUE.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(HANOI.id, HUE.id, 670, 12.0, 60);
-            modeSpecificGraph.addEdge(HUE.id, HANOI.id, 670, 12.0, 60);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(HANOI.id, HUE.id, 690, 15.0, 40);
-            modeSpecificGraph.addEdge(HUE.id, HANOI.id, 690, 15.0, 40);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(HANOI.id, HUE.id, 688, 13.5, 45);
-            modeSpecificGraph.addEdge(HUE.id, HANOI.id, 688, 13.5, 45);
-        } else if (transportMode.equals("plane")) {
-            modeSpecificGraph.addEdge(HANOI.id, HUE.id, 540, 1.15, 60);
-            modeSpecificGraph.addEdge(HUE.id, HANOI.id, 540, 1.15, 60);
-        }
-        // Hà nội <-> Hồ Chí Minh
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(HANOI.id, HCMC.id, 1680, 30.0, 110);
-            modeSpecificGraph.addEdge(HCMC.id, HANOI.id, 1680, 30.0, 110);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(HANOI.id, HCMC.id, 1730, 43.25, 85);
-            modeSpecificGraph.addEdge(HCMC.id, HANOI.id, 1730, 43.25, 85);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(HANOI.id, HCMC.id, 1710, 38.25, 95);
-            modeSpecificGraph.addEdge(HCMC.id, HANOI.id, 1710, 38.25, 95);
-        } else if (transportMode.equals("plane")) {
-            modeSpecificGraph.addEdge(HANOI.id, HCMC.id, 1160, 2.15, 125);
-            modeSpecificGraph.addEdge(HCMC.id, HANOI.id, 1160, 2.15, 125);
-        }
-
-        // --- Tuyến Hải Phòng (HAIPHONG.id) ---
-        // Hải Phòng <-> Đà Nẵng (DANANG.id)
-        // Đối với tàu/máy bay thường nối chuyến qua Hà Nội.
-        // Để đơn giản, chỉ thêm xe hơi/xe máy trực tiếp.
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(HAIPHONG.id, DANANG.id, 890, 16.0, 85);
-            modeSpecificGraph.addEdge(DANANG.id, HAIPHONG.id, 890, 16.0, 85);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(HAIPHONG.id, DANANG.id, 920, 20.0, 55);
-            modeSpecificGraph.addEdge(DANANG.id, HAIPHONG.id, 920, 20.0, 55);
-        }
-
-        // --- Tuyến Huế (HUE.id) ---
-        // Huế <-> Đà Nẵng (DANANG.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(HUE.id, DANANG.id, 100, 2.0, 12); // Qua hầm nhanh hơn
-            modeSpecificGraph.addEdge(DANANG.id, HUE.id, 100, 2.0, 12);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(HUE.id, DANANG.id, 120, 3.5, 8); // Qua đèo Hải Vân
-            modeSpecificGraph.addEdge(DANANG.id, HUE.id, 120, 3.5, 8);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(HUE.id, DANANG.id, 103, 2.5, 7);
-            modeSpecificGraph.addEdge(DANANG.id, HUE.id, 103, 2.5, 7);
-        } // Không có "plane" cho Huế-Đà Nẵng
-
-        // Huế <-> TP. Hồ Chí Minh (HCMC.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(HUE.id, HCMC.id, 950, 18.0, 90);
-            modeSpecificGraph.addEdge(HCMC.id, HUE.id, 950, 18.0, 90);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(HUE.id, HCMC.id, 980, 22.0, 60);
-            modeSpecificGraph.addEdge(HCMC.id, HUE.id, 980, 22.0, 60);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(HUE.id, HCMC.id, 1040, 20.0, 70);
-            modeSpecificGraph.addEdge(HCMC.id, HUE.id, 1040, 20.0, 70);
-        } else if (transportMode.equals("plane")) {
-            modeSpecificGraph.addEdge(HUE.id, HCMC.id, 615, 1.4, 75);
-            modeSpecificGraph.addEdge(HCMC.id, HUE.id, 615, 1.4, 75);
-        }
-
-        // --- Tuyến Đà Nẵng (DANANG.id) ---
-        // Đà Nẵng <-> Nha Trang (NHATRANG.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(DANANG.id, NHATRANG.id, 530, 9.0, 50);
-            modeSpecificGraph.addEdge(NHATRANG.id, DANANG.id, 530, 9.0, 50);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(DANANG.id, NHATRANG.id, 550, 11.0, 30);
-            modeSpecificGraph.addEdge(NHATRANG.id, DANANG.id, 550, 11.0, 30);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(DANANG.id, NHATRANG.id, 524, 10.0, 40);
-            modeSpecificGraph.addEdge(NHATRANG.id, DANANG.id, 524, 10.0, 40);
-        } else if (transportMode.equals("plane")) {
-            modeSpecificGraph.addEdge(DANANG.id, NHATRANG.id, 400, 1.0, 55);
-            modeSpecificGraph.addEdge(NHATRANG.id, DANANG.id, 400, 1.0, 55);
-        }
-
-        // Đà Nẵng <-> TP. Hồ Chí Minh (HCMC.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(DANANG.id, HCMC.id, 850, 16.0, 80);
-            modeSpecificGraph.addEdge(HCMC.id, DANANG.id, 850, 16.0, 80);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(DANANG.id, HCMC.id, 900, 20.0, 50);
-            modeSpecificGraph.addEdge(HCMC.id, DANANG.id, 900, 20.0, 50);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(DANANG.id, HCMC.id, 935, 17.0, 60);
-            modeSpecificGraph.addEdge(HCMC.id, DANANG.id, 935, 17.0, 60);
-        } else if (transportMode.equals("plane")) {
-            modeSpecificGraph.addEdge(DANANG.id, HCMC.id, 610, 1.3, 70);
-            modeSpecificGraph.addEdge(HCMC.id, DANANG.id, 610, 1.3, 70);
+    private void appendAlternatives(StringBuilder pathText, Location startLoc, Location endLoc, Criterion criterion,
+                                    int modeMask, double bestValue, String unit) {
+        CustomLinkedList<DijkstraResult> ranked = routeCache.findKShortestPaths(travelGraph, startLoc.id,
+                endLoc.id, MAX_ALTERNATIVES + 1, criterion, modeMask, ALTERNATIVE_MAX_STRETCH);
+        int rank = 0;
+        for (DijkstraResult alternative : ranked) {
+            rank++;
+            if (rank == 1) {
+                continue; // Đường tốt nhất đã được hiển thị ở trên
+            }
+            pathText.append(String.format("\nAlternative %d (+%.1f%%, %.2f %s): ", rank - 1,
+                    (alternative.totalValue / bestValue - 1.0) * 100.0, alternative.totalValue, unit));
+            boolean first = true;
+            for (Location locNode : alternative.path) {
+                if (!first) {
+                    pathText.append(" -> ");
+                }
+                pathText.append(locNode.name);
+                first = false;
+            }
         }
+    }
 
-        // --- Tuyến Nha Trang (NHATRANG.id) ---
-        // Nha Trang <-> TP. Hồ Chí Minh (HCMC.id)
-        if (transportMode.equals("car")) {
-            modeSpecificGraph.addEdge(NHATRANG.id, HCMC.id, 430, 7.5, 40);
-            modeSpecificGraph.addEdge(HCMC.id, NHATRANG.id, 430, 7.5, 40);
-        } else if (transportMode.equals("motorbike")) {
-            modeSpecificGraph.addEdge(NHATRANG.id, HCMC.id, 450, 9.0, 25);
-            modeSpecificGraph.addEdge(HCMC.id, NHATRANG.id, 450, 9.0, 25);
-        } else if (transportMode.equals("train")) {
-            modeSpecificGraph.addEdge(NHATRANG.id, HCMC.id, 411, 8.0, 30);
-            modeSpecificGraph.addEdge(HCMC.id, NHATRANG.id, 411, 8.0, 30);
-        } else if (transportMode.equals("plane")) {
-            modeSpecificGraph.addEdge(NHATRANG.id, HCMC.id, 305, 1.0, 50);
-            modeSpecificGraph.addEdge(HCMC.id, NHATRANG.id, 305, 1.0, 50);
+    /**
+     * Nạp mạng lưới mẫu đi kèm ứng dụng ({@value #DEFAULT_NETWORK_RESOURCE}).
+     * Nếu nạp thất bại, in lỗi và trả về đồ thị rỗng (giao diện sẽ báo không có địa điểm).
+     * @return Đồ thị đã nạp, hoặc đồ thị rỗng nếu lỗi.
+     */
+    private static Graph loadDefaultGraph() {
+        GraphLoader loader = new GraphLoader();
+        try (InputStream input = TravelPlannerGUI.class.getResourceAsStream(DEFAULT_NETWORK_RESOURCE)) {
+            if (input == null) {
+                throw new IOException("resource not found on the classpath");
+            }
+            Graph graph = loader.load(input, DEFAULT_NETWORK_RESOURCE);
+            System.out.println(loader.getSummary());
+            return graph;
+        } catch (IOException e) {
+            System.err.println("Error: Could not load the bundled network " + DEFAULT_NETWORK_RESOURCE + ": "
+                    + e.getMessage());
+            return new Graph();
         }
-
-        return modeSpecificGraph;
     }
 
+    /**
+     * Khởi chạy ứng dụng. Nếu có tham số, đồ thị được nạp từ file đó (định dạng của GraphLoader);
+     * nếu không, hoặc nạp file thất bại, dùng mạng lưới mẫu đi kèm ứng dụng.
+     * @param args Tùy chọn: đường dẫn file đồ thị.
+     */
     public static void main(String[] args) {
+        Graph loadedGraph = null;
+        if (args.length > 0) {
+            GraphLoader loader = new GraphLoader();
+            try {
+                loadedGraph = loader.load(args[0]);
+                System.out.println(loader.getSummary());
+            } catch (IOException e) {
+                System.err.println("Error: Could not load graph from " + args[0] + ": " + e.getMessage());
+            }
+        }
+        final Graph graph = loadedGraph != null ? loadedGraph : loadDefaultGraph();
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
-                new TravelPlannerGUI().setVisible(true);
+                TravelPlannerGUI gui = new TravelPlannerGUI(graph);
+                gui.setVisible(true);
             }
         });
     }